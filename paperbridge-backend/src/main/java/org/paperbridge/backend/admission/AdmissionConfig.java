@@ -0,0 +1,27 @@
+package org.paperbridge.backend.admission;
+
+import org.paperbridge.backend.config.AdmissionProperties;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+/**
+ * Registers the {@link AdmissionFilter} ahead of security and all other filters, so shed requests
+ * cost as little as possible.
+ */
+@Configuration
+public class AdmissionConfig {
+
+  @Bean
+  @ConditionalOnProperty(name = "paperbridge.admission.enabled", havingValue = "true", matchIfMissing = true)
+  public FilterRegistrationBean<AdmissionFilter> admissionFilter(AdmissionController admissionController,
+      AdmissionProperties properties) {
+    FilterRegistrationBean<AdmissionFilter> registration = new FilterRegistrationBean<>(
+        new AdmissionFilter(admissionController, properties.isTrustForwardedFor()));
+    registration.addUrlPatterns("/api/*");
+    registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 10);
+    return registration;
+  }
+}
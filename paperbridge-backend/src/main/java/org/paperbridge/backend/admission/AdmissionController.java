@@ -0,0 +1,165 @@
+package org.paperbridge.backend.admission;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.paperbridge.backend.config.AdmissionProperties;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decides whether work may start now, has to wait, or is shed.
+ *
+ * Interactive requests, uploads and background work each have their own concurrency budget and
+ * queue, so a scanner pushing hundreds of files only ever occupies the upload slots, and downloads
+ * keep flowing through theirs. On top of that, every client has a token bucket per class, so one
+ * client cannot use up a whole budget. Requests that would exceed their client's rate, or find
+ * their queue full, are rejected right away rather than piling up; the caller answers those with
+ * 429 and a Retry-After delay.
+ *
+ * Background work is never rejected. It waits for a slot, and it waits while interactive requests
+ * are queued, so user-facing latency wins whenever the two compete. Waiting is meant to happen on
+ * virtual threads, where a blocked caller does not hold on to a platform thread.
+ *
+ * Metrics: {@code paperbridge.admission.active} and {@code paperbridge.admission.queued} gauges,
+ * {@code paperbridge.admission.wait} timer and {@code paperbridge.admission.rejected} counter, all
+ * tagged with the traffic class.
+ */
+@Service
+public class AdmissionController {
+
+  private static final Permit NO_OP = () -> {
+  };
+  private static final long YIELD_NANOS = TimeUnit.MILLISECONDS.toNanos(20);
+
+  private final AdmissionProperties properties;
+  private final MeterRegistry meterRegistry;
+  private final Map<TrafficClass, AdmissionQueue> queues = new EnumMap<>(TrafficClass.class);
+  private final Map<TrafficClass, Cache<String, TokenBucket>> clientBuckets = new EnumMap<>(TrafficClass.class);
+  private final Map<TrafficClass, Timer> waitTimers = new EnumMap<>(TrafficClass.class);
+
+  public AdmissionController(AdmissionProperties properties, MeterRegistry meterRegistry) {
+    this.properties = properties;
+    this.meterRegistry = meterRegistry;
+    for (TrafficClass trafficClass : TrafficClass.values()) {
+      AdmissionProperties.Budget budget = budget(trafficClass);
+      AdmissionQueue queue = new AdmissionQueue(budget.getMaxConcurrent(), budget.getMaxQueued(),
+          budget.getMaxWait());
+      queues.put(trafficClass, queue);
+      if (budget.getClientRate() > 0) {
+        clientBuckets.put(trafficClass, Caffeine.newBuilder()
+            .expireAfterAccess(properties.getClientIdleTimeout())
+            .maximumSize(properties.getMaxClients())
+            .build());
+      }
+
+      Gauge.builder("paperbridge.admission.active", queue, AdmissionQueue::active)
+          .description("Requests holding a slot of their traffic class")
+          .tag("class", trafficClass.tag())
+          .register(meterRegistry);
+      Gauge.builder("paperbridge.admission.queued", queue, AdmissionQueue::queued)
+          .description("Requests waiting for a slot of their traffic class")
+          .tag("class", trafficClass.tag())
+          .register(meterRegistry);
+      waitTimers.put(trafficClass, Timer.builder("paperbridge.admission.wait")
+          .description("Time spent waiting for a slot")
+          .tag("class", trafficClass.tag())
+          .register(meterRegistry));
+    }
+  }
+
+  /**
+   * Admits a client request, waiting in its class's queue if all slots are taken.
+   *
+   * @param trafficClass The class of the request; not {@link TrafficClass#BACKGROUND}.
+   * @param client The key identifying the client, e.g. its address.
+   * @return The permit to close once the request has completed.
+   * @throws AdmissionRejectedException if the client is over its rate or the queue is full or too slow.
+   * @throws InterruptedException if the thread is interrupted while queued.
+   */
+  public Permit admit(TrafficClass trafficClass, String client) throws InterruptedException {
+    if (!properties.isEnabled()) {
+      return NO_OP;
+    }
+
+    Cache<String, TokenBucket> buckets = clientBuckets.get(trafficClass);
+    if (buckets != null) {
+      AdmissionProperties.Budget budget = budget(trafficClass);
+      TokenBucket bucket = buckets.get(client,
+          key -> new TokenBucket(budget.getClientRate(), Math.max(1, budget.getClientBurst())));
+      long wait = bucket.tryAcquire(1);
+      if (wait > 0) {
+        throw reject(trafficClass, "rate_limited", Duration.ofNanos(wait));
+      }
+    }
+
+    AdmissionQueue queue = queues.get(trafficClass);
+    long start = System.nanoTime();
+    String rejection = queue.tryEnter();
+    waitTimers.get(trafficClass).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    if (rejection != null) {
+      // Roughly the time the queue needs to drain; shed clients should not come straight back
+      throw reject(trafficClass, rejection, queue.maxWait());
+    }
+    return queue::leave;
+  }
+
+  /**
+   * Takes a slot for background work, waiting while all slots are taken or interactive requests
+   * are queued.
+   *
+   * @return The permit to close once the work is done.
+   * @throws InterruptedException if the thread is interrupted while waiting.
+   */
+  public Permit acquireBackground() throws InterruptedException {
+    if (!properties.isEnabled()) {
+      return NO_OP;
+    }
+
+    AdmissionQueue interactive = queues.get(TrafficClass.INTERACTIVE);
+    AdmissionQueue queue = queues.get(TrafficClass.BACKGROUND);
+    long start = System.nanoTime();
+    while (interactive.queued() > 0) {
+      TimeUnit.NANOSECONDS.sleep(YIELD_NANOS);
+    }
+    queue.enter();
+    waitTimers.get(TrafficClass.BACKGROUND).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    return queue::leave;
+  }
+
+  private AdmissionRejectedException reject(TrafficClass trafficClass, String reason, Duration retryAfter) {
+    Counter.builder("paperbridge.admission.rejected")
+        .description("Requests shed by admission control")
+        .tag("class", trafficClass.tag())
+        .tag("reason", reason)
+        .register(meterRegistry)
+        .increment();
+    return new AdmissionRejectedException(
+        "Too many " + trafficClass.tag() + " requests (" + reason + ")", retryAfter);
+  }
+
+  private AdmissionProperties.Budget budget(TrafficClass trafficClass) {
+    return switch (trafficClass) {
+      case INTERACTIVE -> properties.getInteractive();
+      case UPLOAD -> properties.getUpload();
+      case BACKGROUND -> properties.getBackground();
+    };
+  }
+
+  /**
+   * A held slot; closing it lets the next caller in.
+   */
+  @FunctionalInterface
+  public interface Permit extends AutoCloseable {
+
+    @Override
+    void close();
+  }
+}
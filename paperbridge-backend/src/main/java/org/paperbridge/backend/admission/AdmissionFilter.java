@@ -0,0 +1,79 @@
+package org.paperbridge.backend.admission;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.lang.NonNull;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Runs every API request through the {@link AdmissionController}: uploads in the upload class,
+ * everything else in the interactive class. Shed requests get {@code 429 Too Many Requests} with a
+ * {@code Retry-After} header in seconds.
+ *
+ * Server-Sent Event streams only hold their slot until the stream is set up, not while it is open.
+ */
+public class AdmissionFilter extends OncePerRequestFilter {
+
+  private final AdmissionController admissionController;
+  private final boolean trustForwardedFor;
+
+  public AdmissionFilter(AdmissionController admissionController, boolean trustForwardedFor) {
+    this.admissionController = admissionController;
+    this.trustForwardedFor = trustForwardedFor;
+  }
+
+  @Override
+  protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+    // Actuator and CORS preflights must keep answering under load
+    return !request.getRequestURI().startsWith("/api/")
+        || HttpMethod.OPTIONS.matches(request.getMethod());
+  }
+
+  @Override
+  protected void doFilterInternal(@NonNull HttpServletRequest request,
+      @NonNull HttpServletResponse response, @NonNull FilterChain filterChain)
+      throws ServletException, IOException {
+    AdmissionController.Permit permit;
+    try {
+      permit = admissionController.admit(classify(request), client(request));
+    } catch (AdmissionRejectedException e) {
+      long seconds = Math.max(1, (e.getRetryAfter().toMillis() + 999) / 1000);
+      response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(seconds));
+      response.sendError(HttpStatus.TOO_MANY_REQUESTS.value(), e.getMessage());
+      return;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      response.sendError(HttpStatus.SERVICE_UNAVAILABLE.value());
+      return;
+    }
+
+    try (permit) {
+      filterChain.doFilter(request, response);
+    }
+  }
+
+  static TrafficClass classify(HttpServletRequest request) {
+    String path = request.getRequestURI().replaceAll("/+$", "");
+    if (HttpMethod.POST.matches(request.getMethod()) && path.equals("/api/documents")) {
+      return TrafficClass.UPLOAD;
+    }
+    return TrafficClass.INTERACTIVE;
+  }
+
+  private String client(HttpServletRequest request) {
+    if (trustForwardedFor) {
+      String forwardedFor = request.getHeader("X-Forwarded-For");
+      if (forwardedFor != null && !forwardedFor.isBlank()) {
+        return forwardedFor.split(",")[0].trim();
+      }
+    }
+    return request.getRemoteAddr();
+  }
+}
@@ -0,0 +1,78 @@
+package org.paperbridge.backend.admission;
+
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Concurrency budget of one traffic class: a fixed number of slots plus a bounded, first-come
+ * first-served queue of callers waiting for one.
+ */
+class AdmissionQueue {
+
+  private final int maxConcurrent;
+  private final int maxQueued;
+  private final Duration maxWait;
+  private final Semaphore slots;
+  private final AtomicInteger queued = new AtomicInteger();
+
+  AdmissionQueue(int maxConcurrent, int maxQueued, Duration maxWait) {
+    this.maxConcurrent = Math.max(1, maxConcurrent);
+    this.maxQueued = maxQueued;
+    this.maxWait = maxWait;
+    this.slots = new Semaphore(this.maxConcurrent, true);
+  }
+
+  /**
+   * Takes a slot, queueing for at most the configured wait.
+   *
+   * @return The reason the caller was rejected, or null if it holds a slot now.
+   * @throws InterruptedException if the thread is interrupted while queued.
+   */
+  String tryEnter() throws InterruptedException {
+    // The timed variant honours fairness, so callers cannot overtake those already queued
+    if (slots.tryAcquire(0, TimeUnit.NANOSECONDS)) {
+      return null;
+    }
+    if (queued.incrementAndGet() > maxQueued) {
+      queued.decrementAndGet();
+      return "queue_full";
+    }
+    try {
+      return slots.tryAcquire(maxWait.toNanos(), TimeUnit.NANOSECONDS) ? null : "timeout";
+    } finally {
+      queued.decrementAndGet();
+    }
+  }
+
+  /**
+   * Takes a slot, waiting as long as necessary.
+   *
+   * @throws InterruptedException if the thread is interrupted while waiting.
+   */
+  void enter() throws InterruptedException {
+    queued.incrementAndGet();
+    try {
+      slots.acquire();
+    } finally {
+      queued.decrementAndGet();
+    }
+  }
+
+  void leave() {
+    slots.release();
+  }
+
+  int active() {
+    return maxConcurrent - slots.availablePermits();
+  }
+
+  int queued() {
+    return queued.get();
+  }
+
+  Duration maxWait() {
+    return maxWait;
+  }
+}
@@ -0,0 +1,20 @@
+package org.paperbridge.backend.admission;
+
+import java.time.Duration;
+
+/**
+ * Thrown when a request is shed instead of admitted. The client should retry after the given delay.
+ */
+public class AdmissionRejectedException extends RuntimeException {
+
+  private final Duration retryAfter;
+
+  public AdmissionRejectedException(String message, Duration retryAfter) {
+    super(message);
+    this.retryAfter = retryAfter;
+  }
+
+  public Duration getRetryAfter() {
+    return retryAfter;
+  }
+}
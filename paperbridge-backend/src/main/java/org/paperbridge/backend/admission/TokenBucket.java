@@ -0,0 +1,77 @@
+package org.paperbridge.backend.admission;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Rate limiter that refills at a fixed rate up to a burst capacity.
+ *
+ * Tokens are refilled lazily when the bucket is used, so idle buckets cost nothing. A request for
+ * more tokens than the capacity is granted once the bucket is full and leaves it in debt, which
+ * lets a large unit of work (say, reading a big file against a bytes-per-second budget) through
+ * while still holding the long-term rate.
+ */
+public class TokenBucket {
+
+  private final double tokensPerNano;
+  private final double capacity;
+  private final LongSupplier nanoClock;
+  private double tokens;
+  private long refilledAt;
+
+  /**
+   * Creates a full bucket.
+   *
+   * @param ratePerSecond The sustained rate in tokens per second; must be positive.
+   * @param capacity The maximum number of tokens that can accumulate.
+   */
+  public TokenBucket(double ratePerSecond, double capacity) {
+    this(ratePerSecond, capacity, System::nanoTime);
+  }
+
+  TokenBucket(double ratePerSecond, double capacity, LongSupplier nanoClock) {
+    if (ratePerSecond <= 0 || capacity <= 0) {
+      throw new IllegalArgumentException("Rate and capacity must be positive");
+    }
+    this.tokensPerNano = ratePerSecond / TimeUnit.SECONDS.toNanos(1);
+    this.capacity = capacity;
+    this.nanoClock = nanoClock;
+    this.tokens = capacity;
+    this.refilledAt = nanoClock.getAsLong();
+  }
+
+  /**
+   * Takes tokens if enough are available, without waiting.
+   *
+   * @param permits The number of tokens to take.
+   * @return 0 if the tokens were taken, otherwise the nanoseconds until they would be available.
+   */
+  public synchronized long tryAcquire(double permits) {
+    refill();
+    double required = Math.min(permits, capacity);
+    if (tokens >= required) {
+      tokens -= permits;
+      return 0;
+    }
+    return (long) Math.ceil((required - tokens) / tokensPerNano);
+  }
+
+  /**
+   * Takes tokens, waiting as long as necessary.
+   *
+   * @param permits The number of tokens to take.
+   * @throws InterruptedException if the thread is interrupted while waiting.
+   */
+  public void acquire(double permits) throws InterruptedException {
+    long wait;
+    while ((wait = tryAcquire(permits)) > 0) {
+      TimeUnit.NANOSECONDS.sleep(wait);
+    }
+  }
+
+  private void refill() {
+    long now = nanoClock.getAsLong();
+    tokens = Math.min(capacity, tokens + (now - refilledAt) * tokensPerNano);
+    refilledAt = now;
+  }
+}
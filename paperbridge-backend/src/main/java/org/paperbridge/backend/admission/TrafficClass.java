@@ -0,0 +1,20 @@
+package org.paperbridge.backend.admission;
+
+/**
+ * Classes of work with separate concurrency budgets, so one kind of load cannot starve another.
+ */
+public enum TrafficClass {
+  /** Reads and small edits a user is waiting for. */
+  INTERACTIVE,
+  /** Document uploads. */
+  UPLOAD,
+  /** Work started by the server itself, such as page pre-rendering and document processing. */
+  BACKGROUND;
+
+  /**
+   * @return The lower-case name used in configuration and metric tags.
+   */
+  public String tag() {
+    return name().toLowerCase();
+  }
+}
@@ -0,0 +1,194 @@
+package org.paperbridge.backend.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Configuration class for admission control, i.e. how many requests of each traffic class may run
+ * at the same time, how many may wait, and how fast a single client may send them.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "paperbridge.admission")
+public class AdmissionProperties {
+
+    /**
+     * Whether requests are classified and admitted at all.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Whether the client of a request is identified by the first X-Forwarded-For address instead of
+     * the remote address. Only enable behind a proxy that sets the header.
+     *
+     * Clients are told apart by address alone. Everyone behind one NAT or VPN gateway shares a
+     * client's rate limits, so such sites need higher client rates, or 0 to disable them.
+     */
+    private boolean trustForwardedFor = false;
+
+    /**
+     * How long the rate limit state of an idle client is kept.
+     */
+    private Duration clientIdleTimeout = Duration.ofMinutes(10);
+
+    /**
+     * Maximum number of clients whose rate limit state is kept.
+     */
+    private long maxClients = 10_000;
+
+    /**
+     * Reads and small edits a user is waiting for.
+     */
+    private Budget interactive = new Budget(64, 256, Duration.ofSeconds(2), 50, 100);
+
+    /**
+     * Document uploads, which hold a request thread, disk bandwidth and a connection for long.
+     */
+    private Budget upload = new Budget(4, 32, Duration.ofSeconds(30), 5, 20);
+
+    /**
+     * Work started by the server itself, such as page pre-rendering and OCR. Background work is
+     * never rejected, it waits for a permit and yields to queued interactive requests.
+     */
+    private Budget background = new Budget(Math.max(1, Runtime.getRuntime().availableProcessors() / 2), 0,
+            Duration.ZERO, 0, 0);
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public boolean isTrustForwardedFor() {
+        return trustForwardedFor;
+    }
+
+    public void setTrustForwardedFor(boolean trustForwardedFor) {
+        this.trustForwardedFor = trustForwardedFor;
+    }
+
+    public Duration getClientIdleTimeout() {
+        return clientIdleTimeout;
+    }
+
+    public void setClientIdleTimeout(Duration clientIdleTimeout) {
+        this.clientIdleTimeout = clientIdleTimeout;
+    }
+
+    public long getMaxClients() {
+        return maxClients;
+    }
+
+    public void setMaxClients(long maxClients) {
+        this.maxClients = maxClients;
+    }
+
+    public Budget getInteractive() {
+        return interactive;
+    }
+
+    public void setInteractive(Budget interactive) {
+        this.interactive = interactive;
+    }
+
+    public Budget getUpload() {
+        return upload;
+    }
+
+    public void setUpload(Budget upload) {
+        this.upload = upload;
+    }
+
+    public Budget getBackground() {
+        return background;
+    }
+
+    public void setBackground(Budget background) {
+        this.background = background;
+    }
+
+    /**
+     * Limits of one traffic class.
+     */
+    public static class Budget {
+
+        /**
+         * Requests of this class running at the same time.
+         */
+        private int maxConcurrent;
+
+        /**
+         * Requests of this class waiting for a slot; further requests are rejected with 429.
+         */
+        private int maxQueued;
+
+        /**
+         * How long a queued request waits for a slot before it is rejected with 429.
+         */
+        private Duration maxWait;
+
+        /**
+         * Sustained requests per second per client address; 0 disables the per-client limit.
+         */
+        private double clientRate;
+
+        /**
+         * Requests a client may send in a burst above its sustained rate.
+         */
+        private int clientBurst;
+
+        public Budget() {
+        }
+
+        public Budget(int maxConcurrent, int maxQueued, Duration maxWait, double clientRate, int clientBurst) {
+            this.maxConcurrent = maxConcurrent;
+            this.maxQueued = maxQueued;
+            this.maxWait = maxWait;
+            this.clientRate = clientRate;
+            this.clientBurst = clientBurst;
+        }
+
+        public int getMaxConcurrent() {
+            return maxConcurrent;
+        }
+
+        public void setMaxConcurrent(int maxConcurrent) {
+            this.maxConcurrent = maxConcurrent;
+        }
+
+        public int getMaxQueued() {
+            return maxQueued;
+        }
+
+        public void setMaxQueued(int maxQueued) {
+            this.maxQueued = maxQueued;
+        }
+
+        public Duration getMaxWait() {
+            return maxWait;
+        }
+
+        public void setMaxWait(Duration maxWait) {
+            this.maxWait = maxWait;
+        }
+
+        public double getClientRate() {
+            return clientRate;
+        }
+
+        public void setClientRate(double clientRate) {
+            this.clientRate = clientRate;
+        }
+
+        public int getClientBurst() {
+            return clientBurst;
+        }
+
+        public void setClientBurst(int clientBurst) {
+            this.clientBurst = clientBurst;
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package org.paperbridge.backend.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.paperbridge.backend.document.cache.DocumentCache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configures the in-memory caches used by {@link DocumentCache}.
+ *
+ * Statistics are recorded so that hit rates are published through Actuator's cache metrics.
+ */
+@Configuration
+public class CacheConfig {
+
+    @Bean
+    public CacheManager cacheManager(DocumentCacheProperties properties) {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager(
+                DocumentCache.DOCUMENTS, DocumentCache.DOCUMENT_HISTORY);
+        cacheManager.setCaffeine(Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumSize())
+                .expireAfterWrite(properties.getTimeToLive())
+                .recordStats());
+        return cacheManager;
+    }
+}
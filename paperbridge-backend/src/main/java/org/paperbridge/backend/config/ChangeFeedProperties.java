@@ -0,0 +1,67 @@
+package org.paperbridge.backend.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Configuration class for the document change feed used by clients to sync incrementally.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "paperbridge.changes")
+public class ChangeFeedProperties {
+
+    /**
+     * How long changes are kept. Clients holding an older token must reload everything.
+     */
+    private Duration retention = Duration.ofDays(30);
+
+    /**
+     * Maximum number of changes returned by a single request.
+     */
+    private int maxPageSize = 500;
+
+    /**
+     * Maximum lifetime of a push stream; browsers reconnect automatically afterwards.
+     */
+    private Duration streamTimeout = Duration.ofMinutes(30);
+
+    /**
+     * How long a gap in the change sequence is waited on before it is skipped as rolled back. Must
+     * exceed the longest transaction that records a change, plus the clock skew between nodes.
+     */
+    private Duration commitLag = Duration.ofSeconds(5);
+
+    public Duration getRetention() {
+        return retention;
+    }
+
+    public void setRetention(Duration retention) {
+        this.retention = retention;
+    }
+
+    public int getMaxPageSize() {
+        return maxPageSize;
+    }
+
+    public void setMaxPageSize(int maxPageSize) {
+        this.maxPageSize = maxPageSize;
+    }
+
+    public Duration getStreamTimeout() {
+        return streamTimeout;
+    }
+
+    public void setStreamTimeout(Duration streamTimeout) {
+        this.streamTimeout = streamTimeout;
+    }
+
+    public Duration getCommitLag() {
+        return commitLag;
+    }
+
+    public void setCommitLag(Duration commitLag) {
+        this.commitLag = commitLag;
+    }
+}
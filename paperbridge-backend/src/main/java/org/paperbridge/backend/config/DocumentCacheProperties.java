@@ -0,0 +1,68 @@
+package org.paperbridge.backend.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Configuration class for the second-level cache of document metadata and history, including how
+ * invalidations are propagated between backend nodes.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "paperbridge.cache")
+public class DocumentCacheProperties {
+
+    /**
+     * Maximum number of entries per cache.
+     */
+    private long maximumSize = 10_000;
+
+    /**
+     * How long an entry may be served after it was loaded from the database.
+     */
+    private Duration timeToLive = Duration.ofMinutes(10);
+
+    /**
+     * How invalidations reach other nodes: "local" for a single node (and tests), "postgres" to
+     * use PostgreSQL LISTEN/NOTIFY.
+     */
+    private String invalidation = "local";
+
+    /**
+     * PostgreSQL notification channel used when invalidation is "postgres".
+     */
+    private String channel = "paperbridge_cache";
+
+    public long getMaximumSize() {
+        return maximumSize;
+    }
+
+    public void setMaximumSize(long maximumSize) {
+        this.maximumSize = maximumSize;
+    }
+
+    public Duration getTimeToLive() {
+        return timeToLive;
+    }
+
+    public void setTimeToLive(Duration timeToLive) {
+        this.timeToLive = timeToLive;
+    }
+
+    public String getInvalidation() {
+        return invalidation;
+    }
+
+    public void setInvalidation(String invalidation) {
+        this.invalidation = invalidation;
+    }
+
+    public String getChannel() {
+        return channel;
+    }
+
+    public void setChannel(String channel) {
+        this.channel = channel;
+    }
+}
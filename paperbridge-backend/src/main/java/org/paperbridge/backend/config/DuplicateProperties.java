@@ -0,0 +1,81 @@
+package org.paperbridge.backend.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration class for near-duplicate detection based on MinHash signatures of document
+ * contents.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "paperbridge.duplicates")
+public class DuplicateProperties {
+
+    /**
+     * Number of characters per shingle. Changing it (or the number of hashes) invalidates all
+     * stored signatures; they have to be recomputed by a reprocessing run.
+     */
+    private int shingleSize = 5;
+
+    /**
+     * Number of hash functions, i.e. the length of a signature.
+     */
+    private int hashes = 128;
+
+    /**
+     * Number of locality-sensitive hashing bands; must divide the number of hashes. More bands
+     * find less similar candidates at the cost of more false candidates to verify.
+     */
+    private int bands = 16;
+
+    /**
+     * Minimum estimated similarity, between 0 and 1, for two documents to count as likely
+     * duplicates.
+     */
+    private double threshold = 0.8;
+
+    /**
+     * Maximum number of documents in a folder report. Larger folders are rejected.
+     */
+    private int maxFolderDocuments = 20_000;
+
+    public int getShingleSize() {
+        return shingleSize;
+    }
+
+    public void setShingleSize(int shingleSize) {
+        this.shingleSize = shingleSize;
+    }
+
+    public int getHashes() {
+        return hashes;
+    }
+
+    public void setHashes(int hashes) {
+        this.hashes = hashes;
+    }
+
+    public int getBands() {
+        return bands;
+    }
+
+    public void setBands(int bands) {
+        this.bands = bands;
+    }
+
+    public double getThreshold() {
+        return threshold;
+    }
+
+    public void setThreshold(double threshold) {
+        this.threshold = threshold;
+    }
+
+    public int getMaxFolderDocuments() {
+        return maxFolderDocuments;
+    }
+
+    public void setMaxFolderDocuments(int maxFolderDocuments) {
+        this.maxFolderDocuments = maxFolderDocuments;
+    }
+}
@@ -0,0 +1,66 @@
+package org.paperbridge.backend.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration class for the in-memory read cache that sits in front of the storage service and
+ * keeps frequently opened files memory-mapped.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "paperbridge.storage.cache")
+public class HotFileCacheProperties {
+
+    /**
+     * Whether hot files are cached at all. When disabled every read goes to disk.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Upper bound for the total size of all cached files, in bytes.
+     */
+    private long maxBytes = 256L * 1024 * 1024;
+
+    /**
+     * Files larger than this are never cached, in bytes.
+     */
+    private long maxFileSize = 32L * 1024 * 1024;
+
+    /**
+     * Number of distinct files the frequency sketch is sized for. Larger values reduce collisions
+     * at the cost of a few bytes per entry.
+     */
+    private int expectedFiles = 10_000;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public long getMaxBytes() {
+        return maxBytes;
+    }
+
+    public void setMaxBytes(long maxBytes) {
+        this.maxBytes = maxBytes;
+    }
+
+    public long getMaxFileSize() {
+        return maxFileSize;
+    }
+
+    public void setMaxFileSize(long maxFileSize) {
+        this.maxFileSize = maxFileSize;
+    }
+
+    public int getExpectedFiles() {
+        return expectedFiles;
+    }
+
+    public void setExpectedFiles(int expectedFiles) {
+        this.expectedFiles = expectedFiles;
+    }
+}
@@ -0,0 +1,151 @@
+package org.paperbridge.backend.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Configuration class for hot-folder ingestion, i.e. the inbox directory scanners drop files into
+ * and how quickly and in which batches those files are imported.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "paperbridge.ingest")
+public class IngestProperties {
+
+    /**
+     * Whether the inbox is watched at all.
+     */
+    private boolean enabled = false;
+
+    /**
+     * Directory that is watched for new files, including its subdirectories. Must not overlap the
+     * document storage location; the application refuses to start otherwise.
+     */
+    private String inbox = "inbox";
+
+    /**
+     * Storage folder imported files are placed in. Subdirectories of the inbox are kept below it.
+     */
+    private String targetFolder = "scans";
+
+    /**
+     * Directory imported files are moved to. When empty, they are deleted from the inbox instead.
+     * Must not overlap the document storage location either.
+     */
+    private String archiveLocation = "";
+
+    /**
+     * How long a file's size and modification time must stay unchanged before it is considered
+     * completely written.
+     */
+    private Duration quietPeriod = Duration.ofSeconds(2);
+
+    /**
+     * How often the whole inbox is scanned in addition to watching it. Catches files whose events
+     * were lost, e.g. on network shares, and retries files whose import failed.
+     */
+    private Duration rescanInterval = Duration.ofMinutes(1);
+
+    /**
+     * Number of files hashed and stored at the same time.
+     */
+    private int storeConcurrency = Math.max(2, Runtime.getRuntime().availableProcessors());
+
+    /**
+     * Maximum number of documents created in one transaction.
+     */
+    private int batchSize = 200;
+
+    /**
+     * How long a batch waits to fill up before it is written anyway.
+     */
+    private Duration batchDelay = Duration.ofMillis(500);
+
+    /**
+     * File extensions that are imported, e.g. "pdf" or "tiff". When empty, every file is imported.
+     */
+    private List<String> extensions = new ArrayList<>(List.of("pdf", "png", "jpg", "jpeg", "tif", "tiff"));
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public String getInbox() {
+        return inbox;
+    }
+
+    public void setInbox(String inbox) {
+        this.inbox = inbox;
+    }
+
+    public String getTargetFolder() {
+        return targetFolder;
+    }
+
+    public void setTargetFolder(String targetFolder) {
+        this.targetFolder = targetFolder;
+    }
+
+    public String getArchiveLocation() {
+        return archiveLocation;
+    }
+
+    public void setArchiveLocation(String archiveLocation) {
+        this.archiveLocation = archiveLocation;
+    }
+
+    public Duration getQuietPeriod() {
+        return quietPeriod;
+    }
+
+    public void setQuietPeriod(Duration quietPeriod) {
+        this.quietPeriod = quietPeriod;
+    }
+
+    public Duration getRescanInterval() {
+        return rescanInterval;
+    }
+
+    public void setRescanInterval(Duration rescanInterval) {
+        this.rescanInterval = rescanInterval;
+    }
+
+    public int getStoreConcurrency() {
+        return storeConcurrency;
+    }
+
+    public void setStoreConcurrency(int storeConcurrency) {
+        this.storeConcurrency = storeConcurrency;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    public Duration getBatchDelay() {
+        return batchDelay;
+    }
+
+    public void setBatchDelay(Duration batchDelay) {
+        this.batchDelay = batchDelay;
+    }
+
+    public List<String> getExtensions() {
+        return extensions;
+    }
+
+    public void setExtensions(List<String> extensions) {
+        this.extensions = extensions;
+    }
+}
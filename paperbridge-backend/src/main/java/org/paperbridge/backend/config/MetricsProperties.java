@@ -0,0 +1,36 @@
+package org.paperbridge.backend.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration class for the application's own metrics.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "paperbridge.metrics")
+public class MetricsProperties {
+
+    /**
+     * "full" publishes latency histograms and counts Hibernate statements per request; "lean" keeps
+     * only counts, totals and maxima, which is cheap enough to leave on permanently. Matched
+     * case-insensitively; any other value is rejected at startup.
+     */
+    private Mode mode = Mode.FULL;
+
+    public Mode getMode() {
+        return mode;
+    }
+
+    public void setMode(Mode mode) {
+        this.mode = mode;
+    }
+
+    public boolean isLean() {
+        return mode == Mode.LEAN;
+    }
+
+    public enum Mode {
+        FULL,
+        LEAN
+    }
+}
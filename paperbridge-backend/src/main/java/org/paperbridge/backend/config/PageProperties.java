@@ -0,0 +1,110 @@
+package org.paperbridge.backend.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.List;
+
+/**
+ * Configuration class for server-side PDF page rendering, such as where rendered pages are cached
+ * and which resolutions clients may request.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "paperbridge.pages")
+public class PageProperties {
+
+    /**
+     * Filesystem location where rendered pages and page metadata are cached. Must not overlap the
+     * document storage location; the application refuses to start otherwise.
+     */
+    private String cacheLocation = "cache/pages";
+
+    /**
+     * Resolution used when the client does not ask for one.
+     */
+    private int defaultDpi = 96;
+
+    /**
+     * Highest resolution a client may request.
+     */
+    private int maxDpi = 300;
+
+    /**
+     * Resolutions pages are rendered at. A requested resolution is rounded up to the next step
+     * (or down to the highest one), so clients cannot fill the cache with a rendering per dpi.
+     */
+    private List<Integer> dpiSteps = List.of(72, 96, 150, 200, 300);
+
+    /**
+     * Upper bound for the total size of the page cache on disk, in bytes. When it is exceeded, the
+     * least recently used files are deleted until the cache is back below 90% of the limit.
+     */
+    private long maxCacheBytes = 2L * 1024 * 1024 * 1024;
+
+    /**
+     * Number of leading pages rendered right after upload, so the viewer can show them at once.
+     */
+    private int prerenderPages = 1;
+
+    /**
+     * Maximum number of PDFs loaded at the same time to render, extract or describe pages. Parsing
+     * and rendering are CPU and memory heavy.
+     */
+    private int renderConcurrency = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+
+    public String getCacheLocation() {
+        return cacheLocation;
+    }
+
+    public void setCacheLocation(String cacheLocation) {
+        this.cacheLocation = cacheLocation;
+    }
+
+    public int getDefaultDpi() {
+        return defaultDpi;
+    }
+
+    public void setDefaultDpi(int defaultDpi) {
+        this.defaultDpi = defaultDpi;
+    }
+
+    public int getMaxDpi() {
+        return maxDpi;
+    }
+
+    public void setMaxDpi(int maxDpi) {
+        this.maxDpi = maxDpi;
+    }
+
+    public List<Integer> getDpiSteps() {
+        return dpiSteps;
+    }
+
+    public void setDpiSteps(List<Integer> dpiSteps) {
+        this.dpiSteps = dpiSteps;
+    }
+
+    public long getMaxCacheBytes() {
+        return maxCacheBytes;
+    }
+
+    public void setMaxCacheBytes(long maxCacheBytes) {
+        this.maxCacheBytes = maxCacheBytes;
+    }
+
+    public int getPrerenderPages() {
+        return prerenderPages;
+    }
+
+    public void setPrerenderPages(int prerenderPages) {
+        this.prerenderPages = prerenderPages;
+    }
+
+    public int getRenderConcurrency() {
+        return renderConcurrency;
+    }
+
+    public void setRenderConcurrency(int renderConcurrency) {
+        this.renderConcurrency = renderConcurrency;
+    }
+}
@@ -0,0 +1,95 @@
+package org.paperbridge.backend.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Configuration class for the storage reconciler, which compares the files in document storage
+ * with the paths referenced by documents and their history, and optionally deletes orphaned files.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "paperbridge.reconciler")
+public class ReconcilerProperties {
+
+    /**
+     * Whether the reconciler runs on its schedule. It can always be started manually.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Whether orphaned files are deleted. When disabled, they are only reported.
+     */
+    private boolean reclaim = false;
+
+    /**
+     * Minimum age of an orphaned file before it is deleted. Protects files of uploads whose
+     * document row has not been committed yet and gives time to restore rows from a backup.
+     */
+    private Duration gracePeriod = Duration.ofDays(7);
+
+    /**
+     * Number of directories listed at the same time.
+     */
+    private int parallelism = 4;
+
+    /**
+     * Filesystem operations per second (directory listings, file inspections and deletions)
+     * the reconciler may spend, so it can run alongside regular traffic.
+     */
+    private double ioOperationsPerSecond = 2_000;
+
+    /**
+     * Maximum number of missing and orphaned paths listed in a report; totals are always complete.
+     */
+    private int maxReportedPaths = 1_000;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public boolean isReclaim() {
+        return reclaim;
+    }
+
+    public void setReclaim(boolean reclaim) {
+        this.reclaim = reclaim;
+    }
+
+    public Duration getGracePeriod() {
+        return gracePeriod;
+    }
+
+    public void setGracePeriod(Duration gracePeriod) {
+        this.gracePeriod = gracePeriod;
+    }
+
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    public void setParallelism(int parallelism) {
+        this.parallelism = parallelism;
+    }
+
+    public double getIoOperationsPerSecond() {
+        return ioOperationsPerSecond;
+    }
+
+    public void setIoOperationsPerSecond(double ioOperationsPerSecond) {
+        this.ioOperationsPerSecond = ioOperationsPerSecond;
+    }
+
+    public int getMaxReportedPaths() {
+        return maxReportedPaths;
+    }
+
+    public void setMaxReportedPaths(int maxReportedPaths) {
+        this.maxReportedPaths = maxReportedPaths;
+    }
+}
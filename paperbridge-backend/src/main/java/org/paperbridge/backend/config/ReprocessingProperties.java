@@ -0,0 +1,98 @@
+package org.paperbridge.backend.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Configuration class for reprocessing jobs, which run all existing documents through the worker
+ * pipeline again.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "paperbridge.reprocessing")
+public class ReprocessingProperties {
+
+    /**
+     * Default number of partitions processed at the same time. Each document additionally needs a
+     * slot of the background admission budget.
+     */
+    private int concurrency = 4;
+
+    /**
+     * Default maximum number of documents processed per second across all partitions of a node; 0
+     * for no limit.
+     */
+    private double documentsPerSecond = 20;
+
+    /**
+     * Width of the document ID range of one partition.
+     */
+    private long partitionSize = 10_000;
+
+    /**
+     * Number of document IDs of a partition read from the database at a time.
+     */
+    private int batchSize = 100;
+
+    /**
+     * How long a node keeps a partition without writing a checkpoint before another node may take
+     * it over. Must be longer than processing a single document takes, including the waits for the
+     * rate limit and the admission budget.
+     */
+    private Duration leaseDuration = Duration.ofMinutes(10);
+
+    /**
+     * Whether jobs that were running when the application stopped are resumed once it is ready.
+     * Nodes claim partitions through the database, so this is safe to enable on every node.
+     */
+    private boolean resumeOnStartup = true;
+
+    public int getConcurrency() {
+        return concurrency;
+    }
+
+    public void setConcurrency(int concurrency) {
+        this.concurrency = concurrency;
+    }
+
+    public double getDocumentsPerSecond() {
+        return documentsPerSecond;
+    }
+
+    public void setDocumentsPerSecond(double documentsPerSecond) {
+        this.documentsPerSecond = documentsPerSecond;
+    }
+
+    public long getPartitionSize() {
+        return partitionSize;
+    }
+
+    public void setPartitionSize(long partitionSize) {
+        this.partitionSize = partitionSize;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    public Duration getLeaseDuration() {
+        return leaseDuration;
+    }
+
+    public void setLeaseDuration(Duration leaseDuration) {
+        this.leaseDuration = leaseDuration;
+    }
+
+    public boolean isResumeOnStartup() {
+        return resumeOnStartup;
+    }
+
+    public void setResumeOnStartup(boolean resumeOnStartup) {
+        this.resumeOnStartup = resumeOnStartup;
+    }
+}
@@ -0,0 +1,12 @@
+package org.paperbridge.backend.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Enables {@code @Scheduled} methods, used by background tasks such as change feed tailing.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -0,0 +1,41 @@
+package org.paperbridge.backend.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration class for the background document processing pipeline (image clean-up, OCR and
+ * embeddings).
+ */
+@Configuration
+@ConfigurationProperties(prefix = "paperbridge.worker")
+public class WorkerProperties {
+
+    /**
+     * Number of documents processed at the same time. Processing additionally runs within the
+     * background admission budget.
+     */
+    private int concurrency = 2;
+
+    /**
+     * Maximum number of documents waiting for processing. Further documents are not queued and
+     * have to be picked up by a reprocessing run.
+     */
+    private int queueCapacity = 100_000;
+
+    public int getConcurrency() {
+        return concurrency;
+    }
+
+    public void setConcurrency(int concurrency) {
+        this.concurrency = concurrency;
+    }
+
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    public void setQueueCapacity(int queueCapacity) {
+        this.queueCapacity = queueCapacity;
+    }
+}
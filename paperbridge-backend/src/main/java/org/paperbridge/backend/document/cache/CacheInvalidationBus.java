@@ -0,0 +1,22 @@
+package org.paperbridge.backend.document.cache;
+
+/**
+ * Propagates cache invalidations to every backend node, so that a document changed on one node is
+ * not served stale from the cache of another.
+ */
+public interface CacheInvalidationBus {
+
+  /**
+   * Announces that the cached state of a document is no longer valid.
+   *
+   * @param documentId The ID of the changed document.
+   */
+  void publish(Long documentId);
+
+  /**
+   * Registers a listener for invalidations published by any node.
+   *
+   * @param listener The listener to notify.
+   */
+  void subscribe(CacheInvalidationListener listener);
+}
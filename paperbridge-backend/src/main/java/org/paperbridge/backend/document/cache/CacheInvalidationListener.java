@@ -0,0 +1,20 @@
+package org.paperbridge.backend.document.cache;
+
+/**
+ * Receives invalidations from a {@link CacheInvalidationBus}.
+ */
+public interface CacheInvalidationListener {
+
+  /**
+   * Drops all cached state of a single document.
+   *
+   * @param documentId The ID of the changed document.
+   */
+  void evict(Long documentId);
+
+  /**
+   * Drops everything. Called when invalidations may have been missed, e.g. after the bus lost its
+   * connection.
+   */
+  void evictAll();
+}
@@ -0,0 +1,132 @@
+package org.paperbridge.backend.document.cache;
+
+import jakarta.annotation.PostConstruct;
+import org.hibernate.Hibernate;
+import org.paperbridge.backend.document.model.Document;
+import org.paperbridge.backend.document.model.DocumentHistory;
+import org.paperbridge.backend.document.repository.DocumentHistoryRepository;
+import org.paperbridge.backend.document.repository.DocumentRepository;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Second-level cache for document metadata and version history.
+ *
+ * Read paths that previously hit the database on every call ({@code findById}, {@code existsById},
+ * history lookups) go through this class instead. Lookups of missing documents are cached as well,
+ * so repeated requests for a deleted document do not reach the database either.
+ *
+ * Every write to a document must be followed by {@link #evict(Long)}, which drops the entries on
+ * this node and announces the change to all other nodes through the {@link CacheInvalidationBus}.
+ * Cached documents are shared between requests and must be treated as read-only; modify a freshly
+ * loaded entity from the repository instead.
+ */
+@Service
+public class DocumentCache {
+
+  public static final String DOCUMENTS = "documents";
+  public static final String DOCUMENT_HISTORY = "documentHistory";
+
+  private final DocumentRepository documentRepository;
+  private final DocumentHistoryRepository documentHistoryRepository;
+  private final CacheInvalidationBus invalidationBus;
+  private final TransactionTemplate readOnlyTransaction;
+  private final Cache documents;
+  private final Cache histories;
+
+  public DocumentCache(DocumentRepository documentRepository,
+      DocumentHistoryRepository documentHistoryRepository, CacheInvalidationBus invalidationBus,
+      CacheManager cacheManager, PlatformTransactionManager transactionManager) {
+    this.documentRepository = documentRepository;
+    this.documentHistoryRepository = documentHistoryRepository;
+    this.invalidationBus = invalidationBus;
+    this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+    this.readOnlyTransaction.setReadOnly(true);
+    this.documents = Objects.requireNonNull(cacheManager.getCache(DOCUMENTS));
+    this.histories = Objects.requireNonNull(cacheManager.getCache(DOCUMENT_HISTORY));
+  }
+
+  @PostConstruct
+  public void init() {
+    // Invalidations from other nodes only need to be applied here, not published again
+    invalidationBus.subscribe(new CacheInvalidationListener() {
+      @Override
+      public void evict(Long documentId) {
+        evictLocally(documentId);
+      }
+
+      @Override
+      public void evictAll() {
+        documents.clear();
+        histories.clear();
+      }
+    });
+  }
+
+  /**
+   * Looks up a document by its ID.
+   *
+   * @param id The ID of the document.
+   * @return The document, or empty if it does not exist.
+   */
+  public Optional<Document> findDocument(@NonNull Long id) {
+    // Loading through the cache blocks concurrent evictions of the same key until the load is
+    // done, so an update racing with a miss can never leave the old state behind.
+    return Optional.ofNullable(documents.get(id, () -> readOnlyTransaction.execute(status ->
+        documentRepository.findById(id).map(DocumentCache::detachable).orElse(null))));
+  }
+
+  /**
+   * Checks whether a document exists.
+   *
+   * @param id The ID of the document.
+   * @return True if the document exists.
+   */
+  public boolean exists(@NonNull Long id) {
+    return findDocument(id).isPresent();
+  }
+
+  /**
+   * Retrieves all history entries of a document, ordered by version number.
+   *
+   * @param documentId The ID of the document.
+   * @return An unmodifiable list of history entries.
+   */
+  public List<DocumentHistory> findHistory(@NonNull Long documentId) {
+    return histories.get(documentId, () -> List.copyOf(
+        documentHistoryRepository.findByDocumentIdOrderByVersionNumber(documentId)));
+  }
+
+  /**
+   * Drops the cached state of a document on every node. Call after the document or its history has
+   * been created, changed or deleted.
+   *
+   * @param documentId The ID of the changed document.
+   */
+  public void evict(Long documentId) {
+    evictLocally(documentId);
+    invalidationBus.publish(documentId);
+  }
+
+  private void evictLocally(Long documentId) {
+    documents.evict(documentId);
+    histories.evict(documentId);
+  }
+
+  /**
+   * Initializes lazy associations while the session is still open, so the cached entity can be
+   * serialized by later requests.
+   */
+  private static Document detachable(Document document) {
+    Hibernate.initialize(document.getTags());
+    return document;
+  }
+}
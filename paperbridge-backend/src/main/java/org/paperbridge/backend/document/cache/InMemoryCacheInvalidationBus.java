@@ -0,0 +1,28 @@
+package org.paperbridge.backend.document.cache;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Invalidation bus for a single backend node. Delivers invalidations synchronously to all listeners
+ * of this JVM, which also makes it a stand-in for the PostgreSQL bus in tests.
+ */
+@Component
+@ConditionalOnProperty(name = "paperbridge.cache.invalidation", havingValue = "local", matchIfMissing = true)
+public class InMemoryCacheInvalidationBus implements CacheInvalidationBus {
+
+  private final List<CacheInvalidationListener> listeners = new CopyOnWriteArrayList<>();
+
+  @Override
+  public void publish(Long documentId) {
+    listeners.forEach(listener -> listener.evict(documentId));
+  }
+
+  @Override
+  public void subscribe(CacheInvalidationListener listener) {
+    listeners.add(listener);
+  }
+}
@@ -0,0 +1,142 @@
+package org.paperbridge.backend.document.cache;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.paperbridge.backend.config.DocumentCacheProperties;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.regex.Pattern;
+
+/**
+ * Invalidation bus for multi-node deployments, built on PostgreSQL LISTEN/NOTIFY.
+ *
+ * Every node publishes with {@code pg_notify} and keeps one dedicated connection open on which it
+ * listens for the notifications of all other nodes. A notification published inside a transaction
+ * is only delivered once that transaction commits, so other nodes never reload the old state.
+ *
+ * If the listening connection breaks, notifications sent in the meantime are lost; the bus
+ * therefore asks its listeners to drop everything once it has reconnected.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "paperbridge.cache.invalidation", havingValue = "postgres")
+public class PostgresCacheInvalidationBus implements CacheInvalidationBus {
+
+  private static final Pattern CHANNEL_NAME = Pattern.compile("[a-z_][a-z0-9_]*");
+  private static final int POLL_TIMEOUT_MILLIS = 1_000;
+  private static final long RECONNECT_DELAY_MILLIS = 5_000;
+
+  private final DataSource dataSource;
+  private final JdbcTemplate jdbcTemplate;
+  private final String channel;
+  private final String nodeId = UUID.randomUUID().toString();
+  private final List<CacheInvalidationListener> listeners = new CopyOnWriteArrayList<>();
+
+  private volatile boolean running;
+  private Thread listenerThread;
+
+  public PostgresCacheInvalidationBus(DataSource dataSource, DocumentCacheProperties properties) {
+    if (!CHANNEL_NAME.matcher(properties.getChannel()).matches()) {
+      throw new IllegalArgumentException("Invalid notification channel: " + properties.getChannel());
+    }
+    this.dataSource = dataSource;
+    this.jdbcTemplate = new JdbcTemplate(dataSource);
+    this.channel = properties.getChannel();
+  }
+
+  @PostConstruct
+  public void start() {
+    running = true;
+    listenerThread = new Thread(this::listen, "cache-invalidation-listener");
+    listenerThread.setDaemon(true);
+    listenerThread.start();
+  }
+
+  @PreDestroy
+  public void stop() {
+    running = false;
+    if (listenerThread != null) {
+      listenerThread.interrupt();
+    }
+  }
+
+  @Override
+  public void publish(Long documentId) {
+    jdbcTemplate.query("SELECT pg_notify(?, ?)", resultSet -> null, channel, nodeId + ":" + documentId);
+  }
+
+  @Override
+  public void subscribe(CacheInvalidationListener listener) {
+    listeners.add(listener);
+  }
+
+  private void listen() {
+    boolean reconnecting = false;
+    while (running) {
+      try (Connection connection = dataSource.getConnection();
+          Statement statement = connection.createStatement()) {
+        statement.execute("LISTEN " + channel);
+        if (reconnecting) {
+          listeners.forEach(CacheInvalidationListener::evictAll);
+        }
+        PGConnection pgConnection = connection.unwrap(PGConnection.class);
+        while (running) {
+          PGNotification[] notifications = pgConnection.getNotifications(POLL_TIMEOUT_MILLIS);
+          if (notifications != null) {
+            for (PGNotification notification : notifications) {
+              dispatch(notification.getParameter());
+            }
+          }
+        }
+      } catch (SQLException e) {
+        if (!running) {
+          return;
+        }
+        log.warn("Lost cache invalidation connection, reconnecting in {} ms", RECONNECT_DELAY_MILLIS, e);
+        reconnecting = true;
+        try {
+          Thread.sleep(RECONNECT_DELAY_MILLIS);
+        } catch (InterruptedException interrupted) {
+          Thread.currentThread().interrupt();
+          return;
+        }
+      }
+    }
+  }
+
+  /**
+   * @return The ID this node tags its notifications with.
+   */
+  String nodeId() {
+    return nodeId;
+  }
+
+  /**
+   * Passes a notification on to the listeners unless this node published it.
+   */
+  void dispatch(String payload) {
+    int separator = payload.lastIndexOf(':');
+    if (separator < 0 || payload.substring(0, separator).equals(nodeId)) {
+      // Our own notification; the publishing node has already evicted locally
+      return;
+    }
+    try {
+      Long documentId = Long.valueOf(payload.substring(separator + 1));
+      listeners.forEach(listener -> listener.evict(documentId));
+    } catch (NumberFormatException e) {
+      log.warn("Ignoring malformed cache invalidation: {}", payload);
+    }
+  }
+}
@@ -0,0 +1,13 @@
+package org.paperbridge.backend.document.change;
+
+import java.util.List;
+
+/**
+ * One page of the change feed.
+ *
+ * @param changes The changes after the requested token, oldest first.
+ * @param nextToken The token to pass as {@code since} on the next request.
+ * @param hasMore Whether more changes are available right away.
+ */
+public record ChangePage(List<DocumentChangeEvent> changes, long nextToken, boolean hasMore) {
+}
@@ -0,0 +1,17 @@
+package org.paperbridge.backend.document.change;
+
+import org.paperbridge.backend.document.model.DocumentChangeType;
+
+/**
+ * A change as delivered to clients.
+ *
+ * @param sequence The sequence number of the change; usable as a sync token.
+ * @param type What happened to the document.
+ * @param documentId The ID of the changed document.
+ * @param filePath The file path of the document at the time of the change.
+ * @param document The current metadata of the document for creations and updates; null for
+ *     deletions and for documents that have been deleted since.
+ */
+public record DocumentChangeEvent(long sequence, DocumentChangeType type, Long documentId,
+    String filePath, DocumentSummary document) {
+}
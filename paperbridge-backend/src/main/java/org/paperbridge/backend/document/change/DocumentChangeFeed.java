@@ -0,0 +1,344 @@
+package org.paperbridge.backend.document.change;
+
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.paperbridge.backend.config.ChangeFeedProperties;
+import org.paperbridge.backend.document.model.Document;
+import org.paperbridge.backend.document.model.DocumentChange;
+import org.paperbridge.backend.document.model.DocumentChangeType;
+import org.paperbridge.backend.document.repository.DocumentChangeRepository;
+import org.paperbridge.backend.document.repository.DocumentRepository;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Append-only log of document creations, updates and deletions, letting clients apply deltas
+ * instead of reloading the full document list.
+ *
+ * Every change gets a monotonically increasing sequence number. Clients remember the last number
+ * they have seen and either poll with {@link #changesSince(long, int)} or keep a Server-Sent Events
+ * stream open via {@link #subscribe(long)}. Streams are fed by tailing the change table rather than
+ * by in-process notifications, so changes made on any backend node reach every client.
+ *
+ * Sequence numbers are assigned when a change is inserted, not when its transaction commits, so a
+ * change can become visible before one with a lower number. Clients are therefore only served the
+ * contiguous run of changes after their token. A gap in the numbers is skipped only once the change
+ * after it is older than the commit lag: by then the missing number has either been committed or
+ * was rolled back and will never appear.
+ *
+ * Events carry the document's metadata and a short content preview, never the full content.
+ * Streams are written from their own virtual threads, so a slow client only holds up itself.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class DocumentChangeFeed {
+
+  private static final long HEARTBEAT_INTERVAL_MILLIS = 20_000;
+
+  private final DocumentChangeRepository documentChangeRepository;
+  private final DocumentRepository documentRepository;
+  private final ChangeFeedProperties properties;
+  private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+  private final ExecutorService pushExecutor = Executors.newVirtualThreadPerTaskExecutor();
+  private volatile long lastHeartbeat = System.currentTimeMillis();
+
+  @PreDestroy
+  public void shutdown() {
+    pushExecutor.shutdownNow();
+  }
+
+  /**
+   * Records a change to a document. Must be called in the transaction that saves the change, so
+   * that both are committed or rolled back together.
+   *
+   * @param type What happened to the document.
+   * @param document The document in its new state, or its last state for deletions.
+   */
+  @Transactional(propagation = Propagation.MANDATORY)
+  public void record(DocumentChangeType type, Document document) {
+    documentChangeRepository.save(DocumentChange.builder()
+        .documentId(document.getId())
+        .changeType(type)
+        .filePath(document.getFilePath())
+        .occurredAt(LocalDateTime.now())
+        .build());
+  }
+
+  /**
+   * @return The sequence number of the latest change that can be served without skipping one that
+   *     may still commit, or 0 if nothing has been recorded yet.
+   */
+  public long head() {
+    LocalDateTime settledBefore = settledBefore();
+    // Gaps below a settled change are settled as well; only the recent changes need checking
+    long settled = documentChangeRepository.findTopByOccurredAtLessThanEqualOrderBySequenceDesc(settledBefore)
+        .map(DocumentChange::getSequence)
+        .orElse(0L);
+    while (true) {
+      List<DocumentChange> recent = documentChangeRepository
+          .findBySequenceGreaterThanOrderBySequenceAsc(settled, PageRequest.of(0, properties.getMaxPageSize()));
+      List<DocumentChange> committed = committedPrefix(settled, recent, settledBefore);
+      if (committed.isEmpty()) {
+        return settled;
+      }
+      settled = committed.getLast().getSequence();
+      if (committed.size() < recent.size() || recent.size() < properties.getMaxPageSize()) {
+        return settled;
+      }
+    }
+  }
+
+  /**
+   * Retrieves the changes recorded after a token.
+   *
+   * @param token The last sequence number the client has seen.
+   * @param limit The maximum number of changes to return; capped at the configured page size.
+   * @return The following changes and the token to continue from.
+   * @throws ChangeTokenExpiredException if changes after the token have already been purged.
+   */
+  public ChangePage changesSince(long token, int limit) {
+    checkToken(token);
+    int pageSize = Math.max(1, Math.min(limit, properties.getMaxPageSize()));
+    List<DocumentChange> changes = committedPrefix(token, documentChangeRepository
+        .findBySequenceGreaterThanOrderBySequenceAsc(token, PageRequest.of(0, pageSize + 1)), settledBefore());
+    boolean hasMore = changes.size() > pageSize;
+    if (hasMore) {
+      changes = changes.subList(0, pageSize);
+    }
+    long nextToken = changes.isEmpty() ? token : changes.get(changes.size() - 1).getSequence();
+    return new ChangePage(toEvents(changes), nextToken, hasMore);
+  }
+
+  /**
+   * Opens a push stream delivering every change after the token as a {@code change} event whose
+   * event ID is the sequence number, so browsers resume from the right place after reconnecting.
+   *
+   * @param token The last sequence number the client has seen.
+   * @return The emitter to return from the controller.
+   * @throws ChangeTokenExpiredException if changes after the token have already been purged.
+   */
+  public SseEmitter subscribe(long token) {
+    checkToken(token);
+    SseEmitter emitter = new SseEmitter(properties.getStreamTimeout().toMillis());
+    Subscriber subscriber = new Subscriber(emitter, token);
+    emitter.onCompletion(() -> subscribers.remove(subscriber));
+    emitter.onTimeout(() -> subscribers.remove(subscriber));
+    emitter.onError(error -> subscribers.remove(subscriber));
+    subscribers.add(subscriber);
+    return emitter;
+  }
+
+  /**
+   * Pushes new changes to all open streams. Each stream is caught up from its own position, so a
+   * new subscriber receives its backlog on the next run. This only reads the changes; the writes
+   * happen on the push executor.
+   */
+  @Scheduled(fixedDelayString = "${paperbridge.changes.poll-interval:1000}")
+  public void pushChanges() {
+    if (subscribers.isEmpty()) {
+      return;
+    }
+
+    long from = subscribers.stream().mapToLong(Subscriber::cursor).min().orElse(0L);
+    List<DocumentChange> changes = committedPrefix(from, documentChangeRepository
+        .findBySequenceGreaterThanOrderBySequenceAsc(from, PageRequest.of(0, properties.getMaxPageSize())),
+        settledBefore());
+    if (changes.isEmpty()) {
+      sendHeartbeatIfDue();
+      return;
+    }
+
+    List<DocumentChangeEvent> events = toEvents(changes);
+    for (Subscriber subscriber : subscribers) {
+      send(subscriber, () -> {
+        for (DocumentChangeEvent event : events) {
+          if (event.sequence() > subscriber.cursor()) {
+            subscriber.emitter().send(SseEmitter.event()
+                .id(String.valueOf(event.sequence()))
+                .name("change")
+                .data(event));
+            subscriber.setCursor(event.sequence());
+          }
+        }
+      });
+    }
+  }
+
+  /**
+   * Selects the changes that can be served after a token: the leading run without gaps, extended
+   * across gaps whose following change is older than the commit lag.
+   *
+   * @param token The last sequence number the client has seen.
+   * @param changes The changes after the token in sequence order.
+   * @param settledBefore Changes recorded before this time are settled.
+   * @return The leading changes that are safe to serve.
+   */
+  static List<DocumentChange> committedPrefix(long token, List<DocumentChange> changes,
+      LocalDateTime settledBefore) {
+    List<DocumentChange> committed = new ArrayList<>(changes.size());
+    long previous = token;
+    for (DocumentChange change : changes) {
+      boolean gap = change.getSequence() != previous + 1;
+      if (gap && change.getOccurredAt().isAfter(settledBefore)) {
+        // The missing number may belong to a transaction that has not committed yet
+        break;
+      }
+      committed.add(change);
+      previous = change.getSequence();
+    }
+    return committed;
+  }
+
+  /**
+   * Removes changes older than the configured retention period.
+   */
+  @Scheduled(cron = "${paperbridge.changes.purge-cron:0 30 3 * * *}")
+  public void purgeExpiredChanges() {
+    int removed = documentChangeRepository.deleteOlderThan(LocalDateTime.now().minus(properties.getRetention()));
+    if (removed > 0) {
+      log.info("Purged {} expired document changes", removed);
+    }
+  }
+
+  private void sendHeartbeatIfDue() {
+    long now = System.currentTimeMillis();
+    if (now - lastHeartbeat < HEARTBEAT_INTERVAL_MILLIS) {
+      return;
+    }
+    lastHeartbeat = now;
+    for (Subscriber subscriber : subscribers) {
+      // Comment lines keep proxies and VPN gateways from closing idle streams
+      send(subscriber, () -> subscriber.emitter().send(SseEmitter.event().comment("heartbeat")));
+    }
+  }
+
+  /**
+   * Writes to a stream on the push executor. A stream still busy with its previous write is skipped;
+   * its cursor has not moved, so it catches up on a later run.
+   */
+  private void send(Subscriber subscriber, StreamWrite write) {
+    if (!subscriber.sending.compareAndSet(false, true)) {
+      return;
+    }
+    try {
+      pushExecutor.execute(() -> {
+        try {
+          write.run();
+        } catch (Exception e) {
+          // The client went away; the emitter callbacks may not have fired yet
+          subscribers.remove(subscriber);
+          subscriber.emitter().completeWithError(e);
+        } finally {
+          subscriber.sending.set(false);
+        }
+      });
+    } catch (RuntimeException e) {
+      // Shutting down
+      subscriber.sending.set(false);
+    }
+  }
+
+  private LocalDateTime settledBefore() {
+    return LocalDateTime.now().minus(properties.getCommitLag());
+  }
+
+  private void checkToken(long token) {
+    Optional<DocumentChange> oldest = documentChangeRepository.findTopByOrderBySequenceAsc();
+    boolean purged = oldest.isPresent() && token < oldest.get().getSequence() - 1;
+    if (token < 0 || purged || token > head()) {
+      throw new ChangeTokenExpiredException("Change token " + token + " is no longer valid; reload all documents");
+    }
+  }
+
+  /**
+   * Attaches the current metadata of created and updated documents, loaded in a single query.
+   */
+  private List<DocumentChangeEvent> toEvents(List<DocumentChange> changes) {
+    List<Long> ids = changes.stream()
+        .filter(change -> change.getChangeType() != DocumentChangeType.DELETED)
+        .map(DocumentChange::getDocumentId)
+        .distinct()
+        .toList();
+    Map<Long, Document> documents = ids.isEmpty() ? Map.of()
+        : documentRepository.findAllWithTagsByIdIn(ids).stream()
+            .collect(Collectors.toMap(Document::getId, Function.identity()));
+
+    return changes.stream()
+        .map(change -> new DocumentChangeEvent(
+            change.getSequence(),
+            change.getChangeType(),
+            change.getDocumentId(),
+            change.getFilePath(),
+            change.getChangeType() == DocumentChangeType.DELETED ? null
+                : DocumentSummary.of(documents.get(change.getDocumentId()))))
+        .toList();
+  }
+
+  /**
+   * An open stream and the last sequence number sent to it.
+   */
+  private static class Subscriber {
+
+    private final SseEmitter emitter;
+    private final AtomicBoolean sending = new AtomicBoolean();
+    private volatile long cursor;
+
+    Subscriber(SseEmitter emitter, long cursor) {
+      this.emitter = emitter;
+      this.cursor = cursor;
+    }
+
+    SseEmitter emitter() {
+      return emitter;
+    }
+
+    long cursor() {
+      return cursor;
+    }
+
+    void setCursor(long cursor) {
+      this.cursor = cursor;
+    }
+  }
+}
+
+
+/**
+ * A write to an event stream.
+ */
+@FunctionalInterface
+interface StreamWrite {
+  void run() throws Exception;
+}
+
+
+/**
+ * Thrown when a client's change token predates the retained change log. The client has to reload
+ * the full document list and continue from the current head.
+ */
+@ResponseStatus(HttpStatus.GONE)
+class ChangeTokenExpiredException extends RuntimeException {
+  public ChangeTokenExpiredException(String message) {
+    super(message);
+  }
+}
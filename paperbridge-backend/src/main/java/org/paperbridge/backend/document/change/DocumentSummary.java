@@ -0,0 +1,39 @@
+package org.paperbridge.backend.document.change;
+
+import org.paperbridge.backend.document.model.Document;
+
+import java.time.LocalDateTime;
+import java.util.Set;
+
+/**
+ * The metadata of a document as delivered with a change, without its full content.
+ *
+ * @param id The ID of the document.
+ * @param title The title of the document.
+ * @param filePath The file path of the document.
+ * @param tags The tags of the document.
+ * @param contentPreview The start of the extracted content, or null if there is none yet.
+ * @param createdAt When the document was created.
+ * @param updatedAt When the document was last updated.
+ */
+public record DocumentSummary(Long id, String title, String filePath, Set<String> tags,
+    String contentPreview, LocalDateTime createdAt, LocalDateTime updatedAt) {
+
+  static final int PREVIEW_LENGTH = 200;
+
+  /**
+   * @param document The document to summarize, may be null.
+   * @return The summary, or null if the document is null.
+   */
+  static DocumentSummary of(Document document) {
+    if (document == null) {
+      return null;
+    }
+    String content = document.getContent();
+    String preview = content == null || content.length() <= PREVIEW_LENGTH ? content
+        : content.substring(0, PREVIEW_LENGTH);
+    return new DocumentSummary(document.getId(), document.getTitle(), document.getFilePath(),
+        document.getTags() == null ? Set.of() : Set.copyOf(document.getTags()), preview,
+        document.getCreatedAt(), document.getUpdatedAt());
+  }
+}
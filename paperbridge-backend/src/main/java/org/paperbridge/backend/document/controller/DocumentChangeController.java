@@ -0,0 +1,61 @@
+package org.paperbridge.backend.document.controller;
+
+import org.paperbridge.backend.document.change.ChangePage;
+import org.paperbridge.backend.document.change.DocumentChangeFeed;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import lombok.RequiredArgsConstructor;
+
+import java.util.List;
+
+/**
+ * REST controller exposing the document change feed, so clients can keep their document list in
+ * sync by applying deltas instead of re-fetching everything.
+ */
+@RestController
+@RequestMapping("/api/documents/changes")
+@RequiredArgsConstructor
+public class DocumentChangeController {
+
+  private final DocumentChangeFeed documentChangeFeed;
+
+  /**
+   * Retrieves the changes after a token. Without a token, only the current token is returned;
+   * clients fetch it before loading the full document list.
+   *
+   * @param since The last sequence number the client has seen.
+   * @param limit The maximum number of changes to return.
+   * @return The following changes and the token to continue from.
+   * Responds with 410 Gone if the token is too old; the client must then reload everything.
+   */
+  @GetMapping
+  public ChangePage getChanges(@RequestParam(required = false) Long since,
+      @RequestParam(defaultValue = "500") int limit) {
+    if (since == null) {
+      return new ChangePage(List.of(), documentChangeFeed.head(), false);
+    }
+    return documentChangeFeed.changesSince(since, limit);
+  }
+
+  /**
+   * Opens a Server-Sent Events stream of changes after a token. Reconnecting browsers send the
+   * last received event ID, which takes precedence over the query parameter.
+   *
+   * @param since The last sequence number the client has seen; defaults to the current head.
+   * @param lastEventId The Last-Event-ID header sent on reconnect.
+   * @return The event stream.
+   */
+  @GetMapping(path = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+  public SseEmitter streamChanges(@RequestParam(required = false) Long since,
+      @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId) {
+    long token = lastEventId != null ? lastEventId
+        : since != null ? since : documentChangeFeed.head();
+    return documentChangeFeed.subscribe(token);
+  }
+}
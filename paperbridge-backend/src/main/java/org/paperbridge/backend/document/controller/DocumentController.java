@@ -1,25 +1,31 @@
 package org.paperbridge.backend.document.controller;
 
+import org.paperbridge.backend.document.cache.DocumentCache;
+import org.paperbridge.backend.document.change.DocumentChangeFeed;
+import org.paperbridge.backend.document.duplicate.NearDuplicateService;
 import org.paperbridge.backend.document.model.Document;
+import org.paperbridge.backend.document.model.DocumentChangeType;
 import org.paperbridge.backend.document.model.DocumentHistory;
-import org.paperbridge.backend.document.repository.DocumentHistoryRepository;
+import org.paperbridge.backend.document.page.PdfPageService;
 import org.paperbridge.backend.document.repository.DocumentRepository;
+import org.paperbridge.backend.document.storage.FolderPaths;
+import org.paperbridge.backend.document.storage.HotFileCache;
 import org.paperbridge.backend.document.storage.StorageService;
+import org.paperbridge.backend.worker.DocumentProcessingQueue;
 import org.springframework.core.io.Resource;
-import org.springframework.core.io.UrlResource;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.lang.NonNull;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
 import lombok.RequiredArgsConstructor;
 
 import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Path;
 import java.time.LocalDateTime;
 import java.util.List;
 
@@ -35,8 +41,14 @@ import java.util.List;
 public class DocumentController {
 
   private final DocumentRepository documentRepository;
-  private final DocumentHistoryRepository documentHistoryRepository;
+  private final DocumentCache documentCache;
+  private final DocumentChangeFeed documentChangeFeed;
   private final StorageService storageService;
+  private final HotFileCache hotFileCache;
+  private final PdfPageService pdfPageService;
+  private final DocumentProcessingQueue documentProcessingQueue;
+  private final NearDuplicateService nearDuplicateService;
+  private final TransactionTemplate transactionTemplate;
 
   /**
    * Retrieves all documents from the database.
@@ -57,7 +69,7 @@ public class DocumentController {
    */
   @GetMapping("/{id}")
   public ResponseEntity<Document> getDocumentById(@NonNull @PathVariable Long id) {
-    Document document = documentRepository.findById(id)
+    Document document = documentCache.findDocument(id)
         .orElseThrow(() -> new DocumentNotFoundException("Document not found with ID: " + id));
     return ResponseEntity.ok(document);
   }
@@ -89,7 +101,19 @@ public class DocumentController {
         .createdAt(LocalDateTime.now())
         .updatedAt(LocalDateTime.now())
         .build();
-    return ResponseEntity.ok(documentRepository.save(document));
+    // The change is recorded in the same transaction, so neither can be lost without the other
+    Document savedDocument = transactionTemplate.execute(status -> {
+      Document saved = documentRepository.save(document);
+      documentChangeFeed.record(DocumentChangeType.CREATED, saved);
+      return saved;
+    });
+    // Drop a cached "not found" for the new ID
+    documentCache.evict(savedDocument.getId());
+
+    // Render the first pages ahead of time so the viewer can show them immediately
+    pdfPageService.prepare(savedDocument);
+    documentProcessingQueue.enqueue(savedDocument.getId());
+    return ResponseEntity.ok(savedDocument);
   }
 
   /**
@@ -106,13 +130,23 @@ public class DocumentController {
     Document existingDocument = documentRepository.findById(id)
         .orElseThrow(() -> new DocumentNotFoundException("Document not found with ID: " + id));
 
+    if (!existingDocument.getFilePath().equals(updatedDocument.getFilePath())) {
+      hotFileCache.invalidate(existingDocument.getFilePath());
+    }
+
     existingDocument.setTitle(updatedDocument.getTitle());
     existingDocument.setContent(updatedDocument.getContent());
     existingDocument.setFilePath(updatedDocument.getFilePath());
     existingDocument.setTags(updatedDocument.getTags());
     existingDocument.setUpdatedAt(LocalDateTime.now());
 
-    Document savedDocument = documentRepository.save(existingDocument);
+    Document savedDocument = transactionTemplate.execute(status -> {
+      Document saved = documentRepository.save(existingDocument);
+      documentChangeFeed.record(DocumentChangeType.UPDATED, saved);
+      return saved;
+    });
+    documentCache.evict(id);
+    nearDuplicateService.index(savedDocument);
     return ResponseEntity.ok(savedDocument);
   }
 
@@ -126,10 +160,17 @@ public class DocumentController {
   @DeleteMapping("/{id}")
   @ResponseStatus(HttpStatus.NO_CONTENT)
   public void deleteDocument(@NonNull @PathVariable Long id) {
-    if (!documentRepository.existsById(id)) {
-      throw new DocumentNotFoundException("Document not found with ID: " + id);
-    }
-    documentRepository.deleteById(id);
+    Document document = documentCache.findDocument(id)
+        .orElseThrow(() -> new DocumentNotFoundException("Document not found with ID: " + id));
+    // The file stays in storage; the storage reconciler reclaims it once it is orphaned
+    transactionTemplate.executeWithoutResult(status -> {
+      documentRepository.deleteById(id);
+      documentChangeFeed.record(DocumentChangeType.DELETED, document);
+    });
+    documentCache.evict(id);
+    hotFileCache.invalidate(document.getFilePath());
+    pdfPageService.evict(id);
+    nearDuplicateService.remove(id);
   }
 
   /**
@@ -152,10 +193,10 @@ public class DocumentController {
    */
   @GetMapping("/{documentId}/history")
   public List<DocumentHistory> getDocumentHistory(@NonNull @PathVariable Long documentId) {
-    if (!documentRepository.existsById(documentId)) {
+    if (!documentCache.exists(documentId)) {
       throw new DocumentNotFoundException("Document not found with ID: " + documentId);
     }
-    return documentHistoryRepository.findByDocumentIdOrderByVersionNumber(documentId);
+    return documentCache.findHistory(documentId);
   }
 
   /**
@@ -165,49 +206,41 @@ public class DocumentController {
    */
   @GetMapping("/folders")
   public List<String> getFolders() {
-    return documentRepository.findAll().stream()
+    return FolderPaths.foldersOf(documentRepository.findAll().stream()
         .map(Document::getFilePath)
-        .filter(path -> path != null && path.contains("/"))
-        .map(path -> {
-          int lastSlash = path.lastIndexOf("/");
-          return lastSlash > 0 ? path.substring(0, lastSlash) : "";
-        })
-        .filter(folder -> !folder.isEmpty())
-        .distinct()
-        .sorted()
-        .toList();
+        .toList());
   }
 
   /**
    * Serves the file content for a document by its ID.
    *
    * @param id The ID of the document.
+   * @param method The request method; HEAD requests get the headers without reading the file.
    * @return The file resource with appropriate headers.
    * @throws DocumentNotFoundException if the document does not exist.
    */
   @GetMapping("/{id}/file")
-  public ResponseEntity<Resource> getDocumentFile(@NonNull @PathVariable Long id) {
-    Document document = documentRepository.findById(id)
+  public ResponseEntity<Resource> getDocumentFile(@NonNull @PathVariable Long id, HttpMethod method) {
+    Document document = documentCache.findDocument(id)
         .orElseThrow(() -> new DocumentNotFoundException("Document not found with ID: " + id));
 
     try {
-      Path filePath = storageService.load(document.getFilePath());
-      Resource resource = new UrlResource(filePath.toUri());
+      // Popular files are served from memory-mapped buffers instead of a fresh disk read
+      HotFileCache.CachedFile file = hotFileCache.get(document.getFilePath());
+      Resource resource = file.resource();
 
       if (!resource.exists() || !resource.isReadable()) {
         throw new RuntimeException("File not found or not readable: " + document.getFilePath());
       }
 
-      // Determine content type
-      String contentType = Files.probeContentType(filePath);
-      if (contentType == null) {
-        contentType = "application/octet-stream";
+      ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+          .contentType(MediaType.parseMediaType(file.contentType()))
+          .header(HttpHeaders.CONTENT_DISPOSITION, "inline; filename=\"" + document.getTitle() + "\"");
+      if (HttpMethod.HEAD.equals(method)) {
+        // The container would discard the body anyway; not reading it keeps the served bytes accurate
+        return response.contentLength(resource.contentLength()).build();
       }
-
-      return ResponseEntity.ok()
-          .contentType(MediaType.parseMediaType(contentType))
-          .header(HttpHeaders.CONTENT_DISPOSITION, "inline; filename=\"" + document.getTitle() + "\"")
-          .body(resource);
+      return response.body(resource);
     } catch (IOException e) {
       throw new RuntimeException("Failed to load file for document ID: " + id, e);
     }
@@ -0,0 +1,112 @@
+package org.paperbridge.backend.document.controller;
+
+import org.paperbridge.backend.document.cache.DocumentCache;
+import org.paperbridge.backend.document.model.Document;
+import org.paperbridge.backend.document.page.DocumentPages;
+import org.paperbridge.backend.document.page.PdfPageService;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.NonNull;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import lombok.RequiredArgsConstructor;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * REST controller for page-wise access to PDF documents.
+ *
+ * Lets the viewer show the first page of a large document immediately and fetch the remaining
+ * pages lazily, instead of downloading the whole file up front.
+ */
+@RestController
+@RequestMapping("/api/documents/{id}/pages")
+@RequiredArgsConstructor
+public class DocumentPageController {
+
+  /**
+   * Page URLs do not change when the file is replaced, so browsers revalidate every time. The ETag
+   * names the cached file version, which makes revalidating an unchanged page a 304.
+   */
+  private static final CacheControl PAGE_CACHE_CONTROL = CacheControl.noCache().cachePrivate();
+
+  private final DocumentCache documentCache;
+  private final PdfPageService pdfPageService;
+
+  /**
+   * Retrieves the page count and page dimensions of a document.
+   *
+   * @param id The ID of the document.
+   * @return The page metadata.
+   * @throws DocumentNotFoundException if the document does not exist.
+   */
+  @GetMapping
+  public DocumentPages getPages(@NonNull @PathVariable Long id) {
+    Document document = findDocument(id);
+    try {
+      return pdfPageService.describe(document);
+    } catch (IOException e) {
+      throw new RuntimeException("Failed to read pages for document ID: " + id, e);
+    }
+  }
+
+  /**
+   * Serves a single page rendered as a PNG image.
+   *
+   * @param id The ID of the document.
+   * @param page The 1-based page number.
+   * @param dpi Optional resolution; capped at the configured maximum.
+   * @return The rendered page image.
+   * @throws DocumentNotFoundException if the document does not exist.
+   */
+  @GetMapping("/{page}/image")
+  public ResponseEntity<Resource> getPageImage(@NonNull @PathVariable Long id, @PathVariable int page,
+      @RequestParam(required = false) Integer dpi) {
+    Document document = findDocument(id);
+    try {
+      return pageResponse(pdfPageService.renderPage(document, page, dpi), MediaType.IMAGE_PNG);
+    } catch (IOException e) {
+      throw new RuntimeException("Failed to render page " + page + " for document ID: " + id, e);
+    }
+  }
+
+  /**
+   * Serves a single page as a standalone PDF.
+   *
+   * @param id The ID of the document.
+   * @param page The 1-based page number.
+   * @return The single-page PDF.
+   * @throws DocumentNotFoundException if the document does not exist.
+   */
+  @GetMapping("/{page}/pdf")
+  public ResponseEntity<Resource> getPagePdf(@NonNull @PathVariable Long id, @PathVariable int page) {
+    Document document = findDocument(id);
+    try {
+      return pageResponse(pdfPageService.extractPage(document, page), MediaType.APPLICATION_PDF);
+    } catch (IOException e) {
+      throw new RuntimeException("Failed to extract page " + page + " for document ID: " + id, e);
+    }
+  }
+
+  private Document findDocument(@NonNull Long id) {
+    return documentCache.findDocument(id)
+        .orElseThrow(() -> new DocumentNotFoundException("Document not found with ID: " + id));
+  }
+
+  private static ResponseEntity<Resource> pageResponse(Path path, MediaType mediaType) {
+    // The parent directory is named after the file's version; Spring answers If-None-Match with 304
+    return ResponseEntity.ok()
+        .eTag(path.getParent().getFileName() + "/" + path.getFileName())
+        .cacheControl(PAGE_CACHE_CONTROL)
+        .contentType(mediaType)
+        .body(new FileSystemResource(path));
+  }
+}
@@ -0,0 +1,57 @@
+package org.paperbridge.backend.document.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.paperbridge.backend.document.cache.DocumentCache;
+import org.paperbridge.backend.document.duplicate.DuplicateCandidate;
+import org.paperbridge.backend.document.duplicate.FolderDuplicateReport;
+import org.paperbridge.backend.document.duplicate.NearDuplicateService;
+import org.springframework.lang.NonNull;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * REST controller for finding documents whose contents are near-duplicates of each other.
+ */
+@RestController
+@RequestMapping("/api/documents")
+@RequiredArgsConstructor
+public class DuplicateController {
+
+  private static final int MAX_LIMIT = 100;
+
+  private final DocumentCache documentCache;
+  private final NearDuplicateService nearDuplicateService;
+
+  /**
+   * Retrieves the documents that are likely near-duplicates of a document.
+   *
+   * @param id The ID of the document.
+   * @param limit The maximum number of results, at most 100.
+   * @return The likely duplicates, most similar first; empty while the document has no text yet.
+   * @throws DocumentNotFoundException if the document does not exist.
+   */
+  @GetMapping("/{id}/duplicates")
+  public List<DuplicateCandidate> getLikelyDuplicates(@NonNull @PathVariable Long id,
+      @RequestParam(defaultValue = "10") int limit) {
+    if (!documentCache.exists(id)) {
+      throw new DocumentNotFoundException("Document not found with ID: " + id);
+    }
+    return nearDuplicateService.findLikelyDuplicates(id, Math.max(1, Math.min(limit, MAX_LIMIT)));
+  }
+
+  /**
+   * Reports the groups of near-duplicates among the documents of a folder.
+   *
+   * @param folder The folder including its subfolders, e.g. "scans/2024"; empty for all documents.
+   * @return The report.
+   */
+  @GetMapping("/duplicates")
+  public FolderDuplicateReport getFolderReport(@RequestParam(defaultValue = "") String folder) {
+    return nearDuplicateService.folderReport(folder);
+  }
+}
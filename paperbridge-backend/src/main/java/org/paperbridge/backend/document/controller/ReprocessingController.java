@@ -0,0 +1,87 @@
+package org.paperbridge.backend.document.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.paperbridge.backend.worker.ReprocessingProgress;
+import org.paperbridge.backend.worker.ReprocessingService;
+import org.springframework.http.HttpStatus;
+import org.springframework.lang.NonNull;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * REST controller for running all documents through the processing pipeline again and following
+ * the progress of such jobs.
+ */
+@RestController
+@RequestMapping("/api/reprocessing/jobs")
+@RequiredArgsConstructor
+public class ReprocessingController {
+
+  private final ReprocessingService reprocessingService;
+
+  /**
+   * Retrieves the progress of all reprocessing jobs.
+   *
+   * @return The jobs, newest first.
+   */
+  @GetMapping
+  public List<ReprocessingProgress> getJobs() {
+    return reprocessingService.jobs();
+  }
+
+  /**
+   * Retrieves the progress of a reprocessing job, including throughput and estimated time left.
+   *
+   * @param id The ID of the job.
+   * @return The progress.
+   */
+  @GetMapping("/{id}")
+  public ReprocessingProgress getJob(@NonNull @PathVariable Long id) {
+    return reprocessingService.progress(id);
+  }
+
+  /**
+   * Starts a job over all current documents. Responds with 409 Conflict if another job is running.
+   *
+   * @param changeDescription The change description of the history versions the job writes.
+   * @param concurrency Optional number of partitions processed at the same time.
+   * @param documentsPerSecond Optional maximum throughput; 0 for no limit.
+   * @return The progress of the new job.
+   */
+  @PostMapping
+  @ResponseStatus(HttpStatus.ACCEPTED)
+  public ReprocessingProgress startJob(@RequestParam String changeDescription,
+      @RequestParam(required = false) Integer concurrency,
+      @RequestParam(required = false) Double documentsPerSecond) {
+    return reprocessingService.start(changeDescription, concurrency, documentsPerSecond);
+  }
+
+  /**
+   * Pauses a running job after the documents in progress.
+   *
+   * @param id The ID of the job.
+   * @return The progress of the job.
+   */
+  @PostMapping("/{id}/pause")
+  public ReprocessingProgress pauseJob(@NonNull @PathVariable Long id) {
+    return reprocessingService.pause(id);
+  }
+
+  /**
+   * Resumes a paused job from its checkpoints.
+   *
+   * @param id The ID of the job.
+   * @return The progress of the job.
+   */
+  @PostMapping("/{id}/resume")
+  public ReprocessingProgress resumeJob(@NonNull @PathVariable Long id) {
+    return reprocessingService.resume(id);
+  }
+}
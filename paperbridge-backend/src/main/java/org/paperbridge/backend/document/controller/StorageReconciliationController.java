@@ -0,0 +1,48 @@
+package org.paperbridge.backend.document.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.paperbridge.backend.document.storage.ReconciliationReport;
+import org.paperbridge.backend.document.storage.StorageReconciler;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * REST controller for comparing document storage with the database and cleaning up orphaned files.
+ */
+@RestController
+@RequestMapping("/api/storage/reconciliation")
+@RequiredArgsConstructor
+public class StorageReconciliationController {
+
+  private final StorageReconciler storageReconciler;
+
+  /**
+   * Retrieves the report of the last completed reconciliation run.
+   *
+   * @return The report, or 204 No Content if no run has completed yet.
+   */
+  @GetMapping
+  public ResponseEntity<ReconciliationReport> getLastReport() {
+    return storageReconciler.lastReport()
+        .map(ResponseEntity::ok)
+        .orElseGet(() -> ResponseEntity.noContent().build());
+  }
+
+  /**
+   * Starts a reconciliation run in the background.
+   *
+   * @param reclaim Whether orphaned files past the grace period are deleted.
+   * @return 202 Accepted if the run was started, 409 Conflict if one is already in progress.
+   */
+  @PostMapping
+  public ResponseEntity<Void> startReconciliation(@RequestParam(defaultValue = "false") boolean reclaim) {
+    return storageReconciler.start(reclaim)
+        ? ResponseEntity.accepted().build()
+        : ResponseEntity.status(HttpStatus.CONFLICT).build();
+  }
+}
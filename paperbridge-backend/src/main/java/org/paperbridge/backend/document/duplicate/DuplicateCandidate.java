@@ -0,0 +1,12 @@
+package org.paperbridge.backend.document.duplicate;
+
+/**
+ * A document whose content is likely a near-duplicate of another one.
+ *
+ * @param documentId The ID of the document.
+ * @param title The title of the document.
+ * @param filePath The relative path of the document's file.
+ * @param similarity The estimated similarity of the contents, between 0 and 1.
+ */
+public record DuplicateCandidate(Long documentId, String title, String filePath, double similarity) {
+}
@@ -0,0 +1,12 @@
+package org.paperbridge.backend.document.duplicate;
+
+import java.util.List;
+
+/**
+ * Documents connected by pairwise near-duplicate matches.
+ *
+ * @param documents The documents, in ascending order of ID; similarities are relative to the first.
+ * @param minSimilarity The lowest similarity of the matches connecting the group.
+ */
+public record DuplicateGroup(List<DuplicateCandidate> documents, double minSimilarity) {
+}
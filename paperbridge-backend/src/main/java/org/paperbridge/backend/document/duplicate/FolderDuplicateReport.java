@@ -0,0 +1,15 @@
+package org.paperbridge.backend.document.duplicate;
+
+import java.util.List;
+
+/**
+ * Result of looking for near-duplicates among the documents of a folder.
+ *
+ * @param folder The folder, including its subfolders.
+ * @param documentsScanned The number of documents in the folder.
+ * @param documentsWithoutSignature Documents without a signature yet, e.g. still waiting for OCR.
+ * @param groups The groups of near-duplicates, largest first.
+ */
+public record FolderDuplicateReport(String folder, int documentsScanned, int documentsWithoutSignature,
+    List<DuplicateGroup> groups) {
+}
@@ -0,0 +1,158 @@
+package org.paperbridge.backend.document.duplicate;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Computes MinHash signatures of text and derives locality-sensitive hashing band keys from them.
+ *
+ * Text is normalized (lower case, letters and digits only, single spaces) and cut into
+ * overlapping character shingles. Character shingles tolerate the single-letter errors OCR makes
+ * far better than word shingles. Each of the signature's hash functions is a multiply-shift hash
+ * of the shingle's 64-bit hash, and the signature keeps the minimum of each over all shingles. The
+ * share of positions two signatures agree on estimates the Jaccard similarity of their shingle
+ * sets.
+ *
+ * Instances are immutable and thread-safe. Signatures are only comparable between instances
+ * created with the same parameters.
+ */
+public final class MinHasher {
+
+  private static final long SEED = 0x5DEECE66DL;
+
+  private final int shingleSize;
+  private final long[] multipliers;
+  private final long[] increments;
+
+  /**
+   * @param shingleSize The number of characters per shingle.
+   * @param hashes The number of hash functions, i.e. the signature length.
+   */
+  public MinHasher(int shingleSize, int hashes) {
+    if (shingleSize < 1 || hashes < 1) {
+      throw new IllegalArgumentException("Shingle size and number of hashes must be positive");
+    }
+    this.shingleSize = shingleSize;
+    this.multipliers = new long[hashes];
+    this.increments = new long[hashes];
+    SplittableRandom random = new SplittableRandom(SEED);
+    for (int i = 0; i < hashes; i++) {
+      // Multiply-shift hashing needs odd multipliers
+      multipliers[i] = random.nextLong() | 1;
+      increments[i] = random.nextLong();
+    }
+  }
+
+  /**
+   * @param text The text, e.g. OCR output.
+   * @return The signature, or null if the text is shorter than one shingle after normalization.
+   */
+  public int[] signature(String text) {
+    String normalized = normalize(text);
+    if (normalized.length() < shingleSize) {
+      return null;
+    }
+
+    int[] signature = new int[multipliers.length];
+    Arrays.fill(signature, Integer.MAX_VALUE);
+    for (int start = 0; start + shingleSize <= normalized.length(); start++) {
+      long shingle = hash(normalized, start, shingleSize);
+      for (int i = 0; i < signature.length; i++) {
+        // The high 31 bits, so values compare correctly as non-negative ints
+        int value = (int) ((multipliers[i] * shingle + increments[i]) >>> 33);
+        if (value < signature[i]) {
+          signature[i] = value;
+        }
+      }
+    }
+    return signature;
+  }
+
+  /**
+   * Splits a signature into bands and hashes each band. Two documents share a band key with
+   * probability 1 - (1 - s^r)^b for similarity s, r rows per band and b bands, so near-duplicates
+   * almost always share one while unrelated documents almost never do.
+   *
+   * @param signature A signature of this hasher.
+   * @param bands The number of bands; must divide the signature length.
+   * @return One key per band; the band index is part of the key.
+   */
+  public static long[] bandKeys(int[] signature, int bands) {
+    if (bands < 1 || signature.length % bands != 0) {
+      throw new IllegalArgumentException("The number of bands must divide the signature length");
+    }
+    int rows = signature.length / bands;
+    long[] keys = new long[bands];
+    for (int band = 0; band < bands; band++) {
+      long key = mix(band + 1);
+      for (int row = 0; row < rows; row++) {
+        key = mix(key ^ signature[band * rows + row]);
+      }
+      keys[band] = key;
+    }
+    return keys;
+  }
+
+  /**
+   * @return The estimated Jaccard similarity of the texts behind two signatures, between 0 and 1.
+   */
+  public static double similarity(int[] first, int[] second) {
+    if (first.length != second.length) {
+      throw new IllegalArgumentException("Signatures differ in length");
+    }
+    int equal = 0;
+    for (int i = 0; i < first.length; i++) {
+      if (first[i] == second[i]) {
+        equal++;
+      }
+    }
+    return (double) equal / first.length;
+  }
+
+  static String normalize(String text) {
+    if (text == null) {
+      return "";
+    }
+    StringBuilder normalized = new StringBuilder(text.length());
+    boolean space = true;
+    for (int i = 0; i < text.length(); i++) {
+      char c = text.charAt(i);
+      if (Character.isLetterOrDigit(c)) {
+        normalized.append(Character.toLowerCase(c));
+        space = false;
+      } else if (!space) {
+        normalized.append(' ');
+        space = true;
+      }
+    }
+    int length = normalized.length();
+    if (length > 0 && normalized.charAt(length - 1) == ' ') {
+      normalized.setLength(length - 1);
+    }
+    return normalized.toString();
+  }
+
+  /**
+   * FNV-1a over the characters, finished with a mixing step for well-spread high bits.
+   */
+  private static long hash(String text, int start, int length) {
+    long hash = 0xcbf29ce484222325L;
+    for (int i = start; i < start + length; i++) {
+      hash ^= text.charAt(i);
+      hash *= 0x100000001b3L;
+    }
+    return mix(hash);
+  }
+
+  /**
+   * The MurmurHash3 64-bit finalizer.
+   */
+  private static long mix(long value) {
+    value ^= value >>> 33;
+    value *= 0xff51afd7ed558ccdL;
+    value ^= value >>> 33;
+    value *= 0xc4ceb9fe1a85ec53L;
+    value ^= value >>> 33;
+    return value;
+  }
+}
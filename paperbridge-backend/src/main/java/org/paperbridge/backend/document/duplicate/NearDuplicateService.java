@@ -0,0 +1,328 @@
+package org.paperbridge.backend.document.duplicate;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.paperbridge.backend.config.DuplicateProperties;
+import org.paperbridge.backend.document.model.Document;
+import org.paperbridge.backend.document.model.DocumentSignature;
+import org.paperbridge.backend.document.repository.DocumentRepository;
+import org.paperbridge.backend.document.repository.DocumentSignatureBandRepository;
+import org.paperbridge.backend.document.repository.DocumentSignatureRepository;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+import javax.sql.DataSource;
+import java.nio.ByteBuffer;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Finds documents whose contents are near-duplicates, e.g. the same letter scanned twice or a
+ * re-scan with slightly different OCR errors.
+ *
+ * Each document's content is reduced to a MinHash signature once its text is known, and the
+ * signature's band keys are stored in an index table. Looking up the likely duplicates of a
+ * document is then one indexed query for documents sharing a band key plus a comparison of a few
+ * signatures, independent of the size of the corpus. Folder reports bucket the signatures of all
+ * documents in the folder by band key in memory and only compare documents within a bucket.
+ *
+ * Metrics: {@code paperbridge.duplicates.lookup} timer, tagged with the kind of lookup.
+ */
+@Slf4j
+@Service
+public class NearDuplicateService {
+
+  private static final String INSERT_BAND = "INSERT INTO document_signature_band (band_key, document_id) VALUES (?, ?)";
+  private static final int LOAD_BATCH_SIZE = 1_000;
+
+  private final DuplicateProperties properties;
+  private final MinHasher minHasher;
+  private final DocumentRepository documentRepository;
+  private final DocumentSignatureRepository signatureRepository;
+  private final DocumentSignatureBandRepository bandRepository;
+  private final JdbcTemplate jdbcTemplate;
+  private final TransactionTemplate transactionTemplate;
+  private final TransactionTemplate readOnlyTransaction;
+  private final Timer documentLookups;
+  private final Timer folderLookups;
+
+  public NearDuplicateService(DuplicateProperties properties, DocumentRepository documentRepository,
+      DocumentSignatureRepository signatureRepository, DocumentSignatureBandRepository bandRepository,
+      DataSource dataSource, PlatformTransactionManager transactionManager, MeterRegistry meterRegistry) {
+    this.properties = properties;
+    this.minHasher = new MinHasher(properties.getShingleSize(), properties.getHashes());
+    this.documentRepository = documentRepository;
+    this.signatureRepository = signatureRepository;
+    this.bandRepository = bandRepository;
+    this.jdbcTemplate = new JdbcTemplate(dataSource);
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+    this.readOnlyTransaction.setReadOnly(true);
+    this.documentLookups = Timer.builder("paperbridge.duplicates.lookup")
+        .description("Duration of near-duplicate lookups")
+        .tag("kind", "document")
+        .register(meterRegistry);
+    this.folderLookups = Timer.builder("paperbridge.duplicates.lookup")
+        .description("Duration of near-duplicate lookups")
+        .tag("kind", "folder")
+        .register(meterRegistry);
+    // Fail at startup rather than on the first document
+    MinHasher.bandKeys(new int[properties.getHashes()], properties.getBands());
+  }
+
+  /**
+   * Computes and stores the signature of a document's current content. Must be called whenever
+   * the content changes; documents without usable text are removed from the index.
+   *
+   * Concurrent calls for the same document are serialized by locking the document's row, since
+   * replacing the band rows is a delete followed by inserts. Documents deleted in the meantime are
+   * not indexed.
+   *
+   * @param document The saved document.
+   */
+  public void index(Document document) {
+    int[] signature = minHasher.signature(document.getContent());
+    if (signature == null) {
+      remove(document.getId());
+      return;
+    }
+
+    byte[] encoded = encode(signature);
+    transactionTemplate.executeWithoutResult(status -> {
+      if (documentRepository.lockById(document.getId()).isEmpty()) {
+        return;
+      }
+      Optional<DocumentSignature> existing = signatureRepository.findById(document.getId());
+      if (existing.isPresent() && Arrays.equals(existing.get().getSignature(), encoded)) {
+        return;
+      }
+      bandRepository.deleteByDocumentId(document.getId());
+      signatureRepository.save(new DocumentSignature(document.getId(), encoded, LocalDateTime.now()));
+      // Inserted as one JDBC batch; saving entities with an assigned key would select each row first
+      long[] bandKeys = MinHasher.bandKeys(signature, properties.getBands());
+      jdbcTemplate.batchUpdate(INSERT_BAND, Arrays.stream(bandKeys).distinct().boxed().toList(), bandKeys.length,
+          (statement, bandKey) -> {
+            statement.setLong(1, bandKey);
+            statement.setLong(2, document.getId());
+          });
+    });
+  }
+
+  /**
+   * Removes a document from the index, e.g. after it has been deleted.
+   *
+   * @param documentId The ID of the document.
+   */
+  public void remove(Long documentId) {
+    transactionTemplate.executeWithoutResult(status -> {
+      bandRepository.deleteByDocumentId(documentId);
+      signatureRepository.findById(documentId).ifPresent(signatureRepository::delete);
+    });
+  }
+
+  /**
+   * Finds the documents whose content is likely a near-duplicate of a document's content.
+   *
+   * @param documentId The ID of the document.
+   * @param limit The maximum number of results.
+   * @return The likely duplicates, most similar first; empty if the document has no signature yet.
+   */
+  public List<DuplicateCandidate> findLikelyDuplicates(Long documentId, int limit) {
+    return documentLookups.record(() -> readOnlyTransaction.execute(status -> {
+      Optional<DocumentSignature> stored = signatureRepository.findById(documentId);
+      if (stored.isEmpty()) {
+        return List.<DuplicateCandidate>of();
+      }
+      int[] signature = decode(stored.get().getSignature());
+      if (signature.length != properties.getHashes()) {
+        // Computed with other settings; comparable again once the document is reprocessed
+        return List.<DuplicateCandidate>of();
+      }
+
+      long[] bandKeys = MinHasher.bandKeys(signature, properties.getBands());
+      List<Long> candidateIds = bandRepository.findDocumentIdsByBandKeyIn(
+          Arrays.stream(bandKeys).boxed().toList());
+      Map<Long, Double> similarities = new HashMap<>();
+      for (DocumentSignature candidate : signatureRepository.findAllById(candidateIds)) {
+        int[] other = decode(candidate.getSignature());
+        if (candidate.getDocumentId().equals(documentId) || other.length != signature.length) {
+          continue;
+        }
+        double similarity = MinHasher.similarity(signature, other);
+        if (similarity >= properties.getThreshold()) {
+          similarities.put(candidate.getDocumentId(), similarity);
+        }
+      }
+
+      List<Long> best = similarities.entrySet().stream()
+          .sorted(Map.Entry.<Long, Double>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()))
+          .limit(limit)
+          .map(Map.Entry::getKey)
+          .toList();
+      Map<Long, Document> documents = loadDocuments(best);
+      return best.stream()
+          .filter(documents::containsKey)
+          .map(id -> candidate(documents.get(id), similarities.get(id)))
+          .toList();
+    }));
+  }
+
+  /**
+   * Groups the near-duplicates among all documents in a folder and its subfolders.
+   *
+   * @param folder The folder, e.g. "scans/2024"; empty for all documents.
+   * @return The report.
+   * @throws FolderTooLargeException if the folder holds more documents than configured.
+   */
+  public FolderDuplicateReport folderReport(String folder) {
+    String normalized = folder == null ? "" : folder.replaceAll("^/+|/+$", "");
+    return folderLookups.record(() -> readOnlyTransaction.execute(status -> {
+      List<Long> documentIds = normalized.isEmpty()
+          ? documentRepository.findIdsByFilePathPrefix("")
+          : documentRepository.findIdsByFilePathPrefix(escapeLike(normalized) + "/");
+      if (documentIds.size() > properties.getMaxFolderDocuments()) {
+        throw new FolderTooLargeException("Folder '" + normalized + "' holds " + documentIds.size()
+            + " documents, more than the maximum of " + properties.getMaxFolderDocuments());
+      }
+
+      List<Long> ids = new ArrayList<>(documentIds.size());
+      List<int[]> signatures = new ArrayList<>(documentIds.size());
+      for (int from = 0; from < documentIds.size(); from += LOAD_BATCH_SIZE) {
+        List<Long> batch = documentIds.subList(from, Math.min(documentIds.size(), from + LOAD_BATCH_SIZE));
+        for (DocumentSignature stored : signatureRepository.findAllById(batch)) {
+          int[] signature = decode(stored.getSignature());
+          if (signature.length == properties.getHashes()) {
+            ids.add(stored.getDocumentId());
+            signatures.add(signature);
+          }
+        }
+      }
+
+      List<List<Integer>> groups = group(signatures, properties.getBands(), properties.getThreshold());
+      Map<Long, Document> documents = loadDocuments(groups.stream()
+          .flatMap(List::stream)
+          .map(ids::get)
+          .toList());
+      List<DuplicateGroup> result = new ArrayList<>();
+      for (List<Integer> members : groups) {
+        members.sort(Comparator.comparing(ids::get));
+        int[] first = signatures.get(members.getFirst());
+        double minSimilarity = 1;
+        List<DuplicateCandidate> candidates = new ArrayList<>();
+        for (int member : members) {
+          Document document = documents.get(ids.get(member));
+          if (document == null) {
+            continue;
+          }
+          double similarity = MinHasher.similarity(first, signatures.get(member));
+          minSimilarity = Math.min(minSimilarity, similarity);
+          candidates.add(candidate(document, similarity));
+        }
+        if (candidates.size() > 1) {
+          result.add(new DuplicateGroup(candidates, minSimilarity));
+        }
+      }
+      result.sort(Comparator.comparingInt((DuplicateGroup group) -> group.documents().size()).reversed());
+      return new FolderDuplicateReport(normalized, documentIds.size(), documentIds.size() - ids.size(), result);
+    }));
+  }
+
+  /**
+   * Buckets signatures by band key, verifies each pair sharing a bucket and joins the matching
+   * pairs into connected groups.
+   *
+   * @return The groups of at least two signatures, as indexes into the given list.
+   */
+  static List<List<Integer>> group(List<int[]> signatures, int bands, double threshold) {
+    Map<Long, List<Integer>> buckets = new HashMap<>();
+    for (int i = 0; i < signatures.size(); i++) {
+      for (long bandKey : MinHasher.bandKeys(signatures.get(i), bands)) {
+        buckets.computeIfAbsent(bandKey, key -> new ArrayList<>(2)).add(i);
+      }
+    }
+
+    int[] parents = new int[signatures.size()];
+    Arrays.setAll(parents, i -> i);
+    Set<Long> compared = new HashSet<>();
+    for (List<Integer> bucket : buckets.values()) {
+      for (int a = 0; a < bucket.size(); a++) {
+        for (int b = a + 1; b < bucket.size(); b++) {
+          int first = bucket.get(a);
+          int second = bucket.get(b);
+          // Pairs sharing several bands are only compared once
+          if (first == second || !compared.add(((long) Math.min(first, second) << 32) | Math.max(first, second))) {
+            continue;
+          }
+          if (MinHasher.similarity(signatures.get(first), signatures.get(second)) >= threshold) {
+            parents[find(parents, first)] = find(parents, second);
+          }
+        }
+      }
+    }
+
+    Map<Integer, List<Integer>> groups = new HashMap<>();
+    for (int i = 0; i < parents.length; i++) {
+      groups.computeIfAbsent(find(parents, i), root -> new ArrayList<>()).add(i);
+    }
+    return groups.values().stream().filter(group -> group.size() > 1).collect(Collectors.toList());
+  }
+
+  private static int find(int[] parents, int i) {
+    while (parents[i] != i) {
+      parents[i] = parents[parents[i]];
+      i = parents[i];
+    }
+    return i;
+  }
+
+  private Map<Long, Document> loadDocuments(List<Long> ids) {
+    return documentRepository.findAllById(ids).stream()
+        .collect(Collectors.toMap(Document::getId, Function.identity()));
+  }
+
+  private static DuplicateCandidate candidate(Document document, double similarity) {
+    return new DuplicateCandidate(document.getId(), document.getTitle(), document.getFilePath(), similarity);
+  }
+
+  private static String escapeLike(String value) {
+    return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+  }
+
+  static byte[] encode(int[] signature) {
+    ByteBuffer buffer = ByteBuffer.allocate(signature.length * Integer.BYTES);
+    buffer.asIntBuffer().put(signature);
+    return buffer.array();
+  }
+
+  static int[] decode(byte[] encoded) {
+    int[] signature = new int[encoded.length / Integer.BYTES];
+    ByteBuffer.wrap(encoded).asIntBuffer().get(signature);
+    return signature;
+  }
+}
+
+
+/**
+ * Thrown when a folder report would cover more documents than configured.
+ */
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+class FolderTooLargeException extends RuntimeException {
+  public FolderTooLargeException(String message) {
+    super(message);
+  }
+}
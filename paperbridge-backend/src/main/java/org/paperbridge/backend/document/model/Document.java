@@ -72,6 +72,12 @@ public class Document {
    * The date and time when the document was last updated.
    */
   private LocalDateTime updatedAt;
+
+  /**
+   * The date and time when the worker pipeline processed the file, whether or not it extracted any
+   * text; null if it has not been processed yet.
+   */
+  private LocalDateTime processedAt;
 }
 
 
@@ -0,0 +1,65 @@
+package org.paperbridge.backend.document.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Represents one entry of the document change feed. Entries are append-only; their generated ID is
+ * the monotonically increasing sequence number clients use as a sync token.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Entity
+@Table(name = "document_change", indexes = @Index(name = "idx_document_change_occurred_at", columnList = "occurredAt"))
+public class DocumentChange {
+
+  /**
+   * Sequence number of the change.
+   *
+   * @Id marks this field as the primary key.
+   * @GeneratedValue configures the primary key generation strategy.
+   */
+  @Id
+  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  private Long sequence;
+
+  /**
+   * The ID of the changed document.
+   */
+  @Column(nullable = false)
+  private Long documentId;
+
+  /**
+   * What happened to the document.
+   */
+  @Enumerated(EnumType.STRING)
+  @Column(nullable = false, length = 16)
+  private DocumentChangeType changeType;
+
+  /**
+   * The file path of the document at the time of the change, so clients can update their folder
+   * tree even for deleted documents.
+   */
+  @Column(length = 1024)
+  private String filePath;
+
+  /**
+   * Date and time when the change was recorded.
+   */
+  private LocalDateTime occurredAt;
+}
@@ -0,0 +1,10 @@
+package org.paperbridge.backend.document.model;
+
+/**
+ * Kind of change recorded in the document change feed.
+ */
+public enum DocumentChangeType {
+  CREATED,
+  UPDATED,
+  DELETED
+}
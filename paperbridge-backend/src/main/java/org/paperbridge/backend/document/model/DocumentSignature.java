@@ -0,0 +1,42 @@
+package org.paperbridge.backend.document.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Stores the MinHash signature of a document's content, used to find near-duplicates. The
+ * signature is kept as raw bytes (four per hash value), a few hundred bytes per document.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Entity
+@Table(name = "document_signature")
+public class DocumentSignature {
+
+  /**
+   * The ID of the document the signature belongs to.
+   */
+  @Id
+  private Long documentId;
+
+  /**
+   * The signature as big-endian 32-bit values.
+   */
+  @Column(nullable = false, length = 2048)
+  private byte[] signature;
+
+  /**
+   * Date and time when the signature was computed.
+   */
+  private LocalDateTime computedAt;
+}
@@ -0,0 +1,49 @@
+package org.paperbridge.backend.document.model;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+/**
+ * One locality-sensitive hashing band of a document signature. Documents that share a band key
+ * are candidate near-duplicates; the primary key doubles as the lookup index by band key.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@IdClass(DocumentSignatureBand.Key.class)
+@Table(name = "document_signature_band",
+    indexes = @Index(name = "idx_document_signature_band_document_id", columnList = "documentId"))
+public class DocumentSignatureBand {
+
+  /**
+   * Hash of the band's index and signature values.
+   */
+  @Id
+  private Long bandKey;
+
+  /**
+   * The ID of the document.
+   */
+  @Id
+  private Long documentId;
+
+  /**
+   * Composite primary key of a band entry.
+   */
+  @Data
+  @NoArgsConstructor
+  @AllArgsConstructor
+  public static class Key implements Serializable {
+    private Long bandKey;
+    private Long documentId;
+  }
+}
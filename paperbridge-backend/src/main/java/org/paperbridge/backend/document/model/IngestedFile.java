@@ -0,0 +1,62 @@
+package org.paperbridge.backend.document.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Records a file imported from the hot folder by its content hash, so the same file is never
+ * imported twice, even if it is still in the inbox after a restart.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Entity
+@Table(name = "ingested_file", uniqueConstraints = @UniqueConstraint(name = "uk_ingested_file_content_hash",
+    columnNames = "contentHash"))
+public class IngestedFile {
+
+  /**
+   * Unique identifier for ingestion records.
+   *
+   * @Id marks this field as the primary key.
+   * @GeneratedValue configures the primary key generation strategy.
+   */
+  @Id
+  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  private Long id;
+
+  /**
+   * Hex-encoded SHA-256 of the file content.
+   */
+  @Column(nullable = false, length = 64)
+  private String contentHash;
+
+  /**
+   * Path of the file relative to the inbox when it was picked up.
+   */
+  @Column(nullable = false, length = 1024)
+  private String sourcePath;
+
+  /**
+   * The ID of the document created from the file.
+   */
+  @Column(nullable = false)
+  private Long documentId;
+
+  /**
+   * Date and time when the file was imported.
+   */
+  private LocalDateTime ingestedAt;
+}
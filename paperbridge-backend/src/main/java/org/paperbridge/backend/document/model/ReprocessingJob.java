@@ -0,0 +1,84 @@
+package org.paperbridge.backend.document.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * A run of all existing documents through the worker pipeline, e.g. after the OCR engine was
+ * upgraded. The documents are split into {@link ReprocessingPartition}s by ID range, which carry
+ * the progress of the job.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Entity
+@Table(name = "reprocessing_job")
+public class ReprocessingJob {
+
+  /**
+   * Unique identifier for reprocessing jobs.
+   *
+   * @Id marks this field as the primary key.
+   * @GeneratedValue configures the primary key generation strategy.
+   */
+  @Id
+  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  private Long id;
+
+  /**
+   * State of the job.
+   */
+  @Enumerated(EnumType.STRING)
+  @Column(nullable = false, length = 16)
+  private ReprocessingStatus status;
+
+  /**
+   * Change description of the history versions the job writes (e.g., "Re-OCR with engine 5.3").
+   */
+  @Column(nullable = false)
+  private String changeDescription;
+
+  /**
+   * Number of partitions processed at the same time.
+   */
+  private int concurrency;
+
+  /**
+   * Maximum number of documents processed per second across all partitions; 0 for no limit.
+   */
+  private double documentsPerSecond;
+
+  /**
+   * Number of documents that existed when the job was created. Documents created later are
+   * processed on upload and are not part of the job.
+   */
+  private long totalDocuments;
+
+  /**
+   * Date and time when the job was created.
+   */
+  private LocalDateTime createdAt;
+
+  /**
+   * Date and time when the job was last started or resumed.
+   */
+  private LocalDateTime startedAt;
+
+  /**
+   * Date and time when the last partition was completed.
+   */
+  private LocalDateTime completedAt;
+}
@@ -0,0 +1,93 @@
+package org.paperbridge.backend.document.model;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * A range of document IDs within a {@link ReprocessingJob}. The checkpoint is advanced in the same
+ * transaction that stores a document's result, so after a crash the partition continues exactly
+ * after the last document whose result was saved.
+ *
+ * A node works on a partition only while it holds its lease. The lease is claimed with a
+ * conditional update and renewed by every checkpoint, so each partition is processed by one node at
+ * a time, and partitions of a node that died are taken over once its lease expired.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Entity
+@Table(name = "reprocessing_partition",
+    indexes = @Index(name = "idx_reprocessing_partition_job_id", columnList = "jobId"))
+public class ReprocessingPartition {
+
+  /**
+   * Unique identifier for partitions.
+   *
+   * @Id marks this field as the primary key.
+   * @GeneratedValue configures the primary key generation strategy.
+   */
+  @Id
+  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  private Long id;
+
+  /**
+   * The ID of the job this partition belongs to.
+   */
+  private Long jobId;
+
+  /**
+   * The first document ID of the range.
+   */
+  private long startId;
+
+  /**
+   * The last document ID of the range, inclusive.
+   */
+  private long endId;
+
+  /**
+   * The ID of the last document that was processed; documents up to and including it are done.
+   */
+  private long lastProcessedId;
+
+  /**
+   * Number of documents processed, including failed ones.
+   */
+  private long processed;
+
+  /**
+   * Number of documents whose content changed and got a new history version.
+   */
+  private long updated;
+
+  /**
+   * Number of documents that could not be processed.
+   */
+  private long failed;
+
+  /**
+   * Whether all documents of the range have been processed.
+   */
+  private boolean completed;
+
+  /**
+   * The node currently working on the partition, or null if it is not claimed.
+   */
+  private String owner;
+
+  /**
+   * When the owner's claim expires unless it is renewed.
+   */
+  private LocalDateTime leaseUntil;
+}
@@ -0,0 +1,13 @@
+package org.paperbridge.backend.document.model;
+
+/**
+ * State of a reprocessing job.
+ */
+public enum ReprocessingStatus {
+  /** Partitions are being processed, or will be again once the application is back up. */
+  RUNNING,
+  /** Stopped on request, or after errors; can be resumed from its checkpoints. */
+  PAUSED,
+  /** All partitions have been processed. */
+  COMPLETED
+}
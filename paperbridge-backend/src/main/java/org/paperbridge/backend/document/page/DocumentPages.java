@@ -0,0 +1,14 @@
+package org.paperbridge.backend.document.page;
+
+import java.util.List;
+
+/**
+ * Page count and per-page dimensions of a document, used by the viewer to lay out pages before
+ * their content has been fetched.
+ *
+ * @param documentId The ID of the document.
+ * @param pageCount The total number of pages.
+ * @param pages The dimensions of every page, in page order.
+ */
+public record DocumentPages(Long documentId, int pageCount, List<PageInfo> pages) {
+}
@@ -0,0 +1,12 @@
+package org.paperbridge.backend.document.page;
+
+/**
+ * Size and orientation of a single PDF page.
+ *
+ * @param pageNumber The 1-based page number.
+ * @param width The width of the visible page area in PDF points (1/72 inch).
+ * @param height The height of the visible page area in PDF points (1/72 inch).
+ * @param rotation The clockwise rotation to apply when displaying the page, in degrees.
+ */
+public record PageInfo(int pageNumber, float width, float height, int rotation) {
+}
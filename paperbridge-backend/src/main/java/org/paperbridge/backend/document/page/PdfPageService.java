@@ -0,0 +1,473 @@
+package org.paperbridge.backend.document.page;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.pdfbox.Loader;
+import org.apache.pdfbox.io.IOUtils;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.apache.pdfbox.rendering.ImageType;
+import org.apache.pdfbox.rendering.PDFRenderer;
+import org.paperbridge.backend.admission.AdmissionController;
+import org.paperbridge.backend.config.PageProperties;
+import org.paperbridge.backend.document.model.Document;
+import org.paperbridge.backend.document.storage.StorageService;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.util.FileSystemUtils;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Splits stored PDF documents into individually addressable pages.
+ *
+ * Page metadata, rendered page images and extracted single-page PDFs are cached on disk below
+ * {@code paperbridge.pages.cache-location}, in a directory per document and source-file version.
+ * When the stored file changes, the stale directory is discarded the next time the document is
+ * accessed. Newly uploaded documents are prepared in the background, so the first pages are
+ * already rendered by the time somebody opens them.
+ *
+ * Pages are only rendered at the configured dpi steps, and the cache is bounded in bytes: once it
+ * grows past the limit, the least recently used files are deleted in the background. A file's
+ * modification time serves as its last access time and is refreshed at most once a minute.
+ */
+@Slf4j
+@Service
+public class PdfPageService {
+
+  private static final String METADATA_FILE = "pages.json";
+  private static final byte[] PDF_MAGIC = "%PDF-".getBytes(StandardCharsets.US_ASCII);
+  private static final String TEMP_PREFIX = ".page-";
+  private static final long TOUCH_INTERVAL_MILLIS = TimeUnit.MINUTES.toMillis(1);
+
+  private final StorageService storageService;
+  private final PageProperties properties;
+  private final ObjectMapper objectMapper;
+  private final AdmissionController admissionController;
+  private final Path cacheRoot;
+  private final Semaphore renderPermits;
+  private final ExecutorService prepareExecutor;
+  private final ExecutorService trimExecutor;
+  private final List<Integer> dpiSteps;
+  private final AtomicLong cachedBytes = new AtomicLong();
+  private final AtomicBoolean trimming = new AtomicBoolean();
+
+  public PdfPageService(StorageService storageService, PageProperties properties,
+      ObjectMapper objectMapper, AdmissionController admissionController) {
+    this.storageService = storageService;
+    this.properties = properties;
+    this.objectMapper = objectMapper;
+    this.admissionController = admissionController;
+    this.cacheRoot = Paths.get(properties.getCacheLocation());
+    this.renderPermits = new Semaphore(properties.getRenderConcurrency());
+    this.prepareExecutor = Executors.newSingleThreadExecutor(runnable -> {
+      Thread thread = new Thread(runnable, "pdf-page-prepare");
+      thread.setDaemon(true);
+      return thread;
+    });
+    this.trimExecutor = Executors.newSingleThreadExecutor(runnable -> {
+      Thread thread = new Thread(runnable, "pdf-page-cache-trim");
+      thread.setDaemon(true);
+      return thread;
+    });
+    this.dpiSteps = dpiSteps(properties);
+  }
+
+  /**
+   * Executes after the bean is constructed to ensure the cache directory exists and to measure
+   * what earlier runs left in it.
+   */
+  @PostConstruct
+  public void init() {
+    try {
+      Files.createDirectories(cacheRoot);
+    } catch (IOException e) {
+      throw new RuntimeException("Could not initialize page cache location: " + cacheRoot, e);
+    }
+    trimming.set(true);
+    trimExecutor.execute(this::trim);
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    prepareExecutor.shutdownNow();
+    trimExecutor.shutdownNow();
+  }
+
+  /**
+   * Returns the page count and page dimensions of a PDF document.
+   *
+   * @param document The document to inspect.
+   * @return The page metadata.
+   * @throws IOException if the file cannot be read.
+   * @throws UnsupportedPageFormatException if the document is not a PDF.
+   */
+  public DocumentPages describe(Document document) throws IOException {
+    Path metadata = cacheDirectory(document).resolve(METADATA_FILE);
+    if (Files.exists(metadata)) {
+      touch(metadata);
+      return objectMapper.readValue(metadata.toFile(), DocumentPages.class);
+    }
+
+    DocumentPages pages;
+    acquireRenderPermit();
+    try (PDDocument pdf = open(document)) {
+      List<PageInfo> infos = new ArrayList<>(pdf.getNumberOfPages());
+      int pageNumber = 1;
+      for (PDPage page : pdf.getPages()) {
+        PDRectangle box = page.getCropBox();
+        infos.add(new PageInfo(pageNumber++, box.getWidth(), box.getHeight(), page.getRotation()));
+      }
+      pages = new DocumentPages(document.getId(), infos.size(), infos);
+    } finally {
+      renderPermits.release();
+    }
+    writeAtomically(metadata, out -> objectMapper.writeValue(out, pages));
+    return pages;
+  }
+
+  /**
+   * Returns a PNG rendering of a single page, rendering it on first access.
+   *
+   * @param document The document containing the page.
+   * @param pageNumber The 1-based page number.
+   * @param dpi The requested resolution, or null for the configured default; rounded to a dpi step.
+   * @return The path of the cached PNG file.
+   * @throws IOException if the file cannot be read or the image cannot be written.
+   */
+  public Path renderPage(Document document, int pageNumber, Integer dpi) throws IOException {
+    int resolution = resolveDpi(dpi == null ? properties.getDefaultDpi() : dpi, dpiSteps);
+    Path target = cacheDirectory(document).resolve("page-" + pageNumber + "@" + resolution + ".png");
+    if (Files.exists(target)) {
+      touch(target);
+      return target;
+    }
+
+    acquireRenderPermit();
+    try {
+      // Another request may have rendered the same page while we were waiting
+      if (Files.exists(target)) {
+        return target;
+      }
+      try (PDDocument pdf = open(document)) {
+        checkPageNumber(pdf, pageNumber);
+        BufferedImage image = new PDFRenderer(pdf)
+            .renderImageWithDPI(pageNumber - 1, resolution, ImageType.RGB);
+        writeAtomically(target, out -> ImageIO.write(image, "png", out));
+      }
+    } finally {
+      renderPermits.release();
+    }
+    return target;
+  }
+
+  /**
+   * Returns a standalone PDF containing only the given page, extracting it on first access.
+   *
+   * @param document The document containing the page.
+   * @param pageNumber The 1-based page number.
+   * @return The path of the cached single-page PDF.
+   * @throws IOException if the file cannot be read or written.
+   */
+  public Path extractPage(Document document, int pageNumber) throws IOException {
+    Path target = cacheDirectory(document).resolve("page-" + pageNumber + ".pdf");
+    if (Files.exists(target)) {
+      touch(target);
+      return target;
+    }
+
+    acquireRenderPermit();
+    try {
+      if (Files.exists(target)) {
+        return target;
+      }
+      try (PDDocument pdf = open(document); PDDocument single = new PDDocument()) {
+        checkPageNumber(pdf, pageNumber);
+        single.importPage(pdf.getPage(pageNumber - 1));
+        writeAtomically(target, single::save);
+      }
+    } finally {
+      renderPermits.release();
+    }
+    return target;
+  }
+
+  /**
+   * Computes page metadata and renders the leading pages of a new document in the background,
+   * within the background admission budget. Documents that are not PDFs are ignored.
+   *
+   * @param document The freshly stored document.
+   */
+  public void prepare(Document document) {
+    prepareExecutor.execute(() -> {
+      try (AdmissionController.Permit permit = admissionController.acquireBackground()) {
+        if (!isPdf(storageService.load(document.getFilePath()))) {
+          return;
+        }
+        DocumentPages pages = describe(document);
+        int count = Math.min(properties.getPrerenderPages(), pages.pageCount());
+        for (int pageNumber = 1; pageNumber <= count; pageNumber++) {
+          renderPage(document, pageNumber, null);
+        }
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      } catch (Exception e) {
+        log.warn("Could not prepare pages for document {}", document.getId(), e);
+      }
+    });
+  }
+
+  /**
+   * Removes all cached pages of a document.
+   *
+   * @param documentId The ID of the document.
+   */
+  public void evict(Long documentId) {
+    try {
+      FileSystemUtils.deleteRecursively(cacheRoot.resolve(String.valueOf(documentId)));
+    } catch (IOException e) {
+      log.warn("Could not evict cached pages for document {}", documentId, e);
+    }
+  }
+
+  /**
+   * Rounds a resolution up to the next dpi step, or down to the highest step if it is above all.
+   *
+   * @param dpi The requested resolution.
+   * @param steps The allowed resolutions in ascending order.
+   * @return The resolution to render at.
+   */
+  static int resolveDpi(int dpi, List<Integer> steps) {
+    for (int step : steps) {
+      if (step >= dpi) {
+        return step;
+      }
+    }
+    return steps.getLast();
+  }
+
+  /**
+   * The configured dpi steps up to the maximum, sorted; the default dpi if none is left.
+   */
+  private static List<Integer> dpiSteps(PageProperties properties) {
+    List<Integer> steps = properties.getDpiSteps().stream()
+        .filter(step -> step > 0 && step <= properties.getMaxDpi())
+        .distinct()
+        .sorted()
+        .toList();
+    return steps.isEmpty() ? List.of(Math.min(properties.getDefaultDpi(), properties.getMaxDpi())) : steps;
+  }
+
+  /**
+   * @return The total size of the cached files as last measured plus what was written since.
+   */
+  public long cachedBytes() {
+    return cachedBytes.get();
+  }
+
+  /**
+   * Measures the cache and, if it is over the limit, deletes the least recently used files until
+   * it is below 90% of the limit. Files being written are skipped.
+   */
+  void trim() {
+    try {
+      List<CachedFile> files = new ArrayList<>();
+      Files.walkFileTree(cacheRoot, new SimpleFileVisitor<>() {
+        @Override
+        public FileVisitResult visitFile(Path file, BasicFileAttributes attributes) {
+          if (!file.getFileName().toString().startsWith(TEMP_PREFIX)) {
+            files.add(new CachedFile(file, attributes.size(), attributes.lastModifiedTime().toMillis()));
+          }
+          return FileVisitResult.CONTINUE;
+        }
+
+        @Override
+        public FileVisitResult visitFileFailed(Path file, IOException e) {
+          // Deleted while walking, e.g. by an eviction
+          return FileVisitResult.CONTINUE;
+        }
+      });
+
+      long total = files.stream().mapToLong(CachedFile::size).sum();
+      long limit = properties.getMaxCacheBytes();
+      if (total > limit) {
+        long target = limit / 10 * 9;
+        files.sort(Comparator.comparingLong(CachedFile::lastAccess));
+        for (CachedFile file : files) {
+          if (total <= target) {
+            break;
+          }
+          if (Files.deleteIfExists(file.path())) {
+            total -= file.size();
+          }
+        }
+        log.info("Trimmed page cache to {} bytes", total);
+      }
+      cachedBytes.set(total);
+    } catch (IOException e) {
+      log.warn("Could not trim page cache at {}", cacheRoot, e);
+    } finally {
+      trimming.set(false);
+    }
+  }
+
+  private void recordWrite(Path file) throws IOException {
+    if (cachedBytes.addAndGet(Files.size(file)) > properties.getMaxCacheBytes()
+        && trimming.compareAndSet(false, true)) {
+      trimExecutor.execute(this::trim);
+    }
+  }
+
+  /**
+   * Marks a cached file as recently used.
+   */
+  private static void touch(Path file) {
+    try {
+      long now = System.currentTimeMillis();
+      if (now - Files.getLastModifiedTime(file).toMillis() > TOUCH_INTERVAL_MILLIS) {
+        Files.setLastModifiedTime(file, FileTime.fromMillis(now));
+      }
+    } catch (IOException e) {
+      // Trimmed in the meantime; the caller still holds the path and fails when serving it
+      log.debug("Could not touch cached page {}", file, e);
+    }
+  }
+
+  private PDDocument open(Document document) throws IOException {
+    Path file = storageService.load(document.getFilePath());
+    if (!isPdf(file)) {
+      throw new UnsupportedPageFormatException("Document is not a PDF: " + document.getId());
+    }
+    // Scanned PDFs can be large; keep decoded streams in temp files instead of the heap
+    return Loader.loadPDF(file.toFile(), IOUtils.createTempFileOnlyStreamCache());
+  }
+
+  /**
+   * Resolves the cache directory for the current version of the document's file, removing
+   * directories left behind by earlier versions. Nothing is created for documents that are not
+   * PDFs.
+   *
+   * @throws UnsupportedPageFormatException if the document is not a PDF.
+   */
+  private Path cacheDirectory(Document document) throws IOException {
+    Path file = storageService.load(document.getFilePath());
+    BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+    String version = Integer.toHexString(document.getFilePath().hashCode()) + "-"
+        + Long.toHexString(attributes.lastModifiedTime().toMillis()) + "-"
+        + Long.toHexString(attributes.size());
+
+    Path documentDirectory = cacheRoot.resolve(String.valueOf(document.getId()));
+    Path versionDirectory = documentDirectory.resolve(version);
+    if (!Files.isDirectory(versionDirectory)) {
+      // Checked only here: the directory exists only for files that passed this check
+      if (!isPdf(file)) {
+        throw new UnsupportedPageFormatException("Document is not a PDF: " + document.getId());
+      }
+      if (Files.isDirectory(documentDirectory)) {
+        try (Stream<Path> stale = Files.list(documentDirectory)) {
+          for (Path directory : stale.toList()) {
+            FileSystemUtils.deleteRecursively(directory);
+          }
+        }
+      }
+      Files.createDirectories(versionDirectory);
+    }
+    return versionDirectory;
+  }
+
+  private void acquireRenderPermit() throws IOException {
+    try {
+      renderPermits.acquire();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IOException("Interrupted while waiting to load a PDF", e);
+    }
+  }
+
+  private static void checkPageNumber(PDDocument pdf, int pageNumber) {
+    if (pageNumber < 1 || pageNumber > pdf.getNumberOfPages()) {
+      throw new PageNotFoundException("Page " + pageNumber + " does not exist");
+    }
+  }
+
+  private static boolean isPdf(Path file) throws IOException {
+    try (InputStream in = Files.newInputStream(file)) {
+      return Arrays.equals(in.readNBytes(PDF_MAGIC.length), PDF_MAGIC);
+    }
+  }
+
+  /**
+   * Writes to a temporary file next to the target and moves it into place, so concurrent readers
+   * never see a partially written page.
+   */
+  private void writeAtomically(Path target, PageWriter writer) throws IOException {
+    Path temp = Files.createTempFile(target.getParent(), TEMP_PREFIX, ".tmp");
+    try {
+      try (OutputStream out = Files.newOutputStream(temp)) {
+        writer.write(out);
+      }
+      Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    } finally {
+      Files.deleteIfExists(temp);
+    }
+    recordWrite(target);
+  }
+
+  private record CachedFile(Path path, long size, long lastAccess) {
+  }
+
+  @FunctionalInterface
+  private interface PageWriter {
+    void write(OutputStream out) throws IOException;
+  }
+}
+
+
+/**
+ * Thrown when a page outside the document's page range is requested.
+ */
+@ResponseStatus(HttpStatus.NOT_FOUND)
+class PageNotFoundException extends RuntimeException {
+  public PageNotFoundException(String message) {
+    super(message);
+  }
+}
+
+
+/**
+ * Thrown when page access is requested for a document that is not a PDF.
+ */
+@ResponseStatus(HttpStatus.UNSUPPORTED_MEDIA_TYPE)
+class UnsupportedPageFormatException extends RuntimeException {
+  public UnsupportedPageFormatException(String message) {
+    super(message);
+  }
+}
@@ -0,0 +1,53 @@
+package org.paperbridge.backend.document.repository;
+
+import org.paperbridge.backend.document.model.DocumentChange;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Repository for the append-only document change feed.
+ */
+@Repository
+public interface DocumentChangeRepository extends JpaRepository<DocumentChange, Long> {
+
+  /**
+   * Retrieves the changes recorded after a given sequence number, oldest first.
+   *
+   * @param sequence The last sequence number the caller has already seen.
+   * @param pageable Limits the number of returned changes.
+   * @return The following changes in sequence order.
+   */
+  List<DocumentChange> findBySequenceGreaterThanOrderBySequenceAsc(Long sequence, Pageable pageable);
+
+  /**
+   * @param cutoff The latest recording time to consider.
+   * @return The most recent change recorded at or before the cutoff, if any.
+   */
+  Optional<DocumentChange> findTopByOccurredAtLessThanEqualOrderBySequenceDesc(LocalDateTime cutoff);
+
+  /**
+   * @return The oldest change still retained, if any.
+   */
+  Optional<DocumentChange> findTopByOrderBySequenceAsc();
+
+  /**
+   * Deletes all changes recorded before the given time. The most recent change is always kept, so
+   * that expired client tokens can still be detected.
+   *
+   * @param cutoff Changes older than this are removed.
+   * @return The number of removed changes.
+   */
+  @Modifying
+  @Transactional
+  @Query("delete from DocumentChange c where c.occurredAt < :cutoff"
+      + " and c.sequence < (select max(d.sequence) from DocumentChange d)")
+  int deleteOlderThan(LocalDateTime cutoff);
+}
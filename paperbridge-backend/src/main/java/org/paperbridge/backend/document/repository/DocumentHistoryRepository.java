@@ -1,6 +1,7 @@
 package org.paperbridge.backend.document.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import org.paperbridge.backend.document.model.DocumentHistory;
@@ -21,6 +22,15 @@ public interface DocumentHistoryRepository extends JpaRepository<DocumentHistory
      * @return A list of history entries.
      */
     List<DocumentHistory> findByDocumentIdOrderByVersionNumber(Long documentId);
+
+    /**
+     * Retrieves the latest version number of a document.
+     *
+     * @param documentId The ID of the document.
+     * @return The highest version number, or null if the document has no history yet.
+     */
+    @Query("select max(h.versionNumber) from DocumentHistory h where h.documentId = :documentId")
+    Integer findLatestVersionNumber(Long documentId);
 }
 
 
@@ -1,10 +1,14 @@
 package org.paperbridge.backend.document.repository;
 
 import org.paperbridge.backend.document.model.Document;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 /**
  * Repository for managing Document entities. This interface provides standard CRUD operations and
@@ -20,6 +24,71 @@ public interface DocumentRepository extends JpaRepository<Document, Long> {
    * @return A list of documents containing the specified tag.
    */
   List<Document> findByTagsContaining(String tag);
+
+  /**
+   * Retrieves documents by ID with their tags already loaded, so they can be serialized outside of
+   * a persistence context.
+   *
+   * @param ids The IDs of the documents.
+   * @return The documents that exist, in no particular order.
+   */
+  @Query("select distinct d from Document d left join fetch d.tags where d.id in :ids")
+  List<Document> findAllWithTagsByIdIn(Collection<Long> ids);
+
+  /**
+   * Retrieves the IDs of all documents below a folder, including its subfolders.
+   *
+   * @param prefix The folder path followed by a slash, with LIKE wildcards escaped by a backslash.
+   * @return The IDs of the documents.
+   */
+  @Query("select d.id from Document d where d.filePath like concat(:prefix, '%') escape '\\'")
+  List<Long> findIdsByFilePathPrefix(String prefix);
+
+  /**
+   * Retrieves the next document IDs of a range in ascending order, for walking it in batches.
+   *
+   * @param after The ID after which to continue.
+   * @param endId The last ID of the range, inclusive.
+   * @param pageable Limits the number of returned IDs.
+   * @return The IDs.
+   */
+  @Query("select d.id from Document d where d.id > :after and d.id <= :endId order by d.id")
+  List<Long> findIdsInRange(Long after, Long endId, Pageable pageable);
+
+  /**
+   * Locks a document's row until the end of the current transaction, so work derived from the
+   * document is serialized even before any derived row exists.
+   *
+   * @param id The ID of the document.
+   * @return The ID, or empty if the document does not exist (anymore).
+   */
+  @Query(value = "SELECT id FROM document WHERE id = :id FOR UPDATE", nativeQuery = true)
+  Optional<Long> lockById(Long id);
+
+  /**
+   * Retrieves the IDs of documents the worker pipeline has never processed, in ascending order.
+   * Documents with content are skipped, since they were processed before the time of processing
+   * was recorded.
+   *
+   * @param after The ID after which to continue.
+   * @param pageable Limits the number of returned IDs.
+   * @return The IDs.
+   */
+  @Query("select d.id from Document d where d.processedAt is null and d.content is null and d.id > :after"
+      + " order by d.id")
+  List<Long> findIdsNotProcessed(Long after, Pageable pageable);
+
+  /**
+   * @return The lowest document ID, or null if there are no documents.
+   */
+  @Query("select min(d.id) from Document d")
+  Long findMinId();
+
+  /**
+   * @return The highest document ID, or null if there are no documents.
+   */
+  @Query("select max(d.id) from Document d")
+  Long findMaxId();
 }
 
 
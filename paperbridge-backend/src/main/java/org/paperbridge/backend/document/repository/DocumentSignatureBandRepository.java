@@ -0,0 +1,37 @@
+package org.paperbridge.backend.document.repository;
+
+import org.paperbridge.backend.document.model.DocumentSignatureBand;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Repository for the locality-sensitive hashing index over document signatures.
+ */
+@Repository
+public interface DocumentSignatureBandRepository
+    extends JpaRepository<DocumentSignatureBand, DocumentSignatureBand.Key> {
+
+  /**
+   * Finds the documents sharing at least one band key.
+   *
+   * @param bandKeys The band keys of a signature.
+   * @return The IDs of the candidate documents, including the document the keys came from.
+   */
+  @Query("select distinct b.documentId from DocumentSignatureBand b where b.bandKey in :bandKeys")
+  List<Long> findDocumentIdsByBandKeyIn(Collection<Long> bandKeys);
+
+  /**
+   * Removes all band entries of a document.
+   *
+   * @param documentId The ID of the document.
+   * @return The number of removed entries.
+   */
+  @Modifying
+  @Query("delete from DocumentSignatureBand b where b.documentId = :documentId")
+  int deleteByDocumentId(Long documentId);
+}
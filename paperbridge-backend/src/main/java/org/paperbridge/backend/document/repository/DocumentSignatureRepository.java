@@ -0,0 +1,12 @@
+package org.paperbridge.backend.document.repository;
+
+import org.paperbridge.backend.document.model.DocumentSignature;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Repository for the MinHash signatures of document contents.
+ */
+@Repository
+public interface DocumentSignatureRepository extends JpaRepository<DocumentSignature, Long> {
+}
@@ -0,0 +1,25 @@
+package org.paperbridge.backend.document.repository;
+
+import org.paperbridge.backend.document.model.IngestedFile;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.Set;
+
+/**
+ * Repository for the record of files imported from the hot folder.
+ */
+@Repository
+public interface IngestedFileRepository extends JpaRepository<IngestedFile, Long> {
+
+  /**
+   * Finds which of the given content hashes have already been imported.
+   *
+   * @param contentHashes The hashes to look up.
+   * @return The subset of hashes that are known.
+   */
+  @Query("select f.contentHash from IngestedFile f where f.contentHash in :contentHashes")
+  Set<String> findKnownHashes(Collection<String> contentHashes);
+}
@@ -0,0 +1,26 @@
+package org.paperbridge.backend.document.repository;
+
+import org.paperbridge.backend.document.model.ReprocessingJob;
+import org.paperbridge.backend.document.model.ReprocessingStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Repository for reprocessing jobs.
+ */
+@Repository
+public interface ReprocessingJobRepository extends JpaRepository<ReprocessingJob, Long> {
+
+  /**
+   * @param status The state to look for.
+   * @return The jobs in that state.
+   */
+  List<ReprocessingJob> findByStatus(ReprocessingStatus status);
+
+  /**
+   * @return All jobs, newest first.
+   */
+  List<ReprocessingJob> findAllByOrderByIdDesc();
+}
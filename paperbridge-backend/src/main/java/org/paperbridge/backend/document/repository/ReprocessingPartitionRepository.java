@@ -0,0 +1,111 @@
+package org.paperbridge.backend.document.repository;
+
+import org.paperbridge.backend.document.model.ReprocessingPartition;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Repository for the partitions and checkpoints of reprocessing jobs.
+ */
+@Repository
+public interface ReprocessingPartitionRepository extends JpaRepository<ReprocessingPartition, Long> {
+
+  /**
+   * @param jobId The ID of the job.
+   * @return The partitions of the job in ID order.
+   */
+  List<ReprocessingPartition> findByJobIdOrderByStartId(Long jobId);
+
+  /**
+   * @param jobId The ID of the job.
+   * @return The partitions of the job that still have documents to process, in ID order.
+   */
+  List<ReprocessingPartition> findByJobIdAndCompletedFalseOrderByStartId(Long jobId);
+
+  /**
+   * @param jobId The ID of the job.
+   * @return The number of partitions of the job that still have documents to process.
+   */
+  long countByJobIdAndCompletedFalse(Long jobId);
+
+  /**
+   * @param jobId The ID of the job.
+   * @param now The current time.
+   * @return The IDs of the unfinished partitions of the job that no node holds a lease on, in ID order.
+   */
+  @Query("select p.id from ReprocessingPartition p where p.jobId = :jobId and p.completed = false"
+      + " and (p.owner is null or p.leaseUntil < :now) order by p.startId")
+  List<Long> findClaimableIds(Long jobId, LocalDateTime now);
+
+  /**
+   * Takes the lease on a partition if it is unfinished, not leased by another node and its job is
+   * running. The condition is checked by the update itself, so of several nodes claiming the same
+   * partition only one succeeds.
+   *
+   * @param id The ID of the partition.
+   * @param owner The ID of the claiming node.
+   * @param now The current time.
+   * @param leaseUntil When the lease expires unless renewed by a checkpoint.
+   * @return 1 if the lease was taken, 0 otherwise.
+   */
+  @Modifying
+  @Transactional
+  @Query("update ReprocessingPartition p set p.owner = :owner, p.leaseUntil = :leaseUntil"
+      + " where p.id = :id and p.completed = false and (p.owner is null or p.leaseUntil < :now)"
+      + " and exists (select j.id from ReprocessingJob j where j.id = p.jobId"
+      + " and j.status = org.paperbridge.backend.document.model.ReprocessingStatus.RUNNING)")
+  int claim(Long id, String owner, LocalDateTime now, LocalDateTime leaseUntil);
+
+  /**
+   * Advances a partition's checkpoint past a document and renews the lease. Must run in the
+   * transaction that stores the document's result, which has to be rolled back if the checkpoint
+   * is rejected: the lease was then taken over by another node, or the job is no longer running.
+   * Checkpoints never move backwards, so a document is counted once.
+   *
+   * @param id The ID of the partition.
+   * @param owner The ID of the node holding the lease.
+   * @param documentId The ID of the processed document.
+   * @param updated 1 if the document got a new version, 0 otherwise.
+   * @param failed 1 if the document could not be processed, 0 otherwise.
+   * @param leaseUntil The new expiry of the lease.
+   * @return 1 if the checkpoint was advanced, 0 if it was rejected.
+   */
+  @Modifying
+  @Query("update ReprocessingPartition p set p.lastProcessedId = :documentId, p.processed = p.processed + 1,"
+      + " p.updated = p.updated + :updated, p.failed = p.failed + :failed, p.leaseUntil = :leaseUntil"
+      + " where p.id = :id and p.owner = :owner and p.lastProcessedId < :documentId"
+      + " and exists (select j.id from ReprocessingJob j where j.id = p.jobId"
+      + " and j.status = org.paperbridge.backend.document.model.ReprocessingStatus.RUNNING)")
+  int checkpoint(Long id, String owner, Long documentId, int updated, int failed, LocalDateTime leaseUntil);
+
+  /**
+   * Marks a partition as done and gives up its lease.
+   *
+   * @param id The ID of the partition.
+   * @param owner The ID of the node holding the lease.
+   */
+  @Modifying
+  @Transactional
+  @Query("update ReprocessingPartition p set p.completed = true, p.owner = null, p.leaseUntil = null"
+      + " where p.id = :id and p.owner = :owner")
+  void markCompleted(Long id, String owner);
+
+  /**
+   * Gives up the lease on a partition, so any node can continue it from its checkpoint right away.
+   * Does nothing if the lease was already taken over by another node.
+   *
+   * @param id The ID of the partition.
+   * @param owner The ID of the node holding the lease.
+   */
+  @Modifying
+  @Transactional
+  @Query("update ReprocessingPartition p set p.owner = null, p.leaseUntil = null"
+      + " where p.id = :id and p.owner = :owner")
+  void release(Long id, String owner);
+}
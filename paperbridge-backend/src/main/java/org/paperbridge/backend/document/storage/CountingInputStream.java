@@ -0,0 +1,43 @@
+package org.paperbridge.backend.document.storage;
+
+import io.micrometer.core.instrument.Counter;
+import org.springframework.lang.NonNull;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Counts the bytes read from a stream as they are handed to the response.
+ *
+ * Skipped bytes are not counted, so ranged responses, which skip to the start of their range, only
+ * count the range itself. A stream that is never read, or read only partially because the client
+ * went away, only counts what was actually read.
+ */
+class CountingInputStream extends FilterInputStream {
+
+  private final Counter counter;
+
+  CountingInputStream(InputStream in, Counter counter) {
+    super(in);
+    this.counter = counter;
+  }
+
+  @Override
+  public int read() throws IOException {
+    int b = super.read();
+    if (b != -1) {
+      counter.increment();
+    }
+    return b;
+  }
+
+  @Override
+  public int read(@NonNull byte[] bytes, int offset, int length) throws IOException {
+    int count = in.read(bytes, offset, length);
+    if (count > 0) {
+      counter.increment(count);
+    }
+    return count;
+  }
+}
@@ -1,5 +1,8 @@
 package org.paperbridge.backend.document.storage;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.paperbridge.backend.config.StorageProperties;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
@@ -21,10 +24,20 @@ import java.util.UUID;
 public class FilesystemStorageService implements StorageService {
 
   private final Path rootLocation;
+  private final Timer storeTimer;
+  private final Counter bytesStored;
 
-  public FilesystemStorageService(StorageProperties properties) {
+  public FilesystemStorageService(StorageProperties properties, MeterRegistry meterRegistry) {
     // Resolve the storage location specified in properties
     this.rootLocation = Paths.get(properties.getLocation());
+    this.storeTimer = Timer.builder("paperbridge.storage.io")
+        .description("Latency of storage I/O operations")
+        .tag("operation", "store")
+        .register(meterRegistry);
+    this.bytesStored = Counter.builder("paperbridge.storage.bytes.stored")
+        .description("Bytes written to document storage")
+        .baseUnit("bytes")
+        .register(meterRegistry);
   }
 
   /**
@@ -69,8 +82,25 @@ public class FilesystemStorageService implements StorageService {
     if (file.getOriginalFilename() == null) {
       throw new RuntimeException("File has no original filename");
     }
+    try (InputStream inputStream = file.getInputStream()) {
+      return store(inputStream, file.getOriginalFilename(), subfolder);
+    } catch (IOException e) {
+      throw new RuntimeException("Failed to store file " + file.getOriginalFilename(), e);
+    }
+  }
+
+  /**
+   * Saves the content of a stream in a subfolder and returns the relative path.
+   *
+   * @param content The file content; read to the end but not closed.
+   * @param originalFilename The name the file had at its source.
+   * @param subfolder The subfolder path (e.g., "folder1" or "folder1/subfolder"). Can be null or empty for root.
+   * @return The relative path used in the Document entity.
+   */
+  @Override
+  public String store(InputStream content, String originalFilename, String subfolder) {
     // Normalize filename and create a unique file name
-    String filename = StringUtils.cleanPath(file.getOriginalFilename());
+    String filename = StringUtils.cleanPath(originalFilename);
     String extension = StringUtils.getFilenameExtension(filename);
     String baseName = StringUtils.stripFilenameExtension(StringUtils.getFilename(filename));
     String uniqueFilename = baseName + "-" +
@@ -78,10 +108,6 @@ public class FilesystemStorageService implements StorageService {
         (extension != null ? "." + extension : "");
 
     try {
-      if (file.isEmpty()) {
-        throw new IOException("Failed to store empty file " + filename);
-      }
-
       // Handle subfolder path
       Path targetDirectory = this.rootLocation;
       if (subfolder != null && !subfolder.trim().isEmpty()) {
@@ -105,8 +131,16 @@ public class FilesystemStorageService implements StorageService {
         throw new IOException("Cannot store file outside the configured directory.");
       }
 
-      try (InputStream inputStream = file.getInputStream()) {
-        Files.copy(inputStream, destinationFile, StandardCopyOption.REPLACE_EXISTING);
+      Timer.Sample sample = Timer.start();
+      try {
+        long bytes = Files.copy(content, destinationFile, StandardCopyOption.REPLACE_EXISTING);
+        if (bytes == 0) {
+          Files.delete(destinationFile);
+          throw new IOException("Failed to store empty file " + filename);
+        }
+        bytesStored.increment(bytes);
+      } finally {
+        sample.stop(storeTimer);
       }
 
       // Return the relative path for database storage (include subfolder if present)
@@ -0,0 +1,41 @@
+package org.paperbridge.backend.document.storage;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Helpers for the folder structure implied by the relative file paths of stored documents.
+ */
+public final class FolderPaths {
+
+  private FolderPaths() {
+  }
+
+  /**
+   * Derives the distinct folders that contain at least one file.
+   *
+   * @param filePaths Relative file paths as stored in the Document entity; nulls are ignored.
+   * @return The sorted folder paths (e.g., ["folder1", "folder1/subfolder", "folder2"]).
+   */
+  public static List<String> foldersOf(Collection<String> filePaths) {
+    return filePaths.stream()
+        .filter(Objects::nonNull)
+        .map(FolderPaths::parentOf)
+        .filter(folder -> !folder.isEmpty())
+        .distinct()
+        .sorted()
+        .toList();
+  }
+
+  /**
+   * Returns the folder part of a relative file path.
+   *
+   * @param filePath A relative file path, e.g. "folder1/subfolder/file.pdf".
+   * @return The folder, e.g. "folder1/subfolder", or an empty string for files in the root.
+   */
+  public static String parentOf(String filePath) {
+    int lastSlash = filePath.lastIndexOf('/');
+    return lastSlash > 0 ? filePath.substring(0, lastSlash) : "";
+  }
+}
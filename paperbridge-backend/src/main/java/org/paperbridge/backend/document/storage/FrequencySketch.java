@@ -0,0 +1,95 @@
+package org.paperbridge.backend.document.storage;
+
+/**
+ * Approximate access-frequency counter used by the hot-file cache to decide which files are worth
+ * keeping (TinyLFU admission).
+ *
+ * This is a count-min sketch with four rows of 4-bit counters packed into longs. Once the number
+ * of recorded accesses reaches a sample size proportional to the table, every counter is halved so
+ * that files which were popular a week ago do not keep newer hot files out of the cache.
+ *
+ * Not thread-safe; callers synchronize externally.
+ */
+class FrequencySketch {
+
+  private static final long[] SEEDS = {
+      0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L};
+  private static final long RESET_MASK = 0x7777777777777777L;
+  private static final int MAX_COUNT = 15;
+
+  private final long[] table;
+  private final int tableMask;
+  private final int sampleSize;
+  private int additions;
+
+  /**
+   * @param expectedEntries The number of distinct keys the sketch should distinguish well.
+   */
+  FrequencySketch(int expectedEntries) {
+    int capacity = Integer.highestOneBit(Math.max(expectedEntries, 16) - 1) << 1;
+    this.table = new long[capacity];
+    this.tableMask = capacity - 1;
+    this.sampleSize = 10 * capacity;
+  }
+
+  /**
+   * Returns the estimated number of recent accesses for the key, between 0 and 15.
+   */
+  int frequency(Object key) {
+    int hash = spread(key.hashCode());
+    int frequency = MAX_COUNT;
+    for (int row = 0; row < SEEDS.length; row++) {
+      frequency = Math.min(frequency, counter(hash, row));
+    }
+    return frequency;
+  }
+
+  /**
+   * Records one access for the key, ageing the whole sketch when the sample period is reached.
+   */
+  void increment(Object key) {
+    int hash = spread(key.hashCode());
+    boolean added = false;
+    for (int row = 0; row < SEEDS.length; row++) {
+      int index = indexOf(hash, row);
+      int offset = offsetOf(hash, row);
+      if (((table[index] >>> offset) & 0xfL) < MAX_COUNT) {
+        table[index] += 1L << offset;
+        added = true;
+      }
+    }
+    if (added && ++additions >= sampleSize) {
+      reset();
+    }
+  }
+
+  private int counter(int hash, int row) {
+    return (int) ((table[indexOf(hash, row)] >>> offsetOf(hash, row)) & 0xfL);
+  }
+
+  private void reset() {
+    for (int i = 0; i < table.length; i++) {
+      table[i] = (table[i] >>> 1) & RESET_MASK;
+    }
+    additions /= 2;
+  }
+
+  private int indexOf(int hash, int row) {
+    long h = (hash + SEEDS[row]) * SEEDS[row];
+    h += h >>> 32;
+    return (int) h & tableMask;
+  }
+
+  /**
+   * Each long holds sixteen counters; every row uses a different nibble of the hash to pick one.
+   */
+  private static int offsetOf(int hash, int row) {
+    return ((hash >>> (row << 3)) & 0xf) << 2;
+  }
+
+  private static int spread(int x) {
+    x = ((x >>> 16) ^ x) * 0x45d9f3b;
+    x = ((x >>> 16) ^ x) * 0x45d9f3b;
+    return (x >>> 16) ^ x;
+  }
+}
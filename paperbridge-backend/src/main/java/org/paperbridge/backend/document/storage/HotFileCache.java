@@ -0,0 +1,264 @@
+package org.paperbridge.backend.document.storage;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.paperbridge.backend.config.HotFileCacheProperties;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.UrlResource;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Read cache in front of {@link StorageService#load(String)} for frequently opened files.
+ *
+ * Popular files are kept as read-only memory mappings, so serving them costs neither a disk read
+ * nor a heap copy. Entries are bounded by their total size in bytes. A new file is only admitted
+ * if it has been requested more often than the entries it would displace (TinyLFU admission), which
+ * keeps a burst of one-off downloads from flushing out the templates everybody opens. Eviction
+ * follows least-recently-used order among the admitted entries. Files that are not admitted are
+ * streamed from disk and never mapped.
+ *
+ * A cached entry is dropped as soon as the size or modification time of the underlying file changes,
+ * or when {@link #invalidate(String)} is called for its path.
+ *
+ * Served bytes are counted as the response reads them, so ranged, HEAD and aborted requests only
+ * count what was actually sent. Reads of files served from disk are timed as storage I/O of the
+ * operation "read"; "open" covers looking the file up and mapping it.
+ */
+@Service
+public class HotFileCache {
+
+  private final StorageService storageService;
+  private final HotFileCacheProperties properties;
+  private final FrequencySketch sketch;
+  private final Timer openTimer;
+  private final Timer readTimer;
+  private final Counter hits;
+  private final Counter misses;
+  private final Counter bytesServedFromCache;
+  private final Counter bytesServedFromDisk;
+
+  /** Cached entries in access order; the eldest entry is the first eviction candidate. */
+  private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(64, 0.75f, true);
+  private long cachedBytes;
+
+  public HotFileCache(StorageService storageService, HotFileCacheProperties properties,
+      MeterRegistry meterRegistry) {
+    this.storageService = storageService;
+    this.properties = properties;
+    this.sketch = new FrequencySketch(properties.getExpectedFiles());
+    this.openTimer = Timer.builder("paperbridge.storage.io")
+        .description("Latency of storage I/O operations")
+        .tag("operation", "open")
+        .register(meterRegistry);
+    this.readTimer = Timer.builder("paperbridge.storage.io")
+        .description("Latency of storage I/O operations")
+        .tag("operation", "read")
+        .register(meterRegistry);
+    this.hits = Counter.builder("paperbridge.storage.cache.requests").tag("result", "hit")
+        .register(meterRegistry);
+    this.misses = Counter.builder("paperbridge.storage.cache.requests").tag("result", "miss")
+        .register(meterRegistry);
+    this.bytesServedFromCache = bytesServed(meterRegistry, "cache");
+    this.bytesServedFromDisk = bytesServed(meterRegistry, "disk");
+    Gauge.builder("paperbridge.storage.cache.size", this, HotFileCache::cachedBytes)
+        .description("Total size of memory-mapped hot files")
+        .baseUnit("bytes")
+        .register(meterRegistry);
+  }
+
+  /**
+   * Opens a stored file, serving it from memory when it is hot enough to be cached.
+   *
+   * @param relativePath The relative path stored in the Document entity.
+   * @return The file as a resource together with its probed content type.
+   * @throws IOException if the file cannot be inspected or mapped.
+   */
+  public CachedFile get(String relativePath) throws IOException {
+    Timer.Sample sample = Timer.start();
+    try {
+      return open(relativePath);
+    } finally {
+      sample.stop(openTimer);
+    }
+  }
+
+  private CachedFile open(String relativePath) throws IOException {
+    Path path = storageService.load(relativePath);
+    if (!properties.isEnabled()) {
+      return uncached(path);
+    }
+
+    BasicFileAttributes attributes;
+    try {
+      attributes = Files.readAttributes(path, BasicFileAttributes.class);
+    } catch (NoSuchFileException e) {
+      invalidate(relativePath);
+      return uncached(path);
+    }
+
+    long size = attributes.size();
+    boolean cacheable = attributes.isRegularFile() && size > 0 && size <= properties.getMaxFileSize()
+        && size <= properties.getMaxBytes();
+    synchronized (this) {
+      sketch.increment(relativePath);
+      Entry entry = entries.get(relativePath);
+      if (entry != null) {
+        if (entry.matches(attributes)) {
+          hits.increment();
+          return entry.file;
+        }
+        remove(relativePath);
+      }
+      misses.increment();
+
+      // Only admitted files are mapped, so rejected candidates never hold mappings outside max-bytes
+      if (cacheable && admit(relativePath, size)) {
+        CachedFile file = map(path, size);
+        entries.put(relativePath, new Entry(file, size, attributes.lastModifiedTime().toMillis()));
+        cachedBytes += size;
+        return file;
+      }
+    }
+    return uncached(path);
+  }
+
+  /**
+   * Drops the cached copy of a file, e.g. because its document was updated or deleted.
+   *
+   * @param relativePath The relative path stored in the Document entity.
+   */
+  public synchronized void invalidate(String relativePath) {
+    if (relativePath != null) {
+      remove(relativePath);
+    }
+  }
+
+  /**
+   * @return The total size of all cached files in bytes.
+   */
+  public synchronized long cachedBytes() {
+    return cachedBytes;
+  }
+
+  /**
+   * @return The number of cached files.
+   */
+  public synchronized int size() {
+    return entries.size();
+  }
+
+  /**
+   * Makes room for a candidate if, and only if, it is used more frequently than every entry that
+   * would have to be evicted for it. Nothing is evicted when the candidate is rejected.
+   */
+  private boolean admit(String relativePath, long size) {
+    long needed = cachedBytes + size - properties.getMaxBytes();
+    if (needed <= 0) {
+      return true;
+    }
+
+    int candidateFrequency = sketch.frequency(relativePath);
+    List<String> victims = new ArrayList<>();
+    Iterator<Map.Entry<String, Entry>> iterator = entries.entrySet().iterator();
+    while (needed > 0 && iterator.hasNext()) {
+      Map.Entry<String, Entry> victim = iterator.next();
+      if (sketch.frequency(victim.getKey()) >= candidateFrequency) {
+        return false;
+      }
+      victims.add(victim.getKey());
+      needed -= victim.getValue().size;
+    }
+    victims.forEach(this::remove);
+    return true;
+  }
+
+  private void remove(String relativePath) {
+    Entry removed = entries.remove(relativePath);
+    if (removed != null) {
+      // The mapping itself is released once the last in-flight response drops its buffer.
+      cachedBytes -= removed.size;
+    }
+  }
+
+  private static Counter bytesServed(MeterRegistry meterRegistry, String source) {
+    return Counter.builder("paperbridge.storage.bytes.served")
+        .description("Bytes of document files served to clients")
+        .baseUnit("bytes")
+        .tag("source", source)
+        .register(meterRegistry);
+  }
+
+  private CachedFile map(Path path, long size) throws IOException {
+    MappedByteBuffer buffer;
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+      buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+    }
+    Resource resource = new MappedFileResource(buffer, path.getFileName().toString(), path.toString(),
+        bytesServedFromCache);
+    return new CachedFile(resource, probeContentType(path));
+  }
+
+  private CachedFile uncached(Path path) throws IOException {
+    return new CachedFile(new DiskFileResource(path, bytesServedFromDisk, readTimer), probeContentType(path));
+  }
+
+  private static String probeContentType(Path path) throws IOException {
+    String contentType = Files.probeContentType(path);
+    return contentType != null ? contentType : "application/octet-stream";
+  }
+
+  /**
+   * A file ready to be served.
+   *
+   * @param resource The file content, memory-mapped when cached.
+   * @param contentType The probed MIME type, defaulting to application/octet-stream.
+   */
+  public record CachedFile(Resource resource, String contentType) {
+  }
+
+  /**
+   * A file read straight from storage, counting the bytes read as served and timing the reads.
+   */
+  private static class DiskFileResource extends UrlResource {
+
+    private final Counter bytesServed;
+    private final Timer readTimer;
+
+    DiskFileResource(Path path, Counter bytesServed, Timer readTimer) throws IOException {
+      super(path.toUri());
+      this.bytesServed = bytesServed;
+      this.readTimer = readTimer;
+    }
+
+    @Override
+    @NonNull
+    public InputStream getInputStream() throws IOException {
+      return new CountingInputStream(new TimedInputStream(super.getInputStream(), readTimer), bytesServed);
+    }
+  }
+
+  private record Entry(CachedFile file, long size, long lastModified) {
+
+    boolean matches(BasicFileAttributes attributes) {
+      return attributes.size() == size && attributes.lastModifiedTime().toMillis() == lastModified;
+    }
+  }
+}
@@ -0,0 +1,104 @@
+package org.paperbridge.backend.document.storage;
+
+import io.micrometer.core.instrument.Counter;
+import org.springframework.core.io.AbstractResource;
+import org.springframework.lang.NonNull;
+
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * Resource backed by a read-only, memory-mapped view of a stored file.
+ *
+ * Every call to {@link #getInputStream()} works on its own duplicate of the buffer, so a single
+ * mapping can be streamed to any number of concurrent requests without touching the disk again.
+ * Bytes are counted as served when they are read from the stream.
+ */
+public class MappedFileResource extends AbstractResource {
+
+  private final ByteBuffer buffer;
+  private final String filename;
+  private final String description;
+  private final Counter bytesServed;
+
+  MappedFileResource(ByteBuffer buffer, String filename, String description, Counter bytesServed) {
+    this.buffer = buffer.asReadOnlyBuffer();
+    this.filename = filename;
+    this.description = description;
+    this.bytesServed = bytesServed;
+  }
+
+  @Override
+  public boolean exists() {
+    return true;
+  }
+
+  @Override
+  public boolean isReadable() {
+    return true;
+  }
+
+  @Override
+  public long contentLength() {
+    return buffer.remaining();
+  }
+
+  @Override
+  public String getFilename() {
+    return filename;
+  }
+
+  @Override
+  @NonNull
+  public String getDescription() {
+    return "Memory-mapped file [" + description + "]";
+  }
+
+  @Override
+  @NonNull
+  public InputStream getInputStream() {
+    return new CountingInputStream(new ByteBufferInputStream(buffer.duplicate()), bytesServed);
+  }
+
+  /**
+   * Minimal InputStream over a private ByteBuffer view.
+   */
+  private static class ByteBufferInputStream extends InputStream {
+
+    private final ByteBuffer buffer;
+
+    ByteBufferInputStream(ByteBuffer buffer) {
+      this.buffer = buffer;
+    }
+
+    @Override
+    public int read() {
+      return buffer.hasRemaining() ? buffer.get() & 0xff : -1;
+    }
+
+    @Override
+    public int read(@NonNull byte[] bytes, int offset, int length) {
+      if (length == 0) {
+        return 0;
+      }
+      if (!buffer.hasRemaining()) {
+        return -1;
+      }
+      int count = Math.min(length, buffer.remaining());
+      buffer.get(bytes, offset, count);
+      return count;
+    }
+
+    @Override
+    public long skip(long n) {
+      int count = (int) Math.max(0, Math.min(n, buffer.remaining()));
+      buffer.position(buffer.position() + count);
+      return count;
+    }
+
+    @Override
+    public int available() {
+      return buffer.remaining();
+    }
+  }
+}
@@ -0,0 +1,37 @@
+package org.paperbridge.backend.document.storage;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Outcome of a storage reconciliation run.
+ *
+ * @param startedAt When the run started.
+ * @param finishedAt When the run finished.
+ * @param reclaim Whether orphaned files past the grace period were deleted.
+ * @param filesScanned The number of files found in storage.
+ * @param bytesScanned The total size of those files.
+ * @param referencedPaths The number of distinct paths referenced by documents and their history.
+ * @param missingFiles The number of referenced paths without a file.
+ * @param orphanedFiles The number of files no document or history entry refers to.
+ * @param orphanedBytes The total size of the orphaned files.
+ * @param reclaimedFiles The number of orphaned files deleted by this run.
+ * @param reclaimedBytes The total size of the deleted files.
+ * @param missing Referenced paths without a file, up to the configured limit.
+ * @param orphans Orphaned files, up to the configured limit.
+ */
+public record ReconciliationReport(
+    LocalDateTime startedAt,
+    LocalDateTime finishedAt,
+    boolean reclaim,
+    long filesScanned,
+    long bytesScanned,
+    long referencedPaths,
+    long missingFiles,
+    long orphanedFiles,
+    long orphanedBytes,
+    long reclaimedFiles,
+    long reclaimedBytes,
+    List<String> missing,
+    List<StorageEntry> orphans) {
+}
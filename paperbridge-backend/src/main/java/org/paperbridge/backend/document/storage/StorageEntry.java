@@ -0,0 +1,12 @@
+package org.paperbridge.backend.document.storage;
+
+/**
+ * A regular file found in document storage.
+ *
+ * @param path The path relative to the storage root, with forward slashes, as stored in the
+ *     Document entity.
+ * @param size The file size in bytes.
+ * @param lastModified The modification time in milliseconds since the epoch.
+ */
+public record StorageEntry(String path, long size, long lastModified) {
+}
@@ -0,0 +1,414 @@
+package org.paperbridge.backend.document.storage;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.paperbridge.backend.admission.TokenBucket;
+import org.paperbridge.backend.config.IngestProperties;
+import org.paperbridge.backend.config.PageProperties;
+import org.paperbridge.backend.config.ReconcilerProperties;
+import org.paperbridge.backend.config.StorageProperties;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Stream;
+
+/**
+ * Compares the files in document storage with the paths referenced by documents and their history.
+ *
+ * The storage tree is listed in parallel and sorted by path in the order the database sorts the
+ * referenced paths in. Those are streamed from the database, and a single merge pass over both
+ * sequences finds the files nobody refers to (orphans, e.g. of deleted documents or failed uploads) and the
+ * references whose file is gone (missing). No query is issued per file.
+ *
+ * Optionally, orphans older than the grace period are deleted. Before deleting, each batch of
+ * candidates is checked against the database once more, so files referenced in the meantime
+ * survive. All filesystem work is throttled by an I/O budget of operations per second.
+ *
+ * Every file below the storage root that no document refers to counts as an orphan, so the page
+ * cache, the inbox and the archive must lie outside of it. The application refuses to start if
+ * they overlap.
+ */
+@Slf4j
+@Service
+public class StorageReconciler {
+
+  private static final String REFERENCED_PATHS = "SELECT file_path FROM "
+      + "(SELECT file_path FROM document UNION SELECT file_path FROM document_history) paths "
+      + "WHERE file_path IS NOT NULL ORDER BY file_path";
+  private static final String STILL_REFERENCED = "SELECT file_path FROM document WHERE file_path IN (:paths) "
+      + "UNION SELECT file_path FROM document_history WHERE file_path IN (:paths)";
+  private static final int FETCH_SIZE = 1_000;
+  private static final int CONFIRM_BATCH_SIZE = 500;
+
+  private final Path rootLocation;
+  private final ReconcilerProperties properties;
+  private final DataSource dataSource;
+  private final JdbcTemplate jdbcTemplate;
+  private final NamedParameterJdbcTemplate namedJdbcTemplate;
+  private final TransactionTemplate readOnlyTransaction;
+  private final AtomicBoolean running = new AtomicBoolean();
+  private final AtomicReference<ReconciliationReport> lastReport = new AtomicReference<>();
+  private final Timer runTimer;
+  private final Counter reclaimedBytes;
+
+  /**
+   * Orders strings by their UTF-8 bytes, which is code point order and how PostgreSQL sorts with
+   * COLLATE "C". {@link String#compareTo} compares UTF-16 units instead and puts characters outside
+   * the Basic Multilingual Plane before those from U+E000 up.
+   */
+  static final Comparator<String> UTF8_ORDER = (a, b) -> {
+    int length = Math.min(a.length(), b.length());
+    for (int i = 0; i < length; i++) {
+      char x = a.charAt(i);
+      char y = b.charAt(i);
+      if (x != y) {
+        return Integer.compare(utf8Rank(x), utf8Rank(y));
+      }
+    }
+    return Integer.compare(a.length(), b.length());
+  };
+
+  private volatile PathOrder pathOrder;
+
+  public StorageReconciler(StorageProperties storageProperties, ReconcilerProperties properties,
+      PageProperties pageProperties, IngestProperties ingestProperties, DataSource dataSource,
+      PlatformTransactionManager transactionManager, MeterRegistry meterRegistry) {
+    this.rootLocation = Paths.get(storageProperties.getLocation()).toAbsolutePath().normalize();
+    Map<String, String> directories = new LinkedHashMap<>();
+    directories.put("paperbridge.pages.cache-location", pageProperties.getCacheLocation());
+    if (ingestProperties.isEnabled()) {
+      directories.put("paperbridge.ingest.inbox", ingestProperties.getInbox());
+      directories.put("paperbridge.ingest.archive-location", ingestProperties.getArchiveLocation());
+    }
+    checkSeparate(rootLocation, directories);
+    this.properties = properties;
+    this.dataSource = dataSource;
+    this.jdbcTemplate = new JdbcTemplate(dataSource);
+    this.jdbcTemplate.setFetchSize(FETCH_SIZE);
+    this.namedJdbcTemplate = new NamedParameterJdbcTemplate(dataSource);
+    // Drivers such as PostgreSQL only stream results with a cursor inside a transaction
+    this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+    this.readOnlyTransaction.setReadOnly(true);
+
+    this.runTimer = Timer.builder("paperbridge.reconciler.duration")
+        .description("Duration of storage reconciliation runs")
+        .register(meterRegistry);
+    this.reclaimedBytes = Counter.builder("paperbridge.reconciler.reclaimed")
+        .description("Bytes of orphaned files deleted")
+        .baseUnit("bytes")
+        .register(meterRegistry);
+    Gauge.builder("paperbridge.reconciler.files", lastReport,
+            reference -> reference.get() == null ? 0 : reference.get().orphanedFiles())
+        .description("Files found by the last reconciliation run")
+        .tag("state", "orphaned")
+        .register(meterRegistry);
+    Gauge.builder("paperbridge.reconciler.files", lastReport,
+            reference -> reference.get() == null ? 0 : reference.get().missingFiles())
+        .description("Files found by the last reconciliation run")
+        .tag("state", "missing")
+        .register(meterRegistry);
+  }
+
+  /**
+   * Fails if any of the directories lies inside the storage root or contains it. Reclaiming would
+   * delete files in such a directory as orphans, and trimming the page cache could delete stored
+   * documents.
+   *
+   * @param storageRoot The absolute, normalized storage root.
+   * @param directories The directories by the property that configures them; blank ones are ignored.
+   * @throws IllegalStateException if a directory overlaps the storage root.
+   */
+  static void checkSeparate(Path storageRoot, Map<String, String> directories) {
+    Path root = realPath(storageRoot);
+    directories.forEach((property, location) -> {
+      if (!StringUtils.hasText(location)) {
+        return;
+      }
+      Path directory = realPath(Paths.get(location).toAbsolutePath().normalize());
+      if (directory.startsWith(root) || root.startsWith(directory)) {
+        throw new IllegalStateException(property + " (" + directory + ") must not overlap the storage location ("
+            + root + ")");
+      }
+    });
+  }
+
+  /**
+   * Resolves symbolic links of the longest existing part of the path, so links cannot hide an
+   * overlap.
+   */
+  private static Path realPath(Path path) {
+    Path existing = path;
+    while (existing != null && !Files.exists(existing)) {
+      existing = existing.getParent();
+    }
+    if (existing == null) {
+      return path;
+    }
+    try {
+      return existing.toRealPath().resolve(existing.relativize(path));
+    } catch (IOException e) {
+      return path;
+    }
+  }
+
+  /**
+   * Starts a run on the configured schedule, reclaiming orphans if that is configured. The run
+   * itself happens on its own thread, so other scheduled tasks are not held up.
+   */
+  @Scheduled(cron = "${paperbridge.reconciler.cron:0 0 2 * * *}")
+  public void scheduledRun() {
+    if (properties.isEnabled()) {
+      start(properties.isReclaim());
+    }
+  }
+
+  /**
+   * Starts a run on a background thread unless one is in progress.
+   *
+   * @param reclaim Whether orphans past the grace period are deleted.
+   * @return Whether a run was started.
+   */
+  public boolean start(boolean reclaim) {
+    if (!running.compareAndSet(false, true)) {
+      return false;
+    }
+    Thread thread = new Thread(() -> {
+      try {
+        run(reclaim);
+      } catch (Exception e) {
+        log.error("Storage reconciliation failed", e);
+      } finally {
+        running.set(false);
+      }
+    }, "storage-reconciler");
+    thread.setDaemon(true);
+    thread.start();
+    return true;
+  }
+
+  /**
+   * @return Whether a run is in progress.
+   */
+  public boolean isRunning() {
+    return running.get();
+  }
+
+  /**
+   * @return The report of the last completed run, if any.
+   */
+  public Optional<ReconciliationReport> lastReport() {
+    return Optional.ofNullable(lastReport.get());
+  }
+
+  private void run(boolean reclaim) {
+    Timer.Sample sample = Timer.start();
+    LocalDateTime startedAt = LocalDateTime.now();
+    TokenBucket budget = new TokenBucket(properties.getIoOperationsPerSecond(),
+        Math.max(1, properties.getIoOperationsPerSecond()));
+    log.info("Reconciling storage at {}", rootLocation);
+
+    List<StorageEntry> files;
+    ForkJoinPool pool = new ForkJoinPool(Math.max(1, properties.getParallelism()));
+    try {
+      files = StorageWalker.walk(rootLocation, pool, budget, pathOrder().comparator());
+    } finally {
+      pool.shutdown();
+    }
+
+    Merge merge = readOnlyTransaction.execute(status -> {
+      try (Stream<String> referenced = jdbcTemplate.queryForStream(pathOrder().query(),
+          (resultSet, row) -> resultSet.getString(1))) {
+        return merge(files, referenced.iterator(), pathOrder().comparator(), properties.getMaxReportedPaths());
+      }
+    });
+
+    long reclaimedFiles = 0;
+    long reclaimed = 0;
+    if (reclaim) {
+      List<StorageEntry> deleted = reclaim(merge.orphans, budget);
+      reclaimedFiles = deleted.size();
+      reclaimed = deleted.stream().mapToLong(StorageEntry::size).sum();
+      reclaimedBytes.increment(reclaimed);
+    }
+
+    long bytesScanned = files.stream().mapToLong(StorageEntry::size).sum();
+    long orphanedBytes = merge.orphans.stream().mapToLong(StorageEntry::size).sum();
+    ReconciliationReport report = new ReconciliationReport(startedAt, LocalDateTime.now(), reclaim,
+        files.size(), bytesScanned, merge.referenced, merge.missingCount, merge.orphans.size(), orphanedBytes,
+        reclaimedFiles, reclaimed, List.copyOf(merge.missing),
+        List.copyOf(merge.orphans.subList(0, Math.min(merge.orphans.size(), properties.getMaxReportedPaths()))));
+    lastReport.set(report);
+    sample.stop(runTimer);
+    log.info("Storage reconciled: {} files, {} orphaned ({} bytes), {} missing, {} reclaimed ({} bytes)",
+        report.filesScanned(), report.orphanedFiles(), report.orphanedBytes(), report.missingFiles(),
+        report.reclaimedFiles(), report.reclaimedBytes());
+  }
+
+  /**
+   * Walks both sorted sequences once. A path only in storage is an orphan; a path only in the
+   * database is missing.
+   *
+   * @param files The files in storage, sorted by path.
+   * @param referenced The referenced paths, sorted by path, without duplicates.
+   * @param order The order of both sequences.
+   * @param maxReported The maximum number of missing paths to keep.
+   * @return The orphans and missing paths.
+   * @throws IllegalStateException if the referenced paths are not sorted the same way, which would
+   *     make every later file look orphaned.
+   */
+  static Merge merge(List<StorageEntry> files, Iterator<String> referenced, Comparator<String> order,
+      int maxReported) {
+    Merge merge = new Merge();
+    int fileIndex = 0;
+    String previous = null;
+    while (referenced.hasNext()) {
+      String path = referenced.next();
+      if (previous != null && order.compare(previous, path) >= 0) {
+        throw new IllegalStateException("Referenced paths are not in ascending order: '" + previous
+            + "' before '" + path + "'");
+      }
+      previous = path;
+      merge.referenced++;
+
+      while (fileIndex < files.size() && order.compare(files.get(fileIndex).path(), path) < 0) {
+        merge.orphans.add(files.get(fileIndex++));
+      }
+      if (fileIndex < files.size() && files.get(fileIndex).path().equals(path)) {
+        fileIndex++;
+      } else {
+        merge.missingCount++;
+        if (merge.missing.size() < maxReported) {
+          merge.missing.add(path);
+        }
+      }
+    }
+    while (fileIndex < files.size()) {
+      merge.orphans.add(files.get(fileIndex++));
+    }
+    return merge;
+  }
+
+  /**
+   * Deletes the orphans that are older than the grace period and still unreferenced.
+   *
+   * @param orphans The orphans found by the merge.
+   * @param budget The I/O budget.
+   * @return The deleted files.
+   */
+  List<StorageEntry> reclaim(List<StorageEntry> orphans, TokenBucket budget) {
+    long cutoff = System.currentTimeMillis() - properties.getGracePeriod().toMillis();
+    List<StorageEntry> expired = orphans.stream().filter(entry -> entry.lastModified() < cutoff).toList();
+    List<StorageEntry> deleted = new ArrayList<>();
+    for (int from = 0; from < expired.size(); from += CONFIRM_BATCH_SIZE) {
+      List<StorageEntry> batch = expired.subList(from, Math.min(expired.size(), from + CONFIRM_BATCH_SIZE));
+      Set<String> referenced = stillReferenced(batch.stream().map(StorageEntry::path).toList());
+      for (StorageEntry entry : batch) {
+        if (!referenced.contains(entry.path()) && delete(entry, budget)) {
+          deleted.add(entry);
+        }
+      }
+    }
+    return deleted;
+  }
+
+  /**
+   * Re-checks deletion candidates against the database in a single query.
+   *
+   * @param paths The candidate paths.
+   * @return The paths that are referenced by now.
+   */
+  Set<String> stillReferenced(List<String> paths) {
+    return new HashSet<>(namedJdbcTemplate.queryForList(STILL_REFERENCED, Map.of("paths", paths), String.class));
+  }
+
+  private boolean delete(StorageEntry entry, TokenBucket budget) {
+    try {
+      budget.acquire(1);
+      Path file = rootLocation.resolve(entry.path()).normalize();
+      if (!file.startsWith(rootLocation)) {
+        return false;
+      }
+      // Skip files that were replaced since the walk
+      if (Files.getLastModifiedTime(file).toMillis() != entry.lastModified()) {
+        return false;
+      }
+      return Files.deleteIfExists(file);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return false;
+    } catch (IOException e) {
+      log.warn("Could not delete orphaned file {}", entry.path(), e);
+      return false;
+    }
+  }
+
+  /**
+   * The storage listing has to be sorted the way the database sorts the referenced paths.
+   * PostgreSQL sorts by the column's locale collation unless told to compare bytes; other databases,
+   * such as H2, compare strings like {@link String#compareTo}.
+   */
+  private PathOrder pathOrder() {
+    if (pathOrder == null) {
+      try (Connection connection = dataSource.getConnection()) {
+        boolean postgres = connection.getMetaData().getDatabaseProductName().equalsIgnoreCase("PostgreSQL");
+        pathOrder = postgres
+            ? new PathOrder(REFERENCED_PATHS + " COLLATE \"C\"", UTF8_ORDER)
+            : new PathOrder(REFERENCED_PATHS, Comparator.naturalOrder());
+      } catch (SQLException e) {
+        throw new IllegalStateException("Could not determine the database type", e);
+      }
+    }
+    return pathOrder;
+  }
+
+  /**
+   * Surrogates only occur in code points above U+FFFF, so they rank above every other UTF-16 unit.
+   */
+  private static int utf8Rank(char c) {
+    return Character.isSurrogate(c) ? c + 0x10000 : c;
+  }
+
+  /**
+   * The query for the referenced paths and the order it returns them in.
+   */
+  private record PathOrder(String query, Comparator<String> comparator) {
+  }
+
+  /**
+   * Result of merging the storage listing with the referenced paths.
+   */
+  static final class Merge {
+    long referenced;
+    long missingCount;
+    final List<String> missing = new ArrayList<>();
+    final List<StorageEntry> orphans = new ArrayList<>();
+  }
+}
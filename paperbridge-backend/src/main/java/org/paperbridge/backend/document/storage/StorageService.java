@@ -1,6 +1,8 @@
 package org.paperbridge.backend.document.storage;
 
 import org.springframework.web.multipart.MultipartFile;
+
+import java.io.InputStream;
 import java.nio.file.Path;
 
 /**
@@ -30,6 +32,16 @@ public interface StorageService {
    */
   String store(MultipartFile file, String subfolder);
 
+  /**
+   * Stores the content of a stream on the filesystem in a specified subfolder.
+   *
+   * @param content The file content; read to the end but not closed.
+   * @param originalFilename The name the file had at its source.
+   * @param subfolder The subfolder path (e.g., "folder1" or "folder1/subfolder"). Can be null or empty for root.
+   * @return The canonical, relative file path used for the Document entity.
+   */
+  String store(InputStream content, String originalFilename, String subfolder);
+
   /**
    * Resolves the Path for a stored file given its relative path.
    *
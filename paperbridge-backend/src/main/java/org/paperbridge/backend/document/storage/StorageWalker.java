@@ -0,0 +1,102 @@
+package org.paperbridge.backend.document.storage;
+
+import org.paperbridge.backend.admission.TokenBucket;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Lists all regular files below a directory, one fork-join task per directory, so wide and deep
+ * trees are listed with the configured parallelism. Every directory listing and file inspection
+ * takes a token from the I/O budget.
+ */
+final class StorageWalker {
+
+  private StorageWalker() {
+  }
+
+  /**
+   * @param root The directory to walk.
+   * @param pool The pool to walk in; its parallelism bounds the concurrent listings.
+   * @param budget The I/O budget, or null for no limit.
+   * @param order The order of the returned paths.
+   * @return All regular files, sorted by path. Symbolic links are not followed.
+   */
+  static List<StorageEntry> walk(Path root, ForkJoinPool pool, TokenBucket budget, Comparator<String> order) {
+    List<StorageEntry> entries = pool.invoke(new ListDirectory(root, root, budget));
+    StorageEntry[] sorted = entries.toArray(StorageEntry[]::new);
+    Arrays.parallelSort(sorted, Comparator.comparing(StorageEntry::path, order));
+    return Arrays.asList(sorted);
+  }
+
+  private static final class ListDirectory extends RecursiveTask<List<StorageEntry>> {
+
+    private final Path root;
+    private final Path directory;
+    private final TokenBucket budget;
+
+    ListDirectory(Path root, Path directory, TokenBucket budget) {
+      this.root = root;
+      this.directory = directory;
+      this.budget = budget;
+    }
+
+    @Override
+    protected List<StorageEntry> compute() {
+      List<StorageEntry> files = new ArrayList<>();
+      List<ListDirectory> subdirectories = new ArrayList<>();
+      spend();
+      try (DirectoryStream<Path> children = Files.newDirectoryStream(directory)) {
+        for (Path child : children) {
+          spend();
+          BasicFileAttributes attributes;
+          try {
+            attributes = Files.readAttributes(child, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+          } catch (NoSuchFileException e) {
+            continue;
+          }
+          if (attributes.isDirectory()) {
+            subdirectories.add(new ListDirectory(root, child, budget));
+          } else if (attributes.isRegularFile()) {
+            files.add(new StorageEntry(root.relativize(child).toString().replace('\\', '/'),
+                attributes.size(), attributes.lastModifiedTime().toMillis()));
+          }
+        }
+      } catch (NoSuchFileException e) {
+        return files;
+      } catch (IOException e) {
+        throw new UncheckedIOException("Could not list " + directory, e);
+      }
+
+      for (ListDirectory subdirectory : invokeAll(subdirectories)) {
+        files.addAll(subdirectory.join());
+      }
+      return files;
+    }
+
+    private void spend() {
+      if (budget == null) {
+        return;
+      }
+      try {
+        budget.acquire(1);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new CancellationException("Interrupted while walking " + directory);
+      }
+    }
+  }
+}
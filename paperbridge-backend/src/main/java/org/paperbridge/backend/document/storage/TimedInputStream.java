@@ -0,0 +1,70 @@
+package org.paperbridge.backend.document.storage;
+
+import io.micrometer.core.instrument.Timer;
+import org.springframework.lang.NonNull;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the time a stream spends waiting for reads from storage.
+ *
+ * The time of all reads and skips is summed up and recorded once when the stream is closed, so
+ * each served file contributes one sample regardless of how many buffers it was read in. Time the
+ * response spends writing to a slow client is not included.
+ */
+class TimedInputStream extends FilterInputStream {
+
+  private final Timer timer;
+  private long nanos;
+  private boolean recorded;
+
+  TimedInputStream(InputStream in, Timer timer) {
+    super(in);
+    this.timer = timer;
+  }
+
+  @Override
+  public int read() throws IOException {
+    long start = System.nanoTime();
+    try {
+      return in.read();
+    } finally {
+      nanos += System.nanoTime() - start;
+    }
+  }
+
+  @Override
+  public int read(@NonNull byte[] bytes, int offset, int length) throws IOException {
+    long start = System.nanoTime();
+    try {
+      return in.read(bytes, offset, length);
+    } finally {
+      nanos += System.nanoTime() - start;
+    }
+  }
+
+  @Override
+  public long skip(long n) throws IOException {
+    long start = System.nanoTime();
+    try {
+      return in.skip(n);
+    } finally {
+      nanos += System.nanoTime() - start;
+    }
+  }
+
+  @Override
+  public void close() throws IOException {
+    try {
+      super.close();
+    } finally {
+      if (!recorded) {
+        recorded = true;
+        timer.record(nanos, TimeUnit.NANOSECONDS);
+      }
+    }
+  }
+}
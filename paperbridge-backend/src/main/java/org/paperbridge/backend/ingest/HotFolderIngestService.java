@@ -0,0 +1,553 @@
+package org.paperbridge.backend.ingest;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.paperbridge.backend.config.IngestProperties;
+import org.paperbridge.backend.document.cache.DocumentCache;
+import org.paperbridge.backend.document.change.DocumentChangeFeed;
+import org.paperbridge.backend.document.model.Document;
+import org.paperbridge.backend.document.model.DocumentChangeType;
+import org.paperbridge.backend.document.model.IngestedFile;
+import org.paperbridge.backend.document.page.PdfPageService;
+import org.paperbridge.backend.document.repository.DocumentRepository;
+import org.paperbridge.backend.document.repository.IngestedFileRepository;
+import org.paperbridge.backend.document.storage.StorageService;
+import org.paperbridge.backend.worker.DocumentProcessingQueue;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Imports files that scanners drop into the inbox directory.
+ *
+ * The pipeline has three stages, each on its own threads:
+ * <ol>
+ *   <li>A watcher registers the inbox and its subdirectories with a {@link WatchService} and
+ *   tracks every new or modified file until its size and modification time have not changed for
+ *   the quiet period, so files still being written over the network are left alone. The whole
+ *   inbox is rescanned periodically as well, because watch events are unreliable on network
+ *   shares and get lost when too many arrive at once.</li>
+ *   <li>A pool of workers hashes each settled file and streams it into the storage service unless
+ *   its SHA-256 is already recorded, so files dropped into the inbox again are never copied.</li>
+ *   <li>A batch writer creates the documents of up to {@code batchSize} stored files in one
+ *   transaction, together with an {@link IngestedFile} record of each content hash. Only after
+ *   the commit are the files removed from the inbox and queued for processing.</li>
+ * </ol>
+ *
+ * A file whose hash is already recorded is not imported again. The writer checks the hashes once
+ * more in its transaction and removes the stored copies of files that turn out to be known. That covers a restart between the commit and the removal of the source file, as well as the
+ * same page being scanned into the inbox twice. A crash before the commit leaves the source in the
+ * inbox, so it is imported on the next start; the stored copy from the first attempt is an
+ * orphan for the storage reconciler.
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(name = "paperbridge.ingest.enabled", havingValue = "true")
+public class HotFolderIngestService {
+
+  private static final long WATCH_POLL_MILLIS = 250;
+
+  private final IngestProperties properties;
+  private final StorageService storageService;
+  private final DocumentRepository documentRepository;
+  private final IngestedFileRepository ingestedFileRepository;
+  private final DocumentCache documentCache;
+  private final DocumentChangeFeed documentChangeFeed;
+  private final PdfPageService pdfPageService;
+  private final DocumentProcessingQueue processingQueue;
+  private final TransactionTemplate transaction;
+  private final Path inbox;
+  private final Path archive;
+  private final Set<String> extensions = new HashSet<>();
+
+  /** Files waiting to settle; only touched by the watcher thread. */
+  private final Map<Path, Candidate> candidates = new HashMap<>();
+  /** Files handed to the store workers and not yet written or given up. */
+  private final Set<Path> inProgress = ConcurrentHashMap.newKeySet();
+  /** Imported files that could not be removed from the inbox; skipped until the next restart. */
+  private final Set<Path> stuck = ConcurrentHashMap.newKeySet();
+  private final BlockingQueue<StoredFile> stored = new LinkedBlockingQueue<>();
+  private final AtomicInteger pending = new AtomicInteger();
+
+  private final Counter imported;
+  private final Counter duplicates;
+  private final Counter failures;
+
+  private volatile boolean running;
+  private WatchService watchService;
+  private ExecutorService storeExecutor;
+  private Thread watcherThread;
+  private Thread writerThread;
+
+  public HotFolderIngestService(IngestProperties properties, StorageService storageService,
+      DocumentRepository documentRepository, IngestedFileRepository ingestedFileRepository,
+      DocumentCache documentCache, DocumentChangeFeed documentChangeFeed, PdfPageService pdfPageService,
+      DocumentProcessingQueue processingQueue, PlatformTransactionManager transactionManager,
+      MeterRegistry meterRegistry) {
+    this.properties = properties;
+    this.storageService = storageService;
+    this.documentRepository = documentRepository;
+    this.ingestedFileRepository = ingestedFileRepository;
+    this.documentCache = documentCache;
+    this.documentChangeFeed = documentChangeFeed;
+    this.pdfPageService = pdfPageService;
+    this.processingQueue = processingQueue;
+    this.transaction = new TransactionTemplate(transactionManager);
+    this.inbox = Paths.get(properties.getInbox()).toAbsolutePath().normalize();
+    this.archive = StringUtils.hasText(properties.getArchiveLocation())
+        ? Paths.get(properties.getArchiveLocation()).toAbsolutePath().normalize()
+        : null;
+    properties.getExtensions().forEach(extension -> extensions.add(extension.toLowerCase(Locale.ROOT)));
+
+    this.imported = files(meterRegistry, "imported");
+    this.duplicates = files(meterRegistry, "duplicate");
+    this.failures = files(meterRegistry, "failed");
+    Gauge.builder("paperbridge.ingest.pending", pending, AtomicInteger::get)
+        .description("Files found in the inbox and not yet imported")
+        .register(meterRegistry);
+  }
+
+  @PostConstruct
+  public void start() throws IOException {
+    Files.createDirectories(inbox);
+    if (archive != null) {
+      Files.createDirectories(archive);
+    }
+    watchService = inbox.getFileSystem().newWatchService();
+    storeExecutor = Executors.newFixedThreadPool(Math.max(1, properties.getStoreConcurrency()), runnable -> {
+      Thread thread = new Thread(runnable, "ingest-store");
+      thread.setDaemon(true);
+      return thread;
+    });
+
+    running = true;
+    watcherThread = new Thread(this::watch, "ingest-watcher");
+    watcherThread.setDaemon(true);
+    watcherThread.start();
+    writerThread = new Thread(this::writeBatches, "ingest-writer");
+    writerThread.setDaemon(true);
+    writerThread.start();
+    log.info("Watching {} for new files", inbox);
+  }
+
+  @PreDestroy
+  public void stop() throws IOException {
+    running = false;
+    watcherThread.interrupt();
+    storeExecutor.shutdown();
+    try {
+      // Let stored files reach the database rather than leaving orphans behind
+      storeExecutor.awaitTermination(30, TimeUnit.SECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    writerThread.interrupt();
+    try {
+      // The writer finishes its current batch and whatever is still queued, then exits
+      writerThread.join(TimeUnit.SECONDS.toMillis(30));
+      if (writerThread.isAlive()) {
+        log.warn("Ingest writer did not finish within 30 seconds, {} stored files left unwritten", stored.size());
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    watchService.close();
+  }
+
+  // --- Stage 1: watching and debouncing ---
+
+  private void watch() {
+    // nanoTime() may be negative, so the first scan is due now rather than at 0
+    long nextRescan = System.nanoTime();
+    while (running) {
+      try {
+        if (System.nanoTime() - nextRescan >= 0) {
+          // Also registers directories created while events were lost
+          scan(inbox);
+          nextRescan = System.nanoTime() + properties.getRescanInterval().toNanos();
+        }
+        WatchKey key = watchService.poll(WATCH_POLL_MILLIS, TimeUnit.MILLISECONDS);
+        while (key != null) {
+          handle(key);
+          key = watchService.poll();
+        }
+        submitSettledFiles();
+      } catch (InterruptedException | ClosedWatchServiceException e) {
+        return;
+      } catch (Exception e) {
+        log.warn("Error while watching {}", inbox, e);
+      }
+    }
+  }
+
+  private void handle(WatchKey key) throws IOException {
+    Path directory = (Path) key.watchable();
+    for (WatchEvent<?> event : key.pollEvents()) {
+      if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+        scan(inbox);
+        continue;
+      }
+      Path path = directory.resolve((Path) event.context());
+      if (Files.isDirectory(path)) {
+        scan(path);
+      } else {
+        track(path);
+      }
+    }
+    key.reset();
+  }
+
+  /**
+   * Registers a directory tree with the watch service and tracks every file in it.
+   */
+  private void scan(Path root) throws IOException {
+    Files.walkFileTree(root, new SimpleFileVisitor<>() {
+      @Override
+      public FileVisitResult preVisitDirectory(Path directory, BasicFileAttributes attributes) throws IOException {
+        if (archive != null && directory.startsWith(archive) || isHidden(directory) && !directory.equals(inbox)) {
+          return FileVisitResult.SKIP_SUBTREE;
+        }
+        directory.register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+            StandardWatchEventKinds.ENTRY_MODIFY);
+        return FileVisitResult.CONTINUE;
+      }
+
+      @Override
+      public FileVisitResult visitFile(Path file, BasicFileAttributes attributes) {
+        track(file);
+        return FileVisitResult.CONTINUE;
+      }
+
+      @Override
+      public FileVisitResult visitFileFailed(Path file, IOException e) {
+        // Deleted or renamed while scanning
+        return FileVisitResult.CONTINUE;
+      }
+    });
+  }
+
+  private void track(Path path) {
+    if (!accepts(path) || inProgress.contains(path) || stuck.contains(path) || candidates.containsKey(path)) {
+      return;
+    }
+    candidates.put(path, new Candidate());
+    pending.incrementAndGet();
+  }
+
+  /**
+   * Hands over every file whose size and modification time have not changed for the quiet period.
+   */
+  private void submitSettledFiles() {
+    long now = System.nanoTime();
+    long quietNanos = properties.getQuietPeriod().toNanos();
+    Iterator<Map.Entry<Path, Candidate>> iterator = candidates.entrySet().iterator();
+    while (iterator.hasNext()) {
+      Map.Entry<Path, Candidate> entry = iterator.next();
+      Path path = entry.getKey();
+      Candidate candidate = entry.getValue();
+      BasicFileAttributes attributes;
+      try {
+        attributes = Files.readAttributes(path, BasicFileAttributes.class);
+      } catch (IOException e) {
+        // Removed or renamed before it settled
+        iterator.remove();
+        pending.decrementAndGet();
+        continue;
+      }
+
+      long modified = attributes.lastModifiedTime().toMillis();
+      if (attributes.size() != candidate.size || modified != candidate.modified) {
+        candidate.size = attributes.size();
+        candidate.modified = modified;
+        candidate.unchangedSince = now;
+      } else if (attributes.size() > 0 && now - candidate.unchangedSince >= quietNanos) {
+        iterator.remove();
+        inProgress.add(path);
+        storeExecutor.execute(() -> store(path));
+      }
+    }
+  }
+
+  // --- Stage 2: hashing and storing ---
+
+  private void store(Path path) {
+    Path relative = inbox.relativize(path);
+    String subfolder = subfolderFor(relative);
+    try {
+      if (!ingestedFileRepository.findKnownHashes(List.of(hash(path))).isEmpty()) {
+        duplicates.increment();
+        removeSource(path);
+        return;
+      }
+      // Hashed again while storing, so the recorded hash is the one of the stored content
+      try (InputStream in = new DigestInputStream(Files.newInputStream(path), sha256())) {
+        String filePath = storageService.store(in, path.getFileName().toString(), subfolder);
+        String hash = HexFormat.of().formatHex(((DigestInputStream) in).getMessageDigest().digest());
+        stored.add(new StoredFile(path, relative.toString().replace('\\', '/'), filePath, hash));
+      }
+    } catch (NoSuchFileException e) {
+      release(path);
+    } catch (Exception e) {
+      log.warn("Could not store {}, retrying with the next scan", path, e);
+      failures.increment();
+      release(path);
+    }
+  }
+
+  private String subfolderFor(Path relative) {
+    Path parent = relative.getParent();
+    String source = parent != null ? parent.toString().replace('\\', '/') : "";
+    String target = StringUtils.hasText(properties.getTargetFolder()) ? properties.getTargetFolder() : "";
+    if (target.isEmpty() || source.isEmpty()) {
+      return target + source;
+    }
+    return target + "/" + source;
+  }
+
+  // --- Stage 3: batched database writes ---
+
+  private void writeBatches() {
+    List<StoredFile> batch = new ArrayList<>(properties.getBatchSize());
+    while (running || !stored.isEmpty()) {
+      StoredFile first;
+      try {
+        first = stored.poll(1, TimeUnit.SECONDS);
+      } catch (InterruptedException e) {
+        // Shutting down; write what the store workers have finished
+        continue;
+      }
+      if (first == null) {
+        continue;
+      }
+      batch.add(first);
+      fill(batch);
+      try {
+        write(batch);
+      } catch (Exception e) {
+        log.warn("Unexpected error while importing {} files", batch.size(), e);
+      } finally {
+        batch.clear();
+      }
+    }
+  }
+
+  /**
+   * Adds stored files to the batch until it is full or the batch delay has passed.
+   */
+  private void fill(List<StoredFile> batch) {
+    long deadline = System.nanoTime() + properties.getBatchDelay().toNanos();
+    while (batch.size() < properties.getBatchSize()) {
+      stored.drainTo(batch, properties.getBatchSize() - batch.size());
+      long remaining = deadline - System.nanoTime();
+      if (batch.size() >= properties.getBatchSize() || remaining <= 0) {
+        return;
+      }
+      try {
+        StoredFile next = stored.poll(remaining, TimeUnit.NANOSECONDS);
+        if (next != null) {
+          batch.add(next);
+        }
+      } catch (InterruptedException e) {
+        return;
+      }
+    }
+  }
+
+  private void write(List<StoredFile> batch) {
+    List<Document> created = new ArrayList<>();
+    List<StoredFile> skipped = new ArrayList<>();
+    try {
+      transaction.executeWithoutResult(status -> {
+        Set<String> known = new HashSet<>(ingestedFileRepository.findKnownHashes(
+            batch.stream().map(StoredFile::contentHash).toList()));
+        LocalDateTime now = LocalDateTime.now();
+        List<StoredFile> fresh = new ArrayList<>();
+        List<Document> documents = new ArrayList<>();
+        for (StoredFile file : batch) {
+          // add() also catches the same content appearing twice within the batch
+          if (!known.add(file.contentHash())) {
+            skipped.add(file);
+            continue;
+          }
+          fresh.add(file);
+          documents.add(Document.builder()
+              .title(file.source().getFileName().toString())
+              .filePath(file.filePath())
+              .createdAt(now)
+              .updatedAt(now)
+              .build());
+        }
+
+        List<Document> saved = documentRepository.saveAll(documents);
+        List<IngestedFile> records = new ArrayList<>(saved.size());
+        for (int i = 0; i < saved.size(); i++) {
+          records.add(IngestedFile.builder()
+              .contentHash(fresh.get(i).contentHash())
+              .sourcePath(fresh.get(i).sourcePath())
+              .documentId(saved.get(i).getId())
+              .ingestedAt(now)
+              .build());
+          documentChangeFeed.record(DocumentChangeType.CREATED, saved.get(i));
+        }
+        ingestedFileRepository.saveAll(records);
+        created.addAll(saved);
+      });
+    } catch (RuntimeException e) {
+      // Nothing was committed; the sources stay in the inbox and are picked up again
+      log.warn("Could not import {} files, retrying with the next scan", batch.size(), e);
+      failures.increment(batch.size());
+      for (StoredFile file : batch) {
+        deleteQuietly(storageService.load(file.filePath()));
+        release(file.source());
+      }
+      return;
+    }
+
+    imported.increment(created.size());
+    duplicates.increment(skipped.size());
+    for (StoredFile file : skipped) {
+      deleteQuietly(storageService.load(file.filePath()));
+    }
+    batch.forEach(file -> removeSource(file.source()));
+    for (Document document : created) {
+      documentCache.evict(document.getId());
+      pdfPageService.prepare(document);
+      processingQueue.enqueue(document.getId());
+    }
+    if (!created.isEmpty()) {
+      log.info("Imported {} files from the inbox, skipped {} already imported", created.size(), skipped.size());
+    }
+  }
+
+  private void removeSource(Path source) {
+    try {
+      if (archive != null) {
+        Path target = archive.resolve(inbox.relativize(source));
+        Files.createDirectories(target.getParent());
+        Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+      } else {
+        Files.deleteIfExists(source);
+      }
+      release(source);
+    } catch (IOException e) {
+      log.warn("Imported {} but could not remove it from the inbox", source, e);
+      stuck.add(source);
+      release(source);
+    }
+  }
+
+  private void release(Path path) {
+    if (inProgress.remove(path)) {
+      pending.decrementAndGet();
+    }
+  }
+
+  private boolean accepts(Path path) {
+    if (isHidden(path) || archive != null && path.startsWith(archive)) {
+      return false;
+    }
+    String name = path.getFileName().toString().toLowerCase(Locale.ROOT);
+    if (name.endsWith(".tmp") || name.endsWith(".part")) {
+      return false;
+    }
+    return extensions.isEmpty() || extensions.contains(StringUtils.getFilenameExtension(name));
+  }
+
+  private static boolean isHidden(Path path) {
+    Path name = path.getFileName();
+    return name != null && name.toString().startsWith(".");
+  }
+
+  private static void deleteQuietly(Path path) {
+    try {
+      Files.deleteIfExists(path);
+    } catch (IOException e) {
+      log.warn("Could not delete {}", path, e);
+    }
+  }
+
+  private static String hash(Path path) throws IOException {
+    try (InputStream in = new DigestInputStream(Files.newInputStream(path), sha256())) {
+      in.transferTo(OutputStream.nullOutputStream());
+      return HexFormat.of().formatHex(((DigestInputStream) in).getMessageDigest().digest());
+    }
+  }
+
+  private static MessageDigest sha256() {
+    try {
+      return MessageDigest.getInstance("SHA-256");
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 is not available", e);
+    }
+  }
+
+  private static Counter files(MeterRegistry meterRegistry, String result) {
+    return Counter.builder("paperbridge.ingest.files")
+        .description("Files taken from the inbox")
+        .tag("result", result)
+        .register(meterRegistry);
+  }
+
+  /**
+   * Last observed state of a file that is possibly still being written.
+   */
+  private static class Candidate {
+    long size = -1;
+    long modified;
+    long unchangedSince;
+  }
+
+  /**
+   * A file copied into storage whose document has not been created yet.
+   *
+   * @param source The file in the inbox.
+   * @param sourcePath The path relative to the inbox, with forward slashes.
+   * @param filePath The relative path in document storage.
+   * @param contentHash The hex-encoded SHA-256 of the content.
+   */
+  private record StoredFile(Path source, String sourcePath, String filePath, String contentHash) {
+  }
+}
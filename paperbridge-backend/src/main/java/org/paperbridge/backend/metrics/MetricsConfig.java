@@ -0,0 +1,95 @@
+package org.paperbridge.backend.metrics;
+
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.config.MeterFilter;
+import io.micrometer.core.instrument.distribution.DistributionStatisticConfig;
+import org.hibernate.cfg.AvailableSettings;
+import org.paperbridge.backend.config.MetricsProperties;
+import org.springframework.boot.autoconfigure.condition.ConditionOutcome;
+import org.springframework.boot.autoconfigure.condition.SpringBootCondition;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.ConditionContext;
+import org.springframework.context.annotation.Conditional;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.type.AnnotatedTypeMetadata;
+import org.springframework.lang.NonNull;
+
+/**
+ * Wires the application's metrics into Micrometer.
+ *
+ * In "full" mode, request, storage and worker timers publish percentile histograms, and every
+ * HTTP request records how many SQL statements it caused. In "lean" mode histograms are switched
+ * off for all meters and statements are not counted, leaving counts, totals and maxima only.
+ */
+@Configuration
+public class MetricsConfig {
+
+  @Bean
+  public MeterFilter distributionMeterFilter(MetricsProperties properties) {
+    boolean lean = properties.isLean();
+    return new MeterFilter() {
+      @Override
+      public DistributionStatisticConfig configure(@NonNull Meter.Id id,
+          @NonNull DistributionStatisticConfig config) {
+        if (lean) {
+          return DistributionStatisticConfig.builder()
+              .percentilesHistogram(false)
+              .percentiles()
+              .serviceLevelObjectives()
+              .build()
+              .merge(config);
+        }
+        if (id.getName().equals("http.server.requests") || id.getName().startsWith("paperbridge.")) {
+          return DistributionStatisticConfig.builder()
+              .percentilesHistogram(true)
+              .build()
+              .merge(config);
+        }
+        return config;
+      }
+    };
+  }
+
+  @Bean
+  @Conditional(FullMode.class)
+  public StatementCounter statementCounter() {
+    return new StatementCounter();
+  }
+
+  @Bean
+  @Conditional(FullMode.class)
+  public HibernatePropertiesCustomizer statementCountingCustomizer(StatementCounter statementCounter) {
+    return hibernateProperties -> {
+      hibernateProperties.put(AvailableSettings.STATEMENT_INSPECTOR, statementCounter);
+      // Lets Actuator publish Hibernate's own query, cache and transaction statistics
+      hibernateProperties.put(AvailableSettings.GENERATE_STATISTICS, true);
+    };
+  }
+
+  @Bean
+  @Conditional(FullMode.class)
+  public StatementCountFilter statementCountFilter(StatementCounter statementCounter,
+      MeterRegistry meterRegistry) {
+    return new StatementCountFilter(statementCounter, meterRegistry);
+  }
+
+  /**
+   * Matches in "full" mode. Binds the mode the same way {@link MetricsProperties} does, so the
+   * conditional beans and the meter filter never disagree about the mode.
+   */
+  static class FullMode extends SpringBootCondition {
+
+    @Override
+    public ConditionOutcome getMatchOutcome(@NonNull ConditionContext context,
+        @NonNull AnnotatedTypeMetadata metadata) {
+      MetricsProperties properties = Binder.get(context.getEnvironment())
+          .bindOrCreate("paperbridge.metrics", MetricsProperties.class);
+      return properties.isLean()
+          ? ConditionOutcome.noMatch("paperbridge.metrics.mode is lean")
+          : ConditionOutcome.match("paperbridge.metrics.mode is full");
+    }
+  }
+}
@@ -0,0 +1,48 @@
+package org.paperbridge.backend.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.lang.NonNull;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * Publishes the number of SQL statements executed per request as
+ * {@code paperbridge.hibernate.statements}, tagged with the same method and URI template as
+ * Spring's {@code http.server.requests}.
+ */
+public class StatementCountFilter extends OncePerRequestFilter {
+
+  private final StatementCounter statementCounter;
+  private final MeterRegistry meterRegistry;
+
+  public StatementCountFilter(StatementCounter statementCounter, MeterRegistry meterRegistry) {
+    this.statementCounter = statementCounter;
+    this.meterRegistry = meterRegistry;
+  }
+
+  @Override
+  protected void doFilterInternal(@NonNull HttpServletRequest request,
+      @NonNull HttpServletResponse response, @NonNull FilterChain filterChain)
+      throws ServletException, IOException {
+    statementCounter.begin();
+    try {
+      filterChain.doFilter(request, response);
+    } finally {
+      int statements = statementCounter.end();
+      Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+      DistributionSummary.builder("paperbridge.hibernate.statements")
+          .description("SQL statements executed per HTTP request")
+          .tag("method", request.getMethod())
+          .tag("uri", pattern != null ? pattern.toString() : "UNKNOWN")
+          .register(meterRegistry)
+          .record(statements);
+    }
+  }
+}
@@ -0,0 +1,41 @@
+package org.paperbridge.backend.metrics;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Counts the SQL statements Hibernate prepares on the current thread while a count is open.
+ *
+ * Registered as Hibernate's statement inspector; {@link StatementCountFilter} opens a count for
+ * every HTTP request and publishes the result.
+ */
+public class StatementCounter implements StatementInspector {
+
+  private static final ThreadLocal<int[]> COUNT = new ThreadLocal<>();
+
+  @Override
+  public String inspect(String sql) {
+    int[] count = COUNT.get();
+    if (count != null) {
+      count[0]++;
+    }
+    return sql;
+  }
+
+  /**
+   * Starts counting statements on the current thread.
+   */
+  public void begin() {
+    COUNT.set(new int[1]);
+  }
+
+  /**
+   * Stops counting on the current thread.
+   *
+   * @return The number of statements since {@link #begin()}.
+   */
+  public int end() {
+    int[] count = COUNT.get();
+    COUNT.remove();
+    return count != null ? count[0] : 0;
+  }
+}
@@ -0,0 +1,200 @@
+package org.paperbridge.backend.worker;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.paperbridge.backend.admission.AdmissionController;
+import org.paperbridge.backend.config.WorkerProperties;
+import org.paperbridge.backend.document.cache.DocumentCache;
+import org.paperbridge.backend.document.change.DocumentChangeFeed;
+import org.paperbridge.backend.document.duplicate.NearDuplicateService;
+import org.paperbridge.backend.document.model.Document;
+import org.paperbridge.backend.document.model.DocumentChangeType;
+import org.paperbridge.backend.document.repository.DocumentRepository;
+import org.paperbridge.backend.document.storage.StorageService;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+
+/**
+ * In-memory queue of documents waiting to go through the {@link WorkerService} pipeline after
+ * they have been uploaded or imported.
+ *
+ * Documents are processed by a fixed number of virtual threads, each within the background
+ * admission budget, so processing backs off while interactive requests are waiting. The extracted
+ * text becomes the document's searchable content, and its signature is indexed for near-duplicate
+ * detection.
+ *
+ * The queue is not persisted. Every processed document is marked with the time of processing, even
+ * if no text was extracted, so once the application is ready, the documents that were still queued
+ * when it stopped are queued again.
+ */
+@Slf4j
+@Service
+public class DocumentProcessingQueue {
+
+    private static final int RESUME_BATCH_SIZE = 1000;
+
+    private final WorkerService workerService;
+    private final DocumentRepository documentRepository;
+    private final DocumentCache documentCache;
+    private final DocumentChangeFeed documentChangeFeed;
+    private final NearDuplicateService nearDuplicateService;
+    private final StorageService storageService;
+    private final AdmissionController admissionController;
+    private final WorkerProperties properties;
+    private final TransactionTemplate transactionTemplate;
+    private final BlockingQueue<Long> queue;
+    private final Counter rejected;
+    private final List<Thread> workers = new ArrayList<>();
+
+    private volatile boolean running;
+
+    public DocumentProcessingQueue(WorkerService workerService, DocumentRepository documentRepository,
+            DocumentCache documentCache, DocumentChangeFeed documentChangeFeed,
+            NearDuplicateService nearDuplicateService, StorageService storageService,
+            AdmissionController admissionController, WorkerProperties properties,
+            PlatformTransactionManager transactionManager, MeterRegistry meterRegistry) {
+        this.workerService = workerService;
+        this.documentRepository = documentRepository;
+        this.documentCache = documentCache;
+        this.documentChangeFeed = documentChangeFeed;
+        this.nearDuplicateService = nearDuplicateService;
+        this.storageService = storageService;
+        this.admissionController = admissionController;
+        this.properties = properties;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.queue = new LinkedBlockingQueue<>(properties.getQueueCapacity());
+        this.rejected = Counter.builder("paperbridge.worker.queue.rejected")
+                .description("Documents not queued for processing because the queue was full")
+                .register(meterRegistry);
+        Gauge.builder("paperbridge.worker.queue.depth", queue, BlockingQueue::size)
+                .description("Documents waiting for processing")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        for (int i = 0; i < Math.max(1, properties.getConcurrency()); i++) {
+            workers.add(Thread.ofVirtual().name("document-processing-" + i).start(this::work));
+        }
+    }
+
+    /**
+     * Queues the documents that were stored but not processed before the last shutdown.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void enqueueUnprocessed() {
+        int queued = 0;
+        long after = 0;
+        List<Long> ids;
+        do {
+            ids = documentRepository.findIdsNotProcessed(after, PageRequest.of(0, RESUME_BATCH_SIZE));
+            for (Long id : ids) {
+                if (!enqueue(id)) {
+                    return;
+                }
+                queued++;
+                after = id;
+            }
+        } while (ids.size() == RESUME_BATCH_SIZE);
+        if (queued > 0) {
+            log.info("Queued {} unprocessed documents for processing", queued);
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        workers.forEach(Thread::interrupt);
+    }
+
+    /**
+     * Queues a document for processing.
+     *
+     * @param documentId The ID of the document.
+     * @return Whether the document was queued; false if the queue is full.
+     */
+    public boolean enqueue(Long documentId) {
+        if (queue.offer(documentId)) {
+            return true;
+        }
+        rejected.increment();
+        log.warn("Processing queue is full, document {} is left for the next reprocessing run", documentId);
+        return false;
+    }
+
+    /**
+     * @return The number of documents waiting for processing.
+     */
+    public int depth() {
+        return queue.size();
+    }
+
+    private void work() {
+        while (running) {
+            Long documentId;
+            try {
+                documentId = queue.take();
+            } catch (InterruptedException e) {
+                return;
+            }
+            try (AdmissionController.Permit permit = admissionController.acquireBackground()) {
+                process(documentId);
+            } catch (InterruptedException e) {
+                return;
+            } catch (Exception e) {
+                log.warn("Could not process document {}", documentId, e);
+            }
+        }
+    }
+
+    void process(Long documentId) {
+        Document document = documentRepository.findById(documentId).orElse(null);
+        if (document == null) {
+            // Deleted while it was queued
+            return;
+        }
+
+        WorkerService.ProcessedDocument result = workerService.processDocument(
+                storageService.load(document.getFilePath()));
+        String text = result.getExtractedText();
+
+        Document savedDocument = transactionTemplate.execute(status -> {
+            // Reloaded, so edits made while the pipeline ran are not overwritten with stale fields
+            Document current = documentRepository.findById(documentId).orElse(null);
+            if (current == null || !Objects.equals(current.getFilePath(), document.getFilePath())) {
+                return null;
+            }
+            current.setProcessedAt(LocalDateTime.now());
+            if (text == null || text.isBlank() || Objects.equals(text, current.getContent())) {
+                // Marked as processed anyway, so it is not queued again on every start
+                documentRepository.save(current);
+                return null;
+            }
+            current.setContent(text);
+            current.setUpdatedAt(LocalDateTime.now());
+            Document saved = documentRepository.save(current);
+            documentChangeFeed.record(DocumentChangeType.UPDATED, saved);
+            return saved;
+        });
+        if (savedDocument != null) {
+            documentCache.evict(documentId);
+            nearDuplicateService.index(savedDocument);
+        }
+    }
+}
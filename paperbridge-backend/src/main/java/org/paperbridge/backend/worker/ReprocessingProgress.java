@@ -0,0 +1,29 @@
+package org.paperbridge.backend.worker;
+
+import org.paperbridge.backend.document.model.ReprocessingStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * Progress of a reprocessing job.
+ *
+ * @param jobId The ID of the job.
+ * @param status The state of the job.
+ * @param changeDescription The change description of the versions the job writes.
+ * @param totalDocuments The number of documents when the job was created.
+ * @param processedDocuments Documents processed so far, including failed ones.
+ * @param updatedDocuments Documents whose content changed and got a new history version.
+ * @param failedDocuments Documents that could not be processed.
+ * @param partitions The number of partitions.
+ * @param completedPartitions The number of partitions without documents left.
+ * @param documentsPerSecond Throughput since the job was last started on this node; 0 if it is not running here.
+ * @param estimatedSecondsRemaining Time to completion at the current throughput; null if unknown.
+ * @param createdAt When the job was created.
+ * @param startedAt When the job was last started or resumed.
+ * @param completedAt When the job completed.
+ */
+public record ReprocessingProgress(Long jobId, ReprocessingStatus status, String changeDescription,
+        long totalDocuments, long processedDocuments, long updatedDocuments, long failedDocuments,
+        int partitions, int completedPartitions, double documentsPerSecond, Long estimatedSecondsRemaining,
+        LocalDateTime createdAt, LocalDateTime startedAt, LocalDateTime completedAt) {
+}
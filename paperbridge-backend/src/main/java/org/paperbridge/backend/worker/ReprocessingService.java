@@ -0,0 +1,544 @@
+package org.paperbridge.backend.worker;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.paperbridge.backend.admission.AdmissionController;
+import org.paperbridge.backend.admission.TokenBucket;
+import org.paperbridge.backend.config.ReprocessingProperties;
+import org.paperbridge.backend.document.cache.DocumentCache;
+import org.paperbridge.backend.document.change.DocumentChangeFeed;
+import org.paperbridge.backend.document.duplicate.NearDuplicateService;
+import org.paperbridge.backend.document.model.Document;
+import org.paperbridge.backend.document.model.DocumentChangeType;
+import org.paperbridge.backend.document.model.DocumentHistory;
+import org.paperbridge.backend.document.model.ReprocessingJob;
+import org.paperbridge.backend.document.model.ReprocessingPartition;
+import org.paperbridge.backend.document.model.ReprocessingStatus;
+import org.paperbridge.backend.document.repository.DocumentHistoryRepository;
+import org.paperbridge.backend.document.repository.DocumentRepository;
+import org.paperbridge.backend.document.repository.ReprocessingJobRepository;
+import org.paperbridge.backend.document.repository.ReprocessingPartitionRepository;
+import org.paperbridge.backend.document.storage.StorageService;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Runs all existing documents through the {@link WorkerService} pipeline again, e.g. after the OCR
+ * engine or the embedding model changed.
+ *
+ * A job splits the document IDs into fixed-width ranges (partitions), and on every node running the
+ * job a configurable number of virtual threads work through them. A thread claims the next
+ * unfinished partition by taking its lease in the database, so nodes never work on the same
+ * partition; partitions leased by other nodes are waited for and taken over if their lease
+ * expires. Every document waits for the job's rate limit and then for a slot of the background
+ * admission budget, so the job yields to interactive requests and its load on the server stays
+ * predictable.
+ *
+ * Whenever the extracted text differs from the document's content, it is stored as a new
+ * {@link DocumentHistory} version with the job's change description and becomes the document's
+ * content. The partition's checkpoint is advanced in the same transaction, so a job interrupted by
+ * a crash or restart continues with the first document whose result was not yet saved. If the
+ * checkpoint is rejected because the lease was lost or the job was paused, the transaction is rolled
+ * back and the thread gives up the partition. Documents that fail are counted and skipped. Only the
+ * extracted text is kept; the pipeline's embeddings are not stored.
+ *
+ * Metrics: {@code paperbridge.reprocessing.documents} counter, tagged with the outcome.
+ */
+@Slf4j
+@Service
+public class ReprocessingService {
+
+    private final WorkerService workerService;
+    private final DocumentRepository documentRepository;
+    private final DocumentHistoryRepository documentHistoryRepository;
+    private final ReprocessingJobRepository jobRepository;
+    private final ReprocessingPartitionRepository partitionRepository;
+    private final DocumentCache documentCache;
+    private final DocumentChangeFeed documentChangeFeed;
+    private final NearDuplicateService nearDuplicateService;
+    private final StorageService storageService;
+    private final AdmissionController admissionController;
+    private final ReprocessingProperties properties;
+    private final TransactionTemplate transactionTemplate;
+    private final Counter updatedDocuments;
+    private final Counter unchangedDocuments;
+    private final Counter failedDocuments;
+    private final Map<Long, Run> runs = new ConcurrentHashMap<>();
+    private final String owner = UUID.randomUUID().toString();
+
+    /**
+     * How long a thread without a claimable partition waits before looking again, while other nodes
+     * hold the remaining ones.
+     */
+    private static final Duration CLAIM_RETRY_INTERVAL = Duration.ofSeconds(30);
+
+    public ReprocessingService(WorkerService workerService, DocumentRepository documentRepository,
+            DocumentHistoryRepository documentHistoryRepository, ReprocessingJobRepository jobRepository,
+            ReprocessingPartitionRepository partitionRepository, DocumentCache documentCache,
+            DocumentChangeFeed documentChangeFeed, NearDuplicateService nearDuplicateService,
+            StorageService storageService, AdmissionController admissionController,
+            ReprocessingProperties properties, PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry) {
+        this.workerService = workerService;
+        this.documentRepository = documentRepository;
+        this.documentHistoryRepository = documentHistoryRepository;
+        this.jobRepository = jobRepository;
+        this.partitionRepository = partitionRepository;
+        this.documentCache = documentCache;
+        this.documentChangeFeed = documentChangeFeed;
+        this.nearDuplicateService = nearDuplicateService;
+        this.storageService = storageService;
+        this.admissionController = admissionController;
+        this.properties = properties;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.updatedDocuments = documentCounter("updated", meterRegistry);
+        this.unchangedDocuments = documentCounter("unchanged", meterRegistry);
+        this.failedDocuments = documentCounter("failed", meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeInterruptedJobs() {
+        if (!properties.isResumeOnStartup()) {
+            return;
+        }
+        for (ReprocessingJob job : jobRepository.findByStatus(ReprocessingStatus.RUNNING)) {
+            log.info("Resuming reprocessing job {} ({})", job.getId(), job.getChangeDescription());
+            launch(job);
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        // Jobs stay RUNNING in the database and continue from their checkpoints after a restart
+        runs.values().forEach(Run::stop);
+    }
+
+    /**
+     * Creates a job over all current documents and starts it.
+     *
+     * @param changeDescription The change description of the versions the job writes.
+     * @param concurrency The number of partitions processed at the same time, or null for the default.
+     * @param documentsPerSecond The maximum throughput, 0 for no limit, or null for the default.
+     * @return The progress of the new job.
+     * @throws ReprocessingConflictException if another job is running.
+     */
+    public synchronized ReprocessingProgress start(String changeDescription, Integer concurrency,
+            Double documentsPerSecond) {
+        if (!jobRepository.findByStatus(ReprocessingStatus.RUNNING).isEmpty()) {
+            throw new ReprocessingConflictException("Another reprocessing job is running");
+        }
+
+        ReprocessingJob job = transactionTemplate.execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            ReprocessingJob created = jobRepository.save(ReprocessingJob.builder()
+                    .status(ReprocessingStatus.RUNNING)
+                    .changeDescription(changeDescription)
+                    .concurrency(Math.max(1, concurrency != null ? concurrency : properties.getConcurrency()))
+                    .documentsPerSecond(Math.max(0, documentsPerSecond != null
+                            ? documentsPerSecond : properties.getDocumentsPerSecond()))
+                    .totalDocuments(documentRepository.count())
+                    .createdAt(now)
+                    .startedAt(now)
+                    .build());
+            partitionRepository.saveAll(partitions(created.getId(), documentRepository.findMinId(),
+                    documentRepository.findMaxId(), properties.getPartitionSize()));
+            return created;
+        });
+        log.info("Starting reprocessing job {} over {} documents ({})", job.getId(), job.getTotalDocuments(),
+                changeDescription);
+        launch(job);
+        return progress(job.getId());
+    }
+
+    /**
+     * Stops a running job after the documents in progress. Its checkpoints are kept.
+     *
+     * @param jobId The ID of the job.
+     * @return The progress of the job.
+     * @throws ReprocessingJobNotFoundException if the job does not exist.
+     * @throws ReprocessingConflictException if the job is not running.
+     */
+    public synchronized ReprocessingProgress pause(Long jobId) {
+        ReprocessingJob job = findJob(jobId);
+        if (job.getStatus() != ReprocessingStatus.RUNNING) {
+            throw new ReprocessingConflictException("Reprocessing job " + jobId + " is " + job.getStatus());
+        }
+        Run run = runs.get(jobId);
+        if (run != null) {
+            run.stop();
+        }
+        job.setStatus(ReprocessingStatus.PAUSED);
+        jobRepository.save(job);
+        return progress(jobId);
+    }
+
+    /**
+     * Continues a paused job from its checkpoints, or a running job that is not active on this node,
+     * e.g. because resuming on startup is disabled.
+     *
+     * @param jobId The ID of the job.
+     * @return The progress of the job.
+     * @throws ReprocessingJobNotFoundException if the job does not exist.
+     * @throws ReprocessingConflictException if the job is completed or already active, or another job is running.
+     */
+    public synchronized ReprocessingProgress resume(Long jobId) {
+        ReprocessingJob job = findJob(jobId);
+        if (job.getStatus() == ReprocessingStatus.COMPLETED || runs.containsKey(jobId)) {
+            throw new ReprocessingConflictException("Reprocessing job " + jobId + " is " + job.getStatus());
+        }
+        boolean otherRunning = jobRepository.findByStatus(ReprocessingStatus.RUNNING).stream()
+                .anyMatch(other -> !other.getId().equals(jobId));
+        if (otherRunning) {
+            throw new ReprocessingConflictException("Another reprocessing job is running");
+        }
+        job.setStatus(ReprocessingStatus.RUNNING);
+        job.setStartedAt(LocalDateTime.now());
+        launch(jobRepository.save(job));
+        return progress(jobId);
+    }
+
+    /**
+     * @return The progress of all jobs, newest first.
+     */
+    public List<ReprocessingProgress> jobs() {
+        return jobRepository.findAllByOrderByIdDesc().stream().map(this::progressOf).toList();
+    }
+
+    /**
+     * @param jobId The ID of the job.
+     * @return The progress of the job.
+     * @throws ReprocessingJobNotFoundException if the job does not exist.
+     */
+    public ReprocessingProgress progress(Long jobId) {
+        return progressOf(findJob(jobId));
+    }
+
+    /**
+     * Splits the ID range into partitions of equal width.
+     */
+    static List<ReprocessingPartition> partitions(Long jobId, Long minId, Long maxId, long partitionSize) {
+        List<ReprocessingPartition> partitions = new ArrayList<>();
+        if (minId == null || maxId == null) {
+            return partitions;
+        }
+        long size = Math.max(1, partitionSize);
+        for (long start = minId; start <= maxId; start += size) {
+            long end = Math.min(maxId, start + size - 1);
+            partitions.add(ReprocessingPartition.builder()
+                    .jobId(jobId)
+                    .startId(start)
+                    .endId(end)
+                    .lastProcessedId(start - 1)
+                    .build());
+            if (end == maxId) {
+                break;
+            }
+        }
+        return partitions;
+    }
+
+    private void launch(ReprocessingJob job) {
+        Run run = new Run(job);
+        runs.put(job.getId(), run);
+        long unfinished = partitionRepository.countByJobIdAndCompletedFalse(job.getId());
+        int workers = (int) Math.max(1, Math.min(job.getConcurrency(), unfinished));
+        run.activeWorkers.set(workers);
+        for (int i = 0; i < workers; i++) {
+            Thread.ofVirtual().name("reprocessing-" + job.getId() + "-" + i).start(() -> work(run));
+        }
+    }
+
+    private void work(Run run) {
+        try {
+            ReprocessingPartition partition;
+            while ((partition = claimNext(run)) != null) {
+                processPartition(run, partition);
+            }
+        } catch (InterruptedException e) {
+            run.stop();
+        } catch (Exception e) {
+            // Most likely the database is unavailable; the job can be resumed from its checkpoints
+            log.error("Reprocessing job {} stopped", run.jobId, e);
+            run.failed = true;
+            run.stop();
+        } finally {
+            if (run.activeWorkers.decrementAndGet() == 0) {
+                finish(run);
+            }
+        }
+    }
+
+    /**
+     * Takes the lease on the next unfinished partition of the job. If other nodes hold all remaining
+     * partitions, waits until one of them becomes claimable or is completed.
+     *
+     * @return The claimed partition, or null if there is none left or the run was stopped.
+     */
+    ReprocessingPartition claimNext(Run run) throws InterruptedException {
+        while (!run.stopping) {
+            LocalDateTime now = LocalDateTime.now();
+            for (Long id : partitionRepository.findClaimableIds(run.jobId, now)) {
+                if (partitionRepository.claim(id, owner, now, now.plus(properties.getLeaseDuration())) == 1) {
+                    return partitionRepository.findById(id).orElseThrow();
+                }
+            }
+            boolean running = jobRepository.findById(run.jobId)
+                    .map(job -> job.getStatus() == ReprocessingStatus.RUNNING)
+                    .orElse(false);
+            if (!running || partitionRepository.countByJobIdAndCompletedFalse(run.jobId) == 0) {
+                return null;
+            }
+            run.stopped.await(CLAIM_RETRY_INTERVAL.toMillis(), TimeUnit.MILLISECONDS);
+        }
+        return null;
+    }
+
+    /**
+     * Works through a claimed partition from its checkpoint, then completes it or, if the run was
+     * stopped or the lease lost, gives up the lease so the partition can be claimed again right away.
+     */
+    void processPartition(Run run, ReprocessingPartition partition) throws InterruptedException {
+        if (workThrough(run, partition)) {
+            partitionRepository.markCompleted(partition.getId(), owner);
+        } else {
+            partitionRepository.release(partition.getId(), owner);
+        }
+    }
+
+    private boolean workThrough(Run run, ReprocessingPartition partition) throws InterruptedException {
+        long after = partition.getLastProcessedId();
+        while (!run.stopping) {
+            List<Long> documentIds = documentRepository.findIdsInRange(after, partition.getEndId(),
+                    PageRequest.of(0, Math.max(1, properties.getBatchSize())));
+            if (documentIds.isEmpty()) {
+                return true;
+            }
+            for (Long documentId : documentIds) {
+                if (run.stopping) {
+                    return false;
+                }
+                if (run.rateLimit != null) {
+                    run.rateLimit.acquire(1);
+                }
+                try (AdmissionController.Permit permit = admissionController.acquireBackground()) {
+                    if (!process(run, partition, documentId)) {
+                        log.info("Reprocessing job {} gave up partition {}: lease lost or job no longer running",
+                                run.jobId, partition.getId());
+                        return false;
+                    }
+                }
+                after = documentId;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return false if the checkpoint was rejected and the document's result rolled back.
+     */
+    private boolean process(Run run, ReprocessingPartition partition, Long documentId) {
+        Document document = documentRepository.findById(documentId).orElse(null);
+        String text = null;
+        boolean failed = false;
+        if (document != null) {
+            try {
+                // The embeddings are not stored anywhere yet, so only the text is kept
+                text = workerService.processDocument(storageService.load(document.getFilePath())).getExtractedText();
+            } catch (RuntimeException e) {
+                log.warn("Reprocessing job {} could not process document {}", run.jobId, documentId, e);
+                failed = true;
+            }
+        }
+
+        String extractedText = text;
+        boolean processingFailed = failed;
+        Document updated;
+        try {
+            updated = transactionTemplate.execute(status -> {
+                // Reloaded, so edits made while the pipeline ran are not overwritten with stale fields
+                Document current = processingFailed ? null : documentRepository.findById(documentId).orElse(null);
+                boolean changed = current != null && extractedText != null && !extractedText.isBlank()
+                        && !Objects.equals(extractedText, current.getContent());
+                if (changed) {
+                    Integer latestVersion = documentHistoryRepository.findLatestVersionNumber(documentId);
+                    documentHistoryRepository.save(DocumentHistory.builder()
+                            .documentId(documentId)
+                            .versionNumber(latestVersion == null ? 1 : latestVersion + 1)
+                            .content(extractedText)
+                            .filePath(current.getFilePath())
+                            .changeDescription(run.changeDescription)
+                            .createdAt(LocalDateTime.now())
+                            .build());
+                    current.setContent(extractedText);
+                    current.setUpdatedAt(LocalDateTime.now());
+                    current = documentRepository.save(current);
+                    documentChangeFeed.record(DocumentChangeType.UPDATED, current);
+                }
+                int advanced = partitionRepository.checkpoint(partition.getId(), owner, documentId,
+                        changed ? 1 : 0, processingFailed ? 1 : 0,
+                        LocalDateTime.now().plus(properties.getLeaseDuration()));
+                if (advanced == 0) {
+                    // Another node owns the partition now, or the job was paused; it must not get a
+                    // second version of the document
+                    throw new CheckpointRejectedException();
+                }
+                return changed ? current : null;
+            });
+        } catch (CheckpointRejectedException e) {
+            return false;
+        }
+        run.processed.incrementAndGet();
+
+        if (processingFailed) {
+            failedDocuments.increment();
+        } else if (updated != null) {
+            updatedDocuments.increment();
+            documentCache.evict(documentId);
+            nearDuplicateService.index(updated);
+        } else {
+            unchangedDocuments.increment();
+            if (document != null) {
+                // Backfills signatures of documents processed before duplicate detection existed
+                nearDuplicateService.index(document);
+            }
+        }
+        return true;
+    }
+
+    private synchronized void finish(Run run) {
+        runs.remove(run.jobId, run);
+        ReprocessingJob job = jobRepository.findById(run.jobId).orElse(null);
+        if (job == null || job.getStatus() != ReprocessingStatus.RUNNING) {
+            return;
+        }
+        if (run.failed) {
+            job.setStatus(ReprocessingStatus.PAUSED);
+            jobRepository.save(job);
+        } else if (!run.stopping
+                && partitionRepository.findByJobIdAndCompletedFalseOrderByStartId(run.jobId).isEmpty()) {
+            job.setStatus(ReprocessingStatus.COMPLETED);
+            job.setCompletedAt(LocalDateTime.now());
+            jobRepository.save(job);
+            log.info("Reprocessing job {} completed", run.jobId);
+        }
+    }
+
+    private ReprocessingProgress progressOf(ReprocessingJob job) {
+        List<ReprocessingPartition> partitions = partitionRepository.findByJobIdOrderByStartId(job.getId());
+        long processed = partitions.stream().mapToLong(ReprocessingPartition::getProcessed).sum();
+        long updated = partitions.stream().mapToLong(ReprocessingPartition::getUpdated).sum();
+        long failed = partitions.stream().mapToLong(ReprocessingPartition::getFailed).sum();
+        int completed = (int) partitions.stream().filter(ReprocessingPartition::isCompleted).count();
+
+        double throughput = 0;
+        Long eta = null;
+        Run run = runs.get(job.getId());
+        if (run != null) {
+            double elapsedSeconds = (System.nanoTime() - run.startNanos) / 1e9;
+            throughput = elapsedSeconds > 0 ? run.processed.get() / elapsedSeconds : 0;
+            if (throughput > 0) {
+                eta = (long) Math.ceil(Math.max(0, job.getTotalDocuments() - processed) / throughput);
+            }
+        }
+        return new ReprocessingProgress(job.getId(), job.getStatus(), job.getChangeDescription(),
+                job.getTotalDocuments(), processed, updated, failed, partitions.size(), completed, throughput, eta,
+                job.getCreatedAt(), job.getStartedAt(), job.getCompletedAt());
+    }
+
+    private ReprocessingJob findJob(Long jobId) {
+        return jobRepository.findById(jobId)
+                .orElseThrow(() -> new ReprocessingJobNotFoundException(
+                        "Reprocessing job not found with ID: " + jobId));
+    }
+
+    private static Counter documentCounter(String outcome, MeterRegistry meterRegistry) {
+        return Counter.builder("paperbridge.reprocessing.documents")
+                .description("Documents processed by reprocessing jobs")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    /**
+     * A job being worked on by this node. The rate limit applies to this node's threads.
+     */
+    static final class Run {
+        final Long jobId;
+        final String changeDescription;
+        final TokenBucket rateLimit;
+        final AtomicInteger activeWorkers = new AtomicInteger();
+        final AtomicLong processed = new AtomicLong();
+        final CountDownLatch stopped = new CountDownLatch(1);
+        final long startNanos = System.nanoTime();
+        volatile boolean stopping;
+        volatile boolean failed;
+
+        Run(ReprocessingJob job) {
+            this.jobId = job.getId();
+            this.changeDescription = job.getChangeDescription();
+            this.rateLimit = job.getDocumentsPerSecond() > 0
+                    ? new TokenBucket(job.getDocumentsPerSecond(), Math.max(1, job.getDocumentsPerSecond()))
+                    : null;
+        }
+
+        /**
+         * Lets the threads finish their current document and wakes those waiting for a partition.
+         */
+        void stop() {
+            stopping = true;
+            stopped.countDown();
+        }
+    }
+
+    /**
+     * Rolls back a document's result when its partition's checkpoint is rejected.
+     */
+    private static final class CheckpointRejectedException extends RuntimeException {
+        CheckpointRejectedException() {
+            super(null, null, false, false);
+        }
+    }
+}
+
+
+/**
+ * Thrown when a reprocessing job does not exist.
+ */
+@ResponseStatus(HttpStatus.NOT_FOUND)
+class ReprocessingJobNotFoundException extends RuntimeException {
+    public ReprocessingJobNotFoundException(String message) {
+        super(message);
+    }
+}
+
+
+/**
+ * Thrown when a reprocessing job cannot change to the requested state, e.g. because another job is
+ * already running.
+ */
+@ResponseStatus(HttpStatus.CONFLICT)
+class ReprocessingConflictException extends RuntimeException {
+    public ReprocessingConflictException(String message) {
+        super(message);
+    }
+}
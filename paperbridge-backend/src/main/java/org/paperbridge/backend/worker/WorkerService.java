@@ -1,10 +1,14 @@
 package org.paperbridge.backend.worker;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
 import java.nio.file.Path;
 import java.util.List;
+import java.util.function.Supplier;
 
 /**
  * Main worker service that coordinates image manipulation, OCR, and embedding generation.
@@ -17,6 +21,7 @@ public class WorkerService {
     private final ImageManipulationService imageManipulationService;
     private final OcrService ocrService;
     private final EmbeddingService embeddingService;
+    private final MeterRegistry meterRegistry;
 
     /**
      * Processes a document through the complete worker pipeline:
@@ -29,9 +34,9 @@ public class WorkerService {
      */
     public ProcessedDocument processDocument(Path documentPath) {
         // TODO: Implement complete document processing pipeline
-        Path processedImage = imageManipulationService.processImage(documentPath);
-        String extractedText = ocrService.extractText(processedImage);
-        List<Float> embeddings = embeddingService.generateEmbedding(extractedText);
+        Path processedImage = timeStage("image", () -> imageManipulationService.processImage(documentPath));
+        String extractedText = timeStage("ocr", () -> ocrService.extractText(processedImage));
+        List<Float> embeddings = timeStage("embedding", () -> embeddingService.generateEmbedding(extractedText));
 
         return ProcessedDocument.builder()
                 .processedImagePath(processedImage)
@@ -40,6 +45,33 @@ public class WorkerService {
                 .build();
     }
 
+    /**
+     * Runs one pipeline stage, recording its duration as {@code paperbridge.worker.stage} and
+     * counting failures as {@code paperbridge.worker.failures}.
+     */
+    private <T> T timeStage(String stage, Supplier<T> work) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "success";
+        try {
+            return work.get();
+        } catch (RuntimeException e) {
+            outcome = "failure";
+            Counter.builder("paperbridge.worker.failures")
+                    .description("Failed worker pipeline stages")
+                    .tag("stage", stage)
+                    .tag("exception", e.getClass().getSimpleName())
+                    .register(meterRegistry)
+                    .increment();
+            throw e;
+        } finally {
+            sample.stop(Timer.builder("paperbridge.worker.stage")
+                    .description("Duration of worker pipeline stages")
+                    .tag("stage", stage)
+                    .tag("outcome", outcome)
+                    .register(meterRegistry));
+        }
+    }
+
     /**
      * Data class representing the result of document processing.
      */
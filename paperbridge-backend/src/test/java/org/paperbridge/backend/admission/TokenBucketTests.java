@@ -0,0 +1,64 @@
+package org.paperbridge.backend.admission;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TokenBucketTests {
+
+	private final AtomicLong now = new AtomicLong();
+
+	@Test
+	void allowsBurstUpToCapacity() {
+		TokenBucket bucket = new TokenBucket(1, 3, now::get);
+
+		assertThat(bucket.tryAcquire(1)).isZero();
+		assertThat(bucket.tryAcquire(1)).isZero();
+		assertThat(bucket.tryAcquire(1)).isZero();
+		assertThat(bucket.tryAcquire(1)).isPositive();
+	}
+
+	@Test
+	void reportsTimeUntilNextToken() {
+		TokenBucket bucket = new TokenBucket(2, 1, now::get);
+		bucket.tryAcquire(1);
+
+		assertThat(bucket.tryAcquire(1)).isEqualTo(TimeUnit.MILLISECONDS.toNanos(500));
+	}
+
+	@Test
+	void refillsAtTheConfiguredRate() {
+		TokenBucket bucket = new TokenBucket(10, 10, now::get);
+		for (int i = 0; i < 10; i++) {
+			bucket.tryAcquire(1);
+		}
+
+		now.addAndGet(TimeUnit.MILLISECONDS.toNanos(300));
+
+		assertThat(bucket.tryAcquire(3)).isZero();
+		assertThat(bucket.tryAcquire(1)).isPositive();
+	}
+
+	@Test
+	void neverAccumulatesMoreThanCapacity() {
+		TokenBucket bucket = new TokenBucket(100, 5, now::get);
+
+		now.addAndGet(TimeUnit.SECONDS.toNanos(60));
+
+		assertThat(bucket.tryAcquire(5)).isZero();
+		assertThat(bucket.tryAcquire(1)).isPositive();
+	}
+
+	@Test
+	void grantsOversizedRequestsFromAFullBucketAndGoesIntoDebt() {
+		TokenBucket bucket = new TokenBucket(10, 10, now::get);
+
+		assertThat(bucket.tryAcquire(30)).isZero();
+
+		// 20 tokens of debt plus one token take 2.1 seconds to earn back
+		assertThat(bucket.tryAcquire(1)).isEqualTo(TimeUnit.MILLISECONDS.toNanos(2100));
+	}
+}
@@ -0,0 +1,140 @@
+package org.paperbridge.backend.document.cache;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.paperbridge.backend.document.model.Document;
+import org.paperbridge.backend.document.repository.DocumentHistoryRepository;
+import org.paperbridge.backend.document.repository.DocumentRepository;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.HashSet;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class DocumentCacheTests {
+
+	private final DocumentRepository documentRepository = mock(DocumentRepository.class);
+	private final DocumentHistoryRepository documentHistoryRepository = mock(DocumentHistoryRepository.class);
+	private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+	private final InMemoryCacheInvalidationBus bus = new InMemoryCacheInvalidationBus();
+
+	private DocumentCache first;
+	private DocumentCache second;
+
+	@BeforeEach
+	void setUp() {
+		// Two nodes: separate caches, one bus
+		first = newNode();
+		second = newNode();
+	}
+
+	@Test
+	void servesRepeatedLookupsFromTheCache() {
+		when(documentRepository.findById(1L)).thenReturn(Optional.of(document(1L, "v1")));
+
+		first.findDocument(1L);
+		first.findDocument(1L);
+
+		verify(documentRepository, times(1)).findById(1L);
+	}
+
+	@Test
+	void evictionOnOneNodeDropsTheEntryOnTheOther() {
+		when(documentRepository.findById(1L)).thenReturn(Optional.of(document(1L, "v1")));
+		assertThat(first.findDocument(1L)).map(Document::getTitle).contains("v1");
+		assertThat(second.findDocument(1L)).map(Document::getTitle).contains("v1");
+
+		when(documentRepository.findById(1L)).thenReturn(Optional.of(document(1L, "v2")));
+		first.evict(1L);
+
+		assertThat(second.findDocument(1L)).map(Document::getTitle).contains("v2");
+		assertThat(first.findDocument(1L)).map(Document::getTitle).contains("v2");
+	}
+
+	@Test
+	void evictionDropsCachedAbsence() {
+		when(documentRepository.findById(2L)).thenReturn(Optional.empty());
+		assertThat(second.exists(2L)).isFalse();
+
+		when(documentRepository.findById(2L)).thenReturn(Optional.of(document(2L, "created")));
+		first.evict(2L);
+
+		assertThat(second.exists(2L)).isTrue();
+	}
+
+	@Test
+	void evictionWaitsForARacingLoad() throws Exception {
+		CountDownLatch loading = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		AtomicReference<String> stored = new AtomicReference<>("v1");
+		when(documentRepository.findById(1L)).thenAnswer(invocation -> {
+			// Reads the old state, then stalls before it is cached
+			Document document = document(1L, stored.get());
+			loading.countDown();
+			release.await(5, TimeUnit.SECONDS);
+			return Optional.of(document);
+		});
+
+		CompletableFuture<Optional<Document>> load = CompletableFuture.supplyAsync(() -> second.findDocument(1L));
+		assertThat(loading.await(5, TimeUnit.SECONDS)).isTrue();
+
+		// The writer commits v2 and evicts while the stale load is still running
+		stored.set("v2");
+		CompletableFuture<Void> eviction = CompletableFuture.runAsync(() -> first.evict(1L));
+		Thread.sleep(100);
+		assertThat(eviction).isNotDone();
+
+		release.countDown();
+		assertThat(load.get(5, TimeUnit.SECONDS)).map(Document::getTitle).contains("v1");
+		eviction.get(5, TimeUnit.SECONDS);
+
+		assertThat(second.findDocument(1L)).map(Document::getTitle).contains("v2");
+	}
+
+	@Test
+	void evictAllDropsEverything() {
+		CacheInvalidationListener[] listener = new CacheInvalidationListener[1];
+		CacheInvalidationBus reconnectingBus = new CacheInvalidationBus() {
+			@Override
+			public void publish(Long documentId) {
+			}
+
+			@Override
+			public void subscribe(CacheInvalidationListener subscriber) {
+				listener[0] = subscriber;
+			}
+		};
+		DocumentCache node = new DocumentCache(documentRepository, documentHistoryRepository, reconnectingBus,
+				new CaffeineCacheManager(DocumentCache.DOCUMENTS, DocumentCache.DOCUMENT_HISTORY), transactionManager);
+		node.init();
+		when(documentRepository.findById(1L)).thenReturn(Optional.of(document(1L, "v1")));
+		node.findDocument(1L);
+
+		// What the bus does after it lost its connection and may have missed invalidations
+		listener[0].evictAll();
+		node.findDocument(1L);
+
+		verify(documentRepository, times(2)).findById(1L);
+	}
+
+	private DocumentCache newNode() {
+		DocumentCache cache = new DocumentCache(documentRepository, documentHistoryRepository, bus,
+				new CaffeineCacheManager(DocumentCache.DOCUMENTS, DocumentCache.DOCUMENT_HISTORY), transactionManager);
+		cache.init();
+		return cache;
+	}
+
+	private static Document document(Long id, String title) {
+		return Document.builder().id(id).title(title).filePath("doc-" + id + ".pdf").tags(new HashSet<>()).build();
+	}
+}
@@ -0,0 +1,56 @@
+package org.paperbridge.backend.document.cache;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.paperbridge.backend.config.DocumentCacheProperties;
+
+import javax.sql.DataSource;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+class PostgresCacheInvalidationBusTests {
+
+	private final CacheInvalidationListener listener = mock(CacheInvalidationListener.class);
+
+	private PostgresCacheInvalidationBus bus;
+
+	@BeforeEach
+	void setUp() {
+		bus = new PostgresCacheInvalidationBus(mock(DataSource.class), new DocumentCacheProperties());
+		bus.subscribe(listener);
+	}
+
+	@Test
+	void passesOnInvalidationsFromOtherNodes() {
+		bus.dispatch("another-node:42");
+
+		verify(listener).evict(42L);
+	}
+
+	@Test
+	void ignoresItsOwnNotifications() {
+		bus.dispatch(bus.nodeId() + ":42");
+
+		verifyNoInteractions(listener);
+	}
+
+	@Test
+	void ignoresMalformedNotifications() {
+		bus.dispatch("no separator");
+		bus.dispatch("another-node:not-a-number");
+
+		verifyNoInteractions(listener);
+	}
+
+	@Test
+	void rejectsChannelNamesThatCannotBeUsedInListen() {
+		DocumentCacheProperties properties = new DocumentCacheProperties();
+		properties.setChannel("cache; DROP TABLE document");
+
+		assertThatThrownBy(() -> new PostgresCacheInvalidationBus(mock(DataSource.class), properties))
+				.isInstanceOf(IllegalArgumentException.class);
+	}
+}
@@ -0,0 +1,83 @@
+package org.paperbridge.backend.document.change;
+
+import org.junit.jupiter.api.Test;
+import org.paperbridge.backend.document.model.Document;
+import org.paperbridge.backend.document.model.DocumentChange;
+import org.paperbridge.backend.document.model.DocumentChangeType;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DocumentChangeFeedTests {
+
+	private static final LocalDateTime SETTLED_BEFORE = LocalDateTime.of(2024, 1, 1, 12, 0);
+
+	@Test
+	void servesContiguousChanges() {
+		List<DocumentChange> changes = List.of(young(4), young(5), young(6));
+
+		assertThat(DocumentChangeFeed.committedPrefix(3, changes, SETTLED_BEFORE)).isEqualTo(changes);
+	}
+
+	@Test
+	void stopsAtGapThatMayStillCommit() {
+		// 5 was handed out but its transaction has not committed yet
+		List<DocumentChange> changes = List.of(young(4), young(6), young(7));
+
+		assertThat(DocumentChangeFeed.committedPrefix(3, changes, SETTLED_BEFORE))
+				.extracting(DocumentChange::getSequence)
+				.containsExactly(4L);
+	}
+
+	@Test
+	void stopsAtGapRightAfterToken() {
+		assertThat(DocumentChangeFeed.committedPrefix(3, List.of(young(5)), SETTLED_BEFORE)).isEmpty();
+	}
+
+	@Test
+	void skipsSettledGaps() {
+		// 5 was rolled back long ago; the young gap at 8 still holds back 9
+		List<DocumentChange> changes = List.of(old(4), old(6), young(7), young(9));
+
+		assertThat(DocumentChangeFeed.committedPrefix(3, changes, SETTLED_BEFORE))
+				.extracting(DocumentChange::getSequence)
+				.containsExactly(4L, 6L, 7L);
+	}
+
+	@Test
+	void summaryTruncatesContent() {
+		Document document = Document.builder()
+				.id(1L)
+				.title("Invoice")
+				.filePath("a/invoice.pdf")
+				.content("x".repeat(DocumentSummary.PREVIEW_LENGTH + 50))
+				.tags(Set.of("tax"))
+				.build();
+
+		DocumentSummary summary = DocumentSummary.of(document);
+
+		assertThat(summary.contentPreview()).hasSize(DocumentSummary.PREVIEW_LENGTH);
+		assertThat(summary.tags()).containsExactly("tax");
+		assertThat(DocumentSummary.of(null)).isNull();
+	}
+
+	private static DocumentChange young(long sequence) {
+		return change(sequence, SETTLED_BEFORE.plusSeconds(1));
+	}
+
+	private static DocumentChange old(long sequence) {
+		return change(sequence, SETTLED_BEFORE.minusMinutes(1));
+	}
+
+	private static DocumentChange change(long sequence, LocalDateTime occurredAt) {
+		return DocumentChange.builder()
+				.sequence(sequence)
+				.documentId(sequence)
+				.changeType(DocumentChangeType.UPDATED)
+				.occurredAt(occurredAt)
+				.build();
+	}
+}
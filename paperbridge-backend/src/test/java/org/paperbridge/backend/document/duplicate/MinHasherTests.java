@@ -0,0 +1,70 @@
+package org.paperbridge.backend.document.duplicate;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MinHasherTests {
+
+	private static final String LETTER = """
+			Dear Mr. Smith, we hereby confirm receipt of your invoice no. 2024-1187 dated March 3rd
+			for the maintenance of the heating system at Main Street 12. The amount of 1,240.00 EUR
+			will be transferred within thirty days. Please do not hesitate to contact us with any
+			questions regarding this payment. Kind regards, the accounting department""";
+
+	private final MinHasher minHasher = new MinHasher(5, 128);
+
+	@Test
+	void normalizesCaseAndPunctuation() {
+		assertThat(MinHasher.normalize("  Invoice No. 42,\n PAID! ")).isEqualTo("invoice no 42 paid");
+		assertThat(MinHasher.normalize(null)).isEmpty();
+	}
+
+	@Test
+	void identicalTextsHaveIdenticalSignatures() {
+		assertThat(minHasher.signature(LETTER)).isEqualTo(minHasher.signature(LETTER.toUpperCase()));
+		assertThat(MinHasher.similarity(minHasher.signature(LETTER), minHasher.signature(LETTER))).isEqualTo(1.0);
+	}
+
+	@Test
+	void ocrErrorsKeepTextsSimilar() {
+		String rescan = LETTER.replace("receipt", "rece1pt").replace("heating", "heatinq").replace("Kind", "Klnd");
+
+		assertThat(MinHasher.similarity(minHasher.signature(LETTER), minHasher.signature(rescan))).isGreaterThan(0.8);
+	}
+
+	@Test
+	void unrelatedTextsAreDissimilar() {
+		String other = "Minutes of the annual general meeting of the allotment association, held on a rainy "
+				+ "Sunday afternoon; the board presented the budget for new fences and a shared tool shed.";
+
+		assertThat(MinHasher.similarity(minHasher.signature(LETTER), minHasher.signature(other))).isLessThan(0.2);
+	}
+
+	@Test
+	void similarTextsShareABandKey() {
+		String rescan = LETTER.replace("receipt", "rece1pt");
+		List<Long> keys = toList(MinHasher.bandKeys(minHasher.signature(LETTER), 16));
+
+		assertThat(toList(MinHasher.bandKeys(minHasher.signature(rescan), 16))).containsAnyElementsOf(keys);
+	}
+
+	@Test
+	void shortTextsHaveNoSignature() {
+		assertThat(minHasher.signature("ab c")).isNull();
+		assertThat(minHasher.signature("   ")).isNull();
+	}
+
+	@Test
+	void rejectsBandsNotDividingTheSignature() {
+		assertThatThrownBy(() -> MinHasher.bandKeys(new int[128], 10)).isInstanceOf(IllegalArgumentException.class);
+	}
+
+	private static List<Long> toList(long[] values) {
+		return Arrays.stream(values).boxed().toList();
+	}
+}
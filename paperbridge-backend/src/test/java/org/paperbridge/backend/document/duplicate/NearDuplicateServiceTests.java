@@ -0,0 +1,99 @@
+package org.paperbridge.backend.document.duplicate;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.paperbridge.backend.config.DuplicateProperties;
+import org.paperbridge.backend.document.model.Document;
+import org.paperbridge.backend.document.model.DocumentSignature;
+import org.paperbridge.backend.document.repository.DocumentRepository;
+import org.paperbridge.backend.document.repository.DocumentSignatureBandRepository;
+import org.paperbridge.backend.document.repository.DocumentSignatureRepository;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.sql.DataSource;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class NearDuplicateServiceTests {
+
+	private static final String LETTER = """
+			Dear Mr. Smith, we hereby confirm receipt of your invoice no. 2024-1187 dated March 3rd
+			for the maintenance of the heating system at Main Street 12. The amount of 1,240.00 EUR
+			will be transferred within thirty days. Please do not hesitate to contact us with any
+			questions regarding this payment. Kind regards, the accounting department""";
+
+	private static final String OTHER = """
+			Minutes of the annual general meeting of the allotment association, held on a rainy
+			Sunday afternoon; the board presented the budget for new fences and a shared tool shed.""";
+
+	private final MinHasher minHasher = new MinHasher(5, 128);
+	private final DocumentRepository documentRepository = mock(DocumentRepository.class);
+	private final DocumentSignatureRepository signatureRepository = mock(DocumentSignatureRepository.class);
+	private final DocumentSignatureBandRepository bandRepository = mock(DocumentSignatureBandRepository.class);
+	private final NearDuplicateService service = new NearDuplicateService(new DuplicateProperties(), documentRepository,
+			signatureRepository, bandRepository, mock(DataSource.class), mock(PlatformTransactionManager.class),
+			new SimpleMeterRegistry());
+
+	@Test
+	void groupsConnectedNearDuplicates() {
+		String rescan = LETTER.replace("receipt", "rece1pt");
+
+		List<List<Integer>> groups = NearDuplicateService.group(List.of(minHasher.signature(LETTER),
+				minHasher.signature(OTHER), minHasher.signature(rescan)), 16, 0.8);
+
+		assertThat(groups).hasSize(1);
+		assertThat(groups.getFirst()).containsExactlyInAnyOrder(0, 2);
+	}
+
+	@Test
+	void encodesSignaturesCompactly() {
+		int[] signature = minHasher.signature(LETTER);
+		byte[] encoded = NearDuplicateService.encode(signature);
+
+		assertThat(encoded).hasSize(512);
+		assertThat(NearDuplicateService.decode(encoded)).isEqualTo(signature);
+	}
+
+	@Test
+	void indexLocksTheDocumentBeforeReadingItsSignature() {
+		Document document = document(1L);
+		when(documentRepository.lockById(1L)).thenReturn(Optional.of(1L));
+		when(signatureRepository.findById(1L)).thenReturn(Optional.of(new DocumentSignature(1L,
+				NearDuplicateService.encode(minHasher.signature(LETTER)), LocalDateTime.now())));
+
+		service.index(document);
+
+		InOrder order = inOrder(documentRepository, signatureRepository);
+		order.verify(documentRepository).lockById(1L);
+		order.verify(signatureRepository).findById(1L);
+		// Unchanged signature; the band rows are left alone
+		verify(bandRepository, never()).deleteByDocumentId(anyLong());
+		verify(signatureRepository, never()).save(any());
+	}
+
+	@Test
+	void indexSkipsDocumentsDeletedInTheMeantime() {
+		when(documentRepository.lockById(1L)).thenReturn(Optional.empty());
+
+		service.index(document(1L));
+
+		verify(signatureRepository, never()).findById(anyLong());
+		verify(bandRepository, never()).deleteByDocumentId(anyLong());
+		verify(signatureRepository, never()).save(any());
+	}
+
+	private static Document document(Long id) {
+		return Document.builder().id(id).content(LETTER).build();
+	}
+}
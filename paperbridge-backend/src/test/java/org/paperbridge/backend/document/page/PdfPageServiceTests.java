@@ -0,0 +1,194 @@
+package org.paperbridge.backend.document.page;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.paperbridge.backend.admission.AdmissionController;
+import org.paperbridge.backend.config.AdmissionProperties;
+import org.paperbridge.backend.config.PageProperties;
+import org.paperbridge.backend.config.StorageProperties;
+import org.paperbridge.backend.document.model.Document;
+import org.paperbridge.backend.document.storage.FilesystemStorageService;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PdfPageServiceTests {
+
+	@TempDir
+	Path storage;
+
+	@TempDir
+	Path cache;
+
+	private PageProperties properties;
+	private PdfPageService service;
+
+	@BeforeEach
+	void setUp() {
+		properties = new PageProperties();
+		properties.setCacheLocation(cache.toString());
+		properties.setMaxDpi(150);
+		properties.setDpiSteps(List.of(72, 96, 150, 300));
+		service = newService();
+	}
+
+	@AfterEach
+	void tearDown() {
+		service.shutdown();
+	}
+
+	@Test
+	void countsPagesAndReportsTheirSize() throws IOException {
+		Document document = pdf("three.pdf", PDRectangle.A4, PDRectangle.LETTER, PDRectangle.A4);
+
+		DocumentPages pages = service.describe(document);
+
+		assertThat(pages.pageCount()).isEqualTo(3);
+		assertThat(pages.pages()).extracting(PageInfo::pageNumber).containsExactly(1, 2, 3);
+		assertThat(pages.pages().get(1).width()).isEqualTo(PDRectangle.LETTER.getWidth());
+		assertThat(pages.pages().get(1).height()).isEqualTo(PDRectangle.LETTER.getHeight());
+	}
+
+	@Test
+	void rendersPagesAtTheRequestedResolution() throws IOException {
+		Document document = pdf("letter.pdf", PDRectangle.LETTER);
+
+		BufferedImage image = ImageIO.read(service.renderPage(document, 1, 72).toFile());
+
+		// 8.5 x 11 inches at 72 dpi
+		assertThat(image.getWidth()).isEqualTo(612);
+		assertThat(image.getHeight()).isEqualTo(792);
+	}
+
+	@Test
+	void roundsResolutionsToDpiSteps() throws IOException {
+		Document document = pdf("letter.pdf", PDRectangle.LETTER);
+
+		Path first = service.renderPage(document, 1, 80);
+
+		assertThat(service.renderPage(document, 1, 96)).isEqualTo(first);
+		assertThat(first.getFileName().toString()).isEqualTo("page-1@96.png");
+		// Steps above the maximum are not offered
+		assertThat(service.renderPage(document, 1, 1000).getFileName().toString()).isEqualTo("page-1@150.png");
+		assertThat(service.renderPage(document, 1, 1).getFileName().toString()).isEqualTo("page-1@72.png");
+	}
+
+	@Test
+	void resolvesDpiToTheNextStep() {
+		List<Integer> steps = List.of(72, 96, 150);
+
+		assertThat(PdfPageService.resolveDpi(1, steps)).isEqualTo(72);
+		assertThat(PdfPageService.resolveDpi(96, steps)).isEqualTo(96);
+		assertThat(PdfPageService.resolveDpi(97, steps)).isEqualTo(150);
+		assertThat(PdfPageService.resolveDpi(600, steps)).isEqualTo(150);
+	}
+
+	@Test
+	void rejectsPagesOutsideTheDocument() throws IOException {
+		Document document = pdf("one.pdf", PDRectangle.A4);
+
+		assertThatThrownBy(() -> service.renderPage(document, 2, null)).isInstanceOf(PageNotFoundException.class);
+		assertThatThrownBy(() -> service.extractPage(document, 0)).isInstanceOf(PageNotFoundException.class);
+	}
+
+	@Test
+	void createsNoCacheDirectoryForOtherFiles() throws IOException {
+		Files.writeString(storage.resolve("note.txt"), "not a pdf");
+		Document document = Document.builder().id(7L).filePath("note.txt").build();
+
+		assertThatThrownBy(() -> service.describe(document)).isInstanceOf(UnsupportedPageFormatException.class);
+		assertThat(cache.resolve("7")).doesNotExist();
+	}
+
+	@Test
+	void startsAFreshDirectoryWhenTheFileChanges() throws IOException {
+		Document document = pdf("changing.pdf", PDRectangle.A4);
+		Path before = service.extractPage(document, 1);
+
+		write("changing.pdf", PDRectangle.A4, PDRectangle.A4);
+		Files.setLastModifiedTime(storage.resolve("changing.pdf"), FileTime.fromMillis(0));
+
+		assertThat(service.describe(document).pageCount()).isEqualTo(2);
+		assertThat(before).doesNotExist();
+	}
+
+	@Test
+	void trimsLeastRecentlyUsedFilesBeyondTheLimit() throws IOException {
+		Document document = pdf("pages.pdf", PDRectangle.A4, PDRectangle.A4, PDRectangle.A4);
+		Path oldest = service.extractPage(document, 1);
+		Path middle = service.extractPage(document, 2);
+		Path newest = service.extractPage(document, 3);
+		Files.setLastModifiedTime(oldest, FileTime.fromMillis(1_000));
+		Files.setLastModifiedTime(middle, FileTime.fromMillis(2_000));
+		Files.setLastModifiedTime(newest, FileTime.fromMillis(3_000));
+		long total = Files.size(oldest) + Files.size(middle) + Files.size(newest);
+
+		// One byte over the limit; removing the least recently used file gets below 90% of it
+		properties.setMaxCacheBytes(total - 1);
+		service.trim();
+
+		assertThat(oldest).doesNotExist();
+		assertThat(service.cachedBytes()).isLessThanOrEqualTo((total - 1) / 10 * 9);
+		assertThat(cachedFiles()).containsExactlyInAnyOrder(middle, newest);
+	}
+
+	@Test
+	void measuresTheCacheLeftByEarlierRuns() throws IOException {
+		Document document = pdf("pages.pdf", PDRectangle.A4);
+		Path page = service.extractPage(document, 1);
+		service.shutdown();
+
+		service = newService();
+		service.trim();
+
+		assertThat(service.cachedBytes()).isEqualTo(Files.size(page));
+	}
+
+	private PdfPageService newService() {
+		SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+		StorageProperties storageProperties = new StorageProperties();
+		storageProperties.setLocation(storage.toString());
+		AdmissionProperties admissionProperties = new AdmissionProperties();
+		admissionProperties.setEnabled(false);
+		PdfPageService pageService = new PdfPageService(new FilesystemStorageService(storageProperties, meterRegistry),
+				properties, new ObjectMapper(), new AdmissionController(admissionProperties, meterRegistry));
+		pageService.init();
+		return pageService;
+	}
+
+	private Document pdf(String name, PDRectangle... pageSizes) throws IOException {
+		write(name, pageSizes);
+		return Document.builder().id(1L).filePath(name).build();
+	}
+
+	private void write(String name, PDRectangle... pageSizes) throws IOException {
+		try (PDDocument pdf = new PDDocument()) {
+			for (PDRectangle size : pageSizes) {
+				pdf.addPage(new PDPage(size));
+			}
+			pdf.save(storage.resolve(name).toFile());
+		}
+	}
+
+	private List<Path> cachedFiles() throws IOException {
+		try (Stream<Path> files = Files.walk(cache)) {
+			return files.filter(Files::isRegularFile).toList();
+		}
+	}
+}
@@ -0,0 +1,171 @@
+package org.paperbridge.backend.document.storage;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.paperbridge.backend.config.HotFileCacheProperties;
+import org.paperbridge.backend.config.StorageProperties;
+import org.springframework.core.io.support.ResourceRegion;
+import org.springframework.http.HttpRange;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.ResourceRegionHttpMessageConverter;
+import org.springframework.mock.http.MockHttpOutputMessage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HotFileCacheTests {
+
+	@TempDir
+	Path root;
+
+	private SimpleMeterRegistry meterRegistry;
+	private HotFileCache cache;
+
+	@BeforeEach
+	void setUp() {
+		StorageProperties storageProperties = new StorageProperties();
+		storageProperties.setLocation(root.toString());
+		HotFileCacheProperties cacheProperties = new HotFileCacheProperties();
+		cacheProperties.setMaxBytes(200);
+		cacheProperties.setMaxFileSize(150);
+		meterRegistry = new SimpleMeterRegistry();
+		cache = new HotFileCache(new FilesystemStorageService(storageProperties, meterRegistry), cacheProperties,
+				meterRegistry);
+	}
+
+	@Test
+	void servesCachedFilesFromMemory() throws IOException {
+		write("a.txt", 100, 'a');
+
+		HotFileCache.CachedFile file = cache.get("a.txt");
+
+		assertThat(file.resource()).isInstanceOf(MappedFileResource.class);
+		assertThat(read(file)).isEqualTo("a".repeat(100));
+		assertThat(cache.cachedBytes()).isEqualTo(100);
+	}
+
+	@Test
+	void skipsFilesAboveTheSizeLimit() throws IOException {
+		write("big.txt", 180, 'b');
+
+		cache.get("big.txt");
+
+		assertThat(cache.size()).isZero();
+	}
+
+	@Test
+	void rejectsColdCandidatesInsteadOfEvictingHotEntries() throws IOException {
+		write("hot.txt", 120, 'h');
+		write("cold.txt", 120, 'c');
+		for (int i = 0; i < 5; i++) {
+			cache.get("hot.txt");
+		}
+
+		HotFileCache.CachedFile cold = cache.get("cold.txt");
+
+		assertThat(cold.resource()).isNotInstanceOf(MappedFileResource.class);
+		assertThat(read(cold)).isEqualTo("c".repeat(120));
+		assertThat(cache.size()).isEqualTo(1);
+		assertThat(cache.get("hot.txt").resource()).isInstanceOf(MappedFileResource.class);
+	}
+
+	@Test
+	void admitsCandidatesThatBecomeHotterThanTheVictim() throws IOException {
+		write("first.txt", 120, '1');
+		write("second.txt", 120, '2');
+		cache.get("first.txt");
+		for (int i = 0; i < 5; i++) {
+			cache.get("second.txt");
+		}
+
+		assertThat(cache.size()).isEqualTo(1);
+		assertThat(read(cache.get("second.txt"))).isEqualTo("2".repeat(120));
+		assertThat(cache.cachedBytes()).isEqualTo(120);
+	}
+
+	@Test
+	void dropsEntriesWhenTheFileChanges() throws IOException {
+		Path path = write("a.txt", 100, 'a');
+		cache.get("a.txt");
+
+		write("a.txt", 50, 'z');
+		Files.setLastModifiedTime(path, FileTime.fromMillis(Files.getLastModifiedTime(path).toMillis() + 1000));
+
+		assertThat(read(cache.get("a.txt"))).isEqualTo("z".repeat(50));
+		assertThat(cache.cachedBytes()).isEqualTo(50);
+	}
+
+	@Test
+	void invalidateRemovesTheEntry() throws IOException {
+		write("a.txt", 100, 'a');
+		cache.get("a.txt");
+
+		cache.invalidate("a.txt");
+
+		assertThat(cache.size()).isZero();
+		assertThat(cache.cachedBytes()).isZero();
+	}
+
+	@Test
+	void countsServedBytesAsTheyAreRead() throws IOException {
+		write("a.txt", 100, 'a');
+		HotFileCache.CachedFile file = cache.get("a.txt");
+
+		assertThat(bytesServed("cache")).isZero();
+
+		read(file);
+
+		assertThat(bytesServed("cache")).isEqualTo(100);
+	}
+
+	@Test
+	void countsOnlyTheRequestedRange() throws IOException {
+		write("a.txt", 100, 'a');
+		write("big.txt", 180, 'b');
+
+		writeRange(cache.get("a.txt"), "bytes=10-29");
+		writeRange(cache.get("big.txt"), "bytes=-50");
+
+		assertThat(bytesServed("cache")).isEqualTo(20);
+		assertThat(bytesServed("disk")).isEqualTo(50);
+	}
+
+	@Test
+	void timesReadsServedFromDisk() throws IOException {
+		write("big.txt", 180, 'b');
+
+		read(cache.get("big.txt"));
+		read(cache.get("big.txt"));
+
+		assertThat(meterRegistry.get("paperbridge.storage.io").tag("operation", "read").timer().count())
+				.isEqualTo(2);
+	}
+
+	private double bytesServed(String source) {
+		return meterRegistry.get("paperbridge.storage.bytes.served").tag("source", source).counter().count();
+	}
+
+	private static void writeRange(HotFileCache.CachedFile file, String range) throws IOException {
+		ResourceRegion region = HttpRange.parseRanges(range).get(0).toResourceRegion(file.resource());
+		MockHttpOutputMessage response = new MockHttpOutputMessage();
+		new ResourceRegionHttpMessageConverter().write(region, MediaType.TEXT_PLAIN, response);
+		assertThat(response.getBodyAsBytes()).hasSize((int) region.getCount());
+	}
+
+	private Path write(String name, int length, char fill) throws IOException {
+		return Files.write(root.resolve(name), String.valueOf(fill).repeat(length).getBytes());
+	}
+
+	private static String read(HotFileCache.CachedFile file) throws IOException {
+		try (InputStream in = file.resource().getInputStream()) {
+			return new String(in.readAllBytes());
+		}
+	}
+}
@@ -0,0 +1,224 @@
+package org.paperbridge.backend.document.storage;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.paperbridge.backend.admission.TokenBucket;
+import org.paperbridge.backend.config.IngestProperties;
+import org.paperbridge.backend.config.PageProperties;
+import org.paperbridge.backend.config.ReconcilerProperties;
+import org.paperbridge.backend.config.StorageProperties;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.spy;
+
+class StorageReconcilerTests {
+
+	/** U+FFFD sorts before U+1F600 by code point, but after its surrogates by UTF-16 unit. */
+	private static final String BMP = "\uFFFD.pdf";
+	private static final String SUPPLEMENTARY = "\uD83D\uDE00.pdf";
+
+	private static final long TWO_HOURS_AGO = System.currentTimeMillis() - TimeUnit.HOURS.toMillis(2);
+
+	@TempDir
+	Path directory;
+
+	private Path root;
+	private ForkJoinPool pool;
+	private StorageReconciler reconciler;
+
+	@BeforeEach
+	void setUp() throws IOException {
+		root = Files.createDirectories(directory.resolve("storage"));
+		pool = new ForkJoinPool(2);
+
+		StorageProperties storageProperties = new StorageProperties();
+		storageProperties.setLocation(root.toString());
+		ReconcilerProperties properties = new ReconcilerProperties();
+		properties.setGracePeriod(Duration.ofHours(1));
+		PageProperties pageProperties = new PageProperties();
+		pageProperties.setCacheLocation(directory.resolve("pages").toString());
+		reconciler = spy(new StorageReconciler(storageProperties, properties, pageProperties, new IngestProperties(),
+				mock(DataSource.class), mock(PlatformTransactionManager.class), new SimpleMeterRegistry()));
+		doReturn(Set.of()).when(reconciler).stillReferenced(anyList());
+	}
+
+	@AfterEach
+	void tearDown() {
+		pool.shutdown();
+	}
+
+	@Test
+	void walkListsNestedFilesSortedByPath() throws IOException {
+		write("b.pdf");
+		write("a/z.pdf");
+		write("a/deep/er/x.pdf");
+		Files.createDirectories(root.resolve("empty"));
+
+		List<StorageEntry> files = StorageWalker.walk(root, pool, null, Comparator.naturalOrder());
+
+		assertThat(files).extracting(StorageEntry::path)
+				.containsExactly("a/deep/er/x.pdf", "a/z.pdf", "b.pdf");
+		assertThat(files).allSatisfy(file -> assertThat(file.size()).isEqualTo(3));
+	}
+
+	@Test
+	void utf8OrderRanksSupplementaryCharactersByCodePoint() {
+		assertThat(SUPPLEMENTARY.compareTo(BMP)).isNegative();
+		assertThat(StorageReconciler.UTF8_ORDER.compare(BMP, SUPPLEMENTARY)).isNegative();
+		assertThat(StorageReconciler.UTF8_ORDER.compare("a", "ab")).isNegative();
+		assertThat(StorageReconciler.UTF8_ORDER.compare("b", "b")).isZero();
+
+		List<StorageEntry> files = entries(SUPPLEMENTARY, BMP).stream()
+				.sorted(Comparator.comparing(StorageEntry::path, StorageReconciler.UTF8_ORDER))
+				.toList();
+
+		// The order PostgreSQL returns with COLLATE "C"; a UTF-16 sort would abort the merge
+		StorageReconciler.Merge merge = StorageReconciler.merge(files, List.of(BMP, SUPPLEMENTARY).iterator(),
+				StorageReconciler.UTF8_ORDER, 10);
+
+		assertThat(merge.orphans).isEmpty();
+		assertThat(merge.missing).isEmpty();
+	}
+
+	@Test
+	void mergeSeparatesOrphansAndMissingFiles() {
+		List<StorageEntry> files = entries("a.pdf", "b.pdf", "d.pdf", "f.pdf");
+
+		StorageReconciler.Merge merge = StorageReconciler.merge(files,
+				List.of("b.pdf", "c.pdf", "d.pdf", "e.pdf").iterator(), Comparator.naturalOrder(), 10);
+
+		assertThat(merge.orphans).extracting(StorageEntry::path).containsExactly("a.pdf", "f.pdf");
+		assertThat(merge.missing).containsExactly("c.pdf", "e.pdf");
+		assertThat(merge.missingCount).isEqualTo(2);
+		assertThat(merge.referenced).isEqualTo(4);
+	}
+
+	@Test
+	void mergeCapsReportedMissingPathsButCountsAll() {
+		StorageReconciler.Merge merge = StorageReconciler.merge(List.of(),
+				List.of("a", "b", "c").iterator(), Comparator.naturalOrder(), 2);
+
+		assertThat(merge.missing).containsExactly("a", "b");
+		assertThat(merge.missingCount).isEqualTo(3);
+	}
+
+	@Test
+	void mergeRejectsUnsortedReferences() {
+		List<StorageEntry> files = entries("a.pdf", "b.pdf");
+
+		assertThatThrownBy(() -> StorageReconciler.merge(files, List.of("b.pdf", "a.pdf").iterator(),
+				Comparator.naturalOrder(), 10))
+				.isInstanceOf(IllegalStateException.class);
+	}
+
+	@Test
+	void reclaimDeletesOnlyOrphansPastTheGracePeriod() throws IOException {
+		StorageEntry expired = orphan("expired.pdf", TWO_HOURS_AGO);
+		StorageEntry recent = orphan("recent.pdf", System.currentTimeMillis());
+
+		List<StorageEntry> deleted = reconciler.reclaim(List.of(expired, recent), budget());
+
+		assertThat(deleted).containsExactly(expired);
+		assertThat(root.resolve("expired.pdf")).doesNotExist();
+		assertThat(root.resolve("recent.pdf")).exists();
+	}
+
+	@Test
+	void reclaimKeepsFilesReferencedSinceTheWalk() throws IOException {
+		StorageEntry adopted = orphan("adopted.pdf", TWO_HOURS_AGO);
+		StorageEntry orphan = orphan("orphan.pdf", TWO_HOURS_AGO);
+		doReturn(Set.of("adopted.pdf")).when(reconciler).stillReferenced(anyList());
+
+		List<StorageEntry> deleted = reconciler.reclaim(List.of(adopted, orphan), budget());
+
+		assertThat(deleted).containsExactly(orphan);
+		assertThat(root.resolve("adopted.pdf")).exists();
+	}
+
+	@Test
+	void reclaimSkipsFilesModifiedSinceTheWalk() throws IOException {
+		StorageEntry entry = orphan("replaced.pdf", TWO_HOURS_AGO);
+		Files.setLastModifiedTime(root.resolve("replaced.pdf"), FileTime.fromMillis(System.currentTimeMillis()));
+
+		List<StorageEntry> deleted = reconciler.reclaim(List.of(entry), budget());
+
+		assertThat(deleted).isEmpty();
+		assertThat(root.resolve("replaced.pdf")).exists();
+	}
+
+	@Test
+	void reclaimNeverDeletesOutsideTheStorageRoot() throws IOException {
+		Path outside = Files.writeString(directory.resolve("outside.pdf"), "pdf");
+		Files.setLastModifiedTime(outside, FileTime.fromMillis(TWO_HOURS_AGO));
+		StorageEntry escape = new StorageEntry("../outside.pdf", 3, TWO_HOURS_AGO);
+
+		List<StorageEntry> deleted = reconciler.reclaim(List.of(escape), budget());
+
+		assertThat(deleted).isEmpty();
+		assertThat(outside).exists();
+	}
+
+	@Test
+	void rejectsDirectoriesInsideTheStorageRoot() {
+		assertThatThrownBy(() -> StorageReconciler.checkSeparate(root,
+				Map.of("paperbridge.ingest.inbox", root.resolve("inbox").toString())))
+				.isInstanceOf(IllegalStateException.class)
+				.hasMessageContaining("paperbridge.ingest.inbox");
+	}
+
+	@Test
+	void rejectsDirectoriesContainingTheStorageRoot() {
+		assertThatThrownBy(() -> StorageReconciler.checkSeparate(root,
+				Map.of("paperbridge.pages.cache-location", directory.toString())))
+				.isInstanceOf(IllegalStateException.class);
+	}
+
+	@Test
+	void acceptsSeparateDirectories() {
+		StorageReconciler.checkSeparate(root, Map.of(
+				"paperbridge.pages.cache-location", directory.resolve("storage-pages").toString(),
+				"paperbridge.ingest.archive-location", ""));
+	}
+
+	private StorageEntry orphan(String path, long lastModified) throws IOException {
+		Path file = write(path);
+		Files.setLastModifiedTime(file, FileTime.fromMillis(lastModified));
+		return new StorageEntry(path, Files.size(file), Files.getLastModifiedTime(file).toMillis());
+	}
+
+	private Path write(String path) throws IOException {
+		Path file = root.resolve(path);
+		Files.createDirectories(file.getParent());
+		return Files.writeString(file, "pdf");
+	}
+
+	private static TokenBucket budget() {
+		return new TokenBucket(10_000, 10_000);
+	}
+
+	private static List<StorageEntry> entries(String... paths) {
+		return Arrays.stream(paths).map(path -> new StorageEntry(path, 1, 0)).toList();
+	}
+}
@@ -0,0 +1,208 @@
+package org.paperbridge.backend.ingest;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.paperbridge.backend.config.IngestProperties;
+import org.paperbridge.backend.config.StorageProperties;
+import org.paperbridge.backend.document.cache.DocumentCache;
+import org.paperbridge.backend.document.change.DocumentChangeFeed;
+import org.paperbridge.backend.document.model.Document;
+import org.paperbridge.backend.document.model.IngestedFile;
+import org.paperbridge.backend.document.page.PdfPageService;
+import org.paperbridge.backend.document.repository.DocumentRepository;
+import org.paperbridge.backend.document.repository.IngestedFileRepository;
+import org.paperbridge.backend.document.storage.FilesystemStorageService;
+import org.paperbridge.backend.worker.DocumentProcessingQueue;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class HotFolderIngestServiceTests {
+
+	@TempDir
+	Path root;
+
+	private final DocumentRepository documentRepository = mock(DocumentRepository.class);
+	private final IngestedFileRepository ingestedFileRepository = mock(IngestedFileRepository.class);
+	private final DocumentProcessingQueue processingQueue = mock(DocumentProcessingQueue.class);
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+	/** Documents committed so far. */
+	private final List<Document> documents = new CopyOnWriteArrayList<>();
+	/** Content hashes committed so far. */
+	private final Set<String> hashes = ConcurrentHashMap.newKeySet();
+	private final AtomicBoolean failWrites = new AtomicBoolean();
+	private final AtomicLong ids = new AtomicLong();
+
+	private Path inbox;
+	private Path storage;
+	private FilesystemStorageService storageService;
+	private HotFolderIngestService service;
+
+	@BeforeEach
+	@SuppressWarnings("unchecked")
+	void setUp() throws IOException {
+		inbox = root.resolve("inbox");
+		storage = root.resolve("storage");
+
+		when(ingestedFileRepository.findKnownHashes(anyCollection())).thenAnswer(invocation -> {
+			Set<String> known = new HashSet<>(invocation.<Collection<String>>getArgument(0));
+			known.retainAll(hashes);
+			return known;
+		});
+		when(ingestedFileRepository.saveAll(anyList())).thenAnswer(invocation -> {
+			invocation.<List<IngestedFile>>getArgument(0).forEach(file -> hashes.add(file.getContentHash()));
+			return invocation.getArgument(0);
+		});
+		when(documentRepository.saveAll(anyList())).thenAnswer(invocation -> {
+			if (failWrites.get()) {
+				throw new IllegalStateException("Database unavailable");
+			}
+			List<Document> batch = invocation.getArgument(0);
+			batch.forEach(document -> document.setId(ids.incrementAndGet()));
+			documents.addAll(batch);
+			return batch;
+		});
+
+		StorageProperties storageProperties = new StorageProperties();
+		storageProperties.setLocation(storage.toString());
+		storageService = spy(new FilesystemStorageService(storageProperties, meterRegistry));
+		storageService.init();
+
+		IngestProperties properties = new IngestProperties();
+		properties.setInbox(inbox.toString());
+		properties.setQuietPeriod(Duration.ofMillis(400));
+		properties.setRescanInterval(Duration.ofMillis(200));
+		properties.setBatchDelay(Duration.ofMillis(50));
+		properties.setStoreConcurrency(2);
+
+		service = new HotFolderIngestService(properties, storageService, documentRepository, ingestedFileRepository,
+				mock(DocumentCache.class), mock(DocumentChangeFeed.class), mock(PdfPageService.class), processingQueue,
+				mock(PlatformTransactionManager.class), meterRegistry);
+		service.start();
+	}
+
+	@AfterEach
+	void tearDown() throws IOException {
+		service.stop();
+	}
+
+	@Test
+	void waitsUntilFileStopsChanging() throws Exception {
+		Files.createDirectories(inbox);
+		Path file = inbox.resolve("scan.pdf");
+		try (OutputStream out = Files.newOutputStream(file)) {
+			// A scanner writing over the network; never quiet for the whole quiet period
+			for (int i = 0; i < 10; i++) {
+				out.write(new byte[100]);
+				out.flush();
+				Thread.sleep(100);
+				assertThat(documents).isEmpty();
+			}
+		}
+
+		await(() -> documents.size() == 1);
+
+		assertThat(storedFiles()).singleElement().satisfies(stored -> assertThat(Files.size(stored)).isEqualTo(1000));
+		await(() -> !Files.exists(file));
+	}
+
+	@Test
+	void importsSameContentOnlyOnce() throws Exception {
+		Files.createDirectories(inbox.resolve("batch"));
+		Files.writeString(inbox.resolve("batch/first.pdf"), "same page");
+		Files.writeString(inbox.resolve("batch/second.pdf"), "same page");
+
+		await(() -> !Files.exists(inbox.resolve("batch/first.pdf")) && !Files.exists(inbox.resolve("batch/second.pdf")));
+		Files.writeString(inbox.resolve("again.pdf"), "same page");
+		await(() -> !Files.exists(inbox.resolve("again.pdf")));
+
+		assertThat(documents).hasSize(1);
+		assertThat(storedFiles()).hasSize(1);
+		assertThat(meterRegistry.get("paperbridge.ingest.files").tag("result", "duplicate").counter().count())
+				.isEqualTo(2);
+	}
+
+	@Test
+	void skipsKnownContentWithoutStoringIt() throws Exception {
+		hashes.add(HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256")
+				.digest("known page".getBytes(StandardCharsets.UTF_8))));
+		Files.createDirectories(inbox);
+		Files.writeString(inbox.resolve("known.pdf"), "known page");
+
+		await(() -> !Files.exists(inbox.resolve("known.pdf")));
+
+		verify(storageService, never()).store(any(InputStream.class), eq("known.pdf"), anyString());
+		assertThat(documents).isEmpty();
+		assertThat(meterRegistry.get("paperbridge.ingest.files").tag("result", "duplicate").counter().count())
+				.isEqualTo(1);
+	}
+
+	@Test
+	void failedBatchCleansUpAndIsRetried() throws Exception {
+		failWrites.set(true);
+		Files.createDirectories(inbox);
+		Path file = inbox.resolve("scan.pdf");
+		Files.writeString(file, "page");
+
+		await(() -> meterRegistry.get("paperbridge.ingest.files").tag("result", "failed").counter().count() > 0);
+
+		// The stored copy is removed and the source stays in the inbox for the next scan
+		await(() -> storedFiles().isEmpty());
+		assertThat(file).exists();
+		assertThat(documents).isEmpty();
+
+		failWrites.set(false);
+		await(() -> documents.size() == 1 && !Files.exists(file));
+		assertThat(storedFiles()).hasSize(1);
+	}
+
+	private List<Path> storedFiles() {
+		try (Stream<Path> files = Files.walk(storage)) {
+			return files.filter(Files::isRegularFile).toList();
+		} catch (IOException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private static void await(BooleanSupplier condition) throws InterruptedException {
+		long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+		while (!condition.getAsBoolean()) {
+			assertThat(System.nanoTime()).as("condition not met within 10 seconds").isLessThan(deadline);
+			Thread.sleep(50);
+		}
+	}
+}
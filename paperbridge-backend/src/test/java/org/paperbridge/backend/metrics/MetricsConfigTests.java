@@ -0,0 +1,42 @@
+package org.paperbridge.backend.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.paperbridge.backend.config.MetricsProperties;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MetricsConfigTests {
+
+	private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+			.withUserConfiguration(MetricsProperties.class, MetricsConfig.class)
+			.withBean(MeterRegistry.class, SimpleMeterRegistry::new);
+
+	@Test
+	void countsStatementsByDefault() {
+		contextRunner.run(context -> {
+			assertThat(context).hasSingleBean(StatementCounter.class);
+			assertThat(context.getBean(MetricsProperties.class).isLean()).isFalse();
+		});
+	}
+
+	@Test
+	void matchesTheModeRegardlessOfCase() {
+		contextRunner.withPropertyValues("paperbridge.metrics.mode=FULL").run(context -> {
+			assertThat(context).hasSingleBean(StatementCounter.class);
+			assertThat(context.getBean(MetricsProperties.class).isLean()).isFalse();
+		});
+		contextRunner.withPropertyValues("paperbridge.metrics.mode=Lean").run(context -> {
+			assertThat(context).doesNotHaveBean(StatementCounter.class);
+			assertThat(context.getBean(MetricsProperties.class).isLean()).isTrue();
+		});
+	}
+
+	@Test
+	void rejectsUnknownModes() {
+		contextRunner.withPropertyValues("paperbridge.metrics.mode=verbose")
+				.run(context -> assertThat(context).hasFailed());
+	}
+}
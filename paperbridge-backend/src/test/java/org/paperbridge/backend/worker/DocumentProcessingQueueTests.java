@@ -0,0 +1,106 @@
+package org.paperbridge.backend.worker;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.paperbridge.backend.admission.AdmissionController;
+import org.paperbridge.backend.config.WorkerProperties;
+import org.paperbridge.backend.document.cache.DocumentCache;
+import org.paperbridge.backend.document.change.DocumentChangeFeed;
+import org.paperbridge.backend.document.duplicate.NearDuplicateService;
+import org.paperbridge.backend.document.model.Document;
+import org.paperbridge.backend.document.repository.DocumentRepository;
+import org.paperbridge.backend.document.storage.StorageService;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.AdditionalAnswers.returnsFirstArg;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class DocumentProcessingQueueTests {
+
+	private final WorkerService workerService = mock(WorkerService.class);
+	private final DocumentRepository documentRepository = mock(DocumentRepository.class);
+	private final StorageService storageService = mock(StorageService.class);
+
+	private DocumentProcessingQueue queue;
+
+	@BeforeEach
+	void setUp() {
+		when(storageService.load(anyString())).thenReturn(Path.of("document.pdf"));
+		when(documentRepository.save(any())).then(returnsFirstArg());
+		queue = new DocumentProcessingQueue(workerService, documentRepository, mock(DocumentCache.class),
+				mock(DocumentChangeFeed.class), mock(NearDuplicateService.class), storageService,
+				mock(AdmissionController.class), new WorkerProperties(), mock(PlatformTransactionManager.class),
+				new SimpleMeterRegistry());
+	}
+
+	@Test
+	void keepsEditsMadeWhileThePipelineRan() {
+		Document queued = document("Scan", "a.pdf");
+		Document edited = document("Invoice 42", "a.pdf");
+		edited.setTags(Set.of("invoice"));
+		when(documentRepository.findById(1L)).thenReturn(Optional.of(queued), Optional.of(edited));
+		when(workerService.processDocument(any())).thenReturn(processed("extracted"));
+
+		queue.process(1L);
+
+		verify(documentRepository).save(edited);
+		assertThat(edited.getContent()).isEqualTo("extracted");
+		assertThat(edited.getTitle()).isEqualTo("Invoice 42");
+		assertThat(edited.getTags()).containsExactly("invoice");
+		assertThat(edited.getProcessedAt()).isNotNull();
+	}
+
+	@Test
+	void marksDocumentsWithoutTextAsProcessed() {
+		Document document = document("Scan", "a.pdf");
+		when(documentRepository.findById(1L)).thenReturn(Optional.of(document));
+		when(workerService.processDocument(any())).thenReturn(processed(""));
+
+		queue.process(1L);
+
+		verify(documentRepository).save(document);
+		assertThat(document.getContent()).isNull();
+		assertThat(document.getProcessedAt()).isNotNull();
+	}
+
+	@Test
+	void queuesOnlyDocumentsNeverProcessed() {
+		when(documentRepository.findIdsNotProcessed(eq(0L), any())).thenReturn(List.of(3L, 5L));
+
+		queue.enqueueUnprocessed();
+
+		assertThat(queue.depth()).isEqualTo(2);
+	}
+
+	@Test
+	void discardsTextOfAReplacedFile() {
+		when(documentRepository.findById(1L))
+				.thenReturn(Optional.of(document("Scan", "a.pdf")), Optional.of(document("Scan", "b.pdf")));
+		when(workerService.processDocument(any())).thenReturn(processed("extracted"));
+
+		queue.process(1L);
+
+		verify(documentRepository, never()).save(any());
+	}
+
+	private static Document document(String title, String filePath) {
+		return Document.builder().id(1L).title(title).filePath(filePath).build();
+	}
+
+	private static WorkerService.ProcessedDocument processed(String text) {
+		return WorkerService.ProcessedDocument.builder().extractedText(text).build();
+	}
+}
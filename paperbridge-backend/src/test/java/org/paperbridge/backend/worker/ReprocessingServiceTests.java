@@ -0,0 +1,265 @@
+package org.paperbridge.backend.worker;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.paperbridge.backend.admission.AdmissionController;
+import org.paperbridge.backend.config.ReprocessingProperties;
+import org.paperbridge.backend.document.cache.DocumentCache;
+import org.paperbridge.backend.document.change.DocumentChangeFeed;
+import org.paperbridge.backend.document.duplicate.NearDuplicateService;
+import org.paperbridge.backend.document.model.Document;
+import org.paperbridge.backend.document.model.DocumentHistory;
+import org.paperbridge.backend.document.model.ReprocessingJob;
+import org.paperbridge.backend.document.model.ReprocessingPartition;
+import org.paperbridge.backend.document.model.ReprocessingStatus;
+import org.paperbridge.backend.document.repository.DocumentHistoryRepository;
+import org.paperbridge.backend.document.repository.DocumentRepository;
+import org.paperbridge.backend.document.repository.ReprocessingJobRepository;
+import org.paperbridge.backend.document.repository.ReprocessingPartitionRepository;
+import org.paperbridge.backend.document.storage.StorageService;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.AdditionalAnswers.returnsFirstArg;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ReprocessingServiceTests {
+
+	private static final long JOB_ID = 7L;
+	private static final long PARTITION_ID = 1L;
+
+	private final WorkerService workerService = mock(WorkerService.class);
+	private final DocumentRepository documentRepository = mock(DocumentRepository.class);
+	private final DocumentHistoryRepository documentHistoryRepository = mock(DocumentHistoryRepository.class);
+	private final ReprocessingJobRepository jobRepository = mock(ReprocessingJobRepository.class);
+	private final ReprocessingPartitionRepository partitionRepository = mock(ReprocessingPartitionRepository.class);
+	private final StorageService storageService = mock(StorageService.class);
+	private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+	private final ReprocessingProperties properties = new ReprocessingProperties();
+
+	private ReprocessingService service;
+
+	@BeforeEach
+	void setUp() {
+		when(storageService.load(anyString())).thenReturn(Path.of("document.pdf"));
+		when(partitionRepository.checkpoint(anyLong(), anyString(), anyLong(), anyInt(), anyInt(), any()))
+				.thenReturn(1);
+		service = new ReprocessingService(workerService, documentRepository, documentHistoryRepository,
+				jobRepository, partitionRepository, mock(DocumentCache.class), mock(DocumentChangeFeed.class),
+				mock(NearDuplicateService.class), storageService, mock(AdmissionController.class), properties,
+				transactionManager, new SimpleMeterRegistry());
+	}
+
+	@Test
+	void splitsIdRangeIntoPartitions() {
+		List<ReprocessingPartition> partitions = ReprocessingService.partitions(7L, 1L, 25L, 10);
+
+		assertThat(partitions)
+				.extracting(ReprocessingPartition::getStartId, ReprocessingPartition::getEndId)
+				.containsExactly(tuple(1L, 10L), tuple(11L, 20L), tuple(21L, 25L));
+		assertThat(partitions).allSatisfy(partition -> {
+			assertThat(partition.getJobId()).isEqualTo(7L);
+			assertThat(partition.getLastProcessedId()).isEqualTo(partition.getStartId() - 1);
+			assertThat(partition.isCompleted()).isFalse();
+		});
+	}
+
+	@Test
+	void coversSingleDocument() {
+		assertThat(ReprocessingService.partitions(1L, 42L, 42L, 10_000))
+				.extracting(ReprocessingPartition::getStartId, ReprocessingPartition::getEndId)
+				.containsExactly(tuple(42L, 42L));
+	}
+
+	@Test
+	void createsNoPartitionsWithoutDocuments() {
+		assertThat(ReprocessingService.partitions(1L, null, null, 10_000)).isEmpty();
+	}
+
+	@Test
+	void resumesAfterTheCheckpoint() throws InterruptedException {
+		ReprocessingPartition partition = partition(5);
+		documents(6, 8);
+		when(documentRepository.findIdsInRange(eq(5L), eq(10L), any())).thenReturn(List.of(6L, 8L));
+		when(workerService.processDocument(any())).thenReturn(processed("text"));
+
+		service.processPartition(run(0), partition);
+
+		verify(documentRepository, never()).findIdsInRange(eq(4L), anyLong(), any());
+		verify(workerService, times(2)).processDocument(any());
+		verify(partitionRepository).checkpoint(eq(PARTITION_ID), anyString(), eq(6L), eq(0), eq(0), any());
+		verify(partitionRepository).checkpoint(eq(PARTITION_ID), anyString(), eq(8L), eq(0), eq(0), any());
+		verify(documentRepository).findIdsInRange(eq(8L), eq(10L), any());
+		verify(partitionRepository).markCompleted(eq(PARTITION_ID), anyString());
+	}
+
+	@Test
+	void storesNoVersionWhenTheTextIsUnchanged() throws InterruptedException {
+		documents(1);
+		when(documentRepository.findIdsInRange(eq(0L), eq(10L), any())).thenReturn(List.of(1L));
+		when(workerService.processDocument(any())).thenReturn(processed("text"));
+
+		service.processPartition(run(0), partition(0));
+
+		verify(documentHistoryRepository, never()).save(any());
+		verify(documentRepository, never()).save(any());
+		verify(partitionRepository).checkpoint(eq(PARTITION_ID), anyString(), eq(1L), eq(0), eq(0), any());
+	}
+
+	@Test
+	void storesAVersionWhenTheTextChanged() throws InterruptedException {
+		documents(1);
+		when(documentRepository.findIdsInRange(eq(0L), eq(10L), any())).thenReturn(List.of(1L));
+		when(workerService.processDocument(any())).thenReturn(processed("better text"));
+		when(documentHistoryRepository.findLatestVersionNumber(1L)).thenReturn(2);
+		when(documentRepository.save(any())).then(returnsFirstArg());
+
+		service.processPartition(run(0), partition(0));
+
+		ArgumentCaptor<DocumentHistory> version = ArgumentCaptor.forClass(DocumentHistory.class);
+		verify(documentHistoryRepository).save(version.capture());
+		assertThat(version.getValue().getVersionNumber()).isEqualTo(3);
+		assertThat(version.getValue().getContent()).isEqualTo("better text");
+		assertThat(version.getValue().getChangeDescription()).isEqualTo("New OCR model");
+		verify(partitionRepository).checkpoint(eq(PARTITION_ID), anyString(), eq(1L), eq(1), eq(0), any());
+	}
+
+	@Test
+	void givesUpThePartitionWhenTheCheckpointIsRejected() throws InterruptedException {
+		documents(1, 2);
+		when(documentRepository.findIdsInRange(eq(0L), eq(10L), any())).thenReturn(List.of(1L, 2L));
+		when(workerService.processDocument(any())).thenReturn(processed("better text"));
+		when(documentRepository.save(any())).then(returnsFirstArg());
+		when(partitionRepository.checkpoint(anyLong(), anyString(), anyLong(), anyInt(), anyInt(), any()))
+				.thenReturn(0);
+
+		service.processPartition(run(0), partition(0));
+
+		verify(transactionManager).rollback(any());
+		verify(workerService, times(1)).processDocument(any());
+		verify(partitionRepository).release(eq(PARTITION_ID), anyString());
+		verify(partitionRepository, never()).markCompleted(anyLong(), anyString());
+	}
+
+	@Test
+	void claimsOnlyPartitionsWonInTheDatabase() throws InterruptedException {
+		ReprocessingPartition won = partition(0);
+		when(partitionRepository.findClaimableIds(eq(JOB_ID), any())).thenReturn(List.of(3L, PARTITION_ID));
+		when(partitionRepository.claim(eq(3L), anyString(), any(), any())).thenReturn(0);
+		when(partitionRepository.claim(eq(PARTITION_ID), anyString(), any(), any())).thenReturn(1);
+		when(partitionRepository.findById(PARTITION_ID)).thenReturn(Optional.of(won));
+
+		assertThat(service.claimNext(run(0))).isSameAs(won);
+	}
+
+	@Test
+	void stopsClaimingOnceTheJobIsNoLongerRunning() throws InterruptedException {
+		when(partitionRepository.countByJobIdAndCompletedFalse(JOB_ID)).thenReturn(1L);
+		when(jobRepository.findById(JOB_ID)).thenReturn(Optional.of(job(ReprocessingStatus.PAUSED, 0)));
+
+		assertThat(service.claimNext(run(0))).isNull();
+	}
+
+	@Test
+	void rateLimitSpacesOutDocuments() throws InterruptedException {
+		long[] ids = LongStream.rangeClosed(1, 8).toArray();
+		documents(ids);
+		when(documentRepository.findIdsInRange(eq(0L), eq(10L), any()))
+				.thenReturn(LongStream.of(ids).boxed().toList());
+		when(workerService.processDocument(any())).thenReturn(processed("text"));
+
+		long start = System.nanoTime();
+		service.processPartition(run(5), partition(0));
+
+		// A burst of 5 documents, then 3 more at 5 per second
+		assertThat(Duration.ofNanos(System.nanoTime() - start)).isGreaterThanOrEqualTo(Duration.ofMillis(500));
+		verify(workerService, times(8)).processDocument(any());
+	}
+
+	@Test
+	void pauseStopsTheWorkersAfterTheCurrentDocument() throws InterruptedException {
+		ReprocessingJob job = job(ReprocessingStatus.PAUSED, 0);
+		when(jobRepository.findById(JOB_ID)).thenReturn(Optional.of(job));
+		when(jobRepository.save(any())).then(returnsFirstArg());
+		when(partitionRepository.countByJobIdAndCompletedFalse(JOB_ID)).thenReturn(1L);
+		when(partitionRepository.findClaimableIds(eq(JOB_ID), any())).thenReturn(List.of(PARTITION_ID));
+		when(partitionRepository.claim(eq(PARTITION_ID), anyString(), any(), any())).thenReturn(1);
+		when(partitionRepository.findById(PARTITION_ID)).thenReturn(Optional.of(partition(0)));
+		documents(1, 2);
+		when(documentRepository.findIdsInRange(eq(0L), eq(10L), any())).thenReturn(List.of(1L, 2L));
+		CountDownLatch processing = new CountDownLatch(1);
+		CountDownLatch paused = new CountDownLatch(1);
+		when(workerService.processDocument(any())).then(invocation -> {
+			processing.countDown();
+			paused.await(5, TimeUnit.SECONDS);
+			return processed("text");
+		});
+
+		service.resume(JOB_ID);
+		assertThat(processing.await(5, TimeUnit.SECONDS)).isTrue();
+		service.pause(JOB_ID);
+		paused.countDown();
+
+		verify(partitionRepository, timeout(5000)).release(eq(PARTITION_ID), anyString());
+		verify(partitionRepository).checkpoint(eq(PARTITION_ID), anyString(), eq(1L), eq(0), eq(0), any());
+		verify(workerService, times(1)).processDocument(any());
+		verify(partitionRepository, never()).markCompleted(anyLong(), anyString());
+		assertThat(job.getStatus()).isEqualTo(ReprocessingStatus.PAUSED);
+	}
+
+	private ReprocessingService.Run run(double documentsPerSecond) {
+		return new ReprocessingService.Run(job(ReprocessingStatus.RUNNING, documentsPerSecond));
+	}
+
+	private static ReprocessingJob job(ReprocessingStatus status, double documentsPerSecond) {
+		return ReprocessingJob.builder()
+				.id(JOB_ID)
+				.status(status)
+				.changeDescription("New OCR model")
+				.concurrency(1)
+				.documentsPerSecond(documentsPerSecond)
+				.build();
+	}
+
+	private static ReprocessingPartition partition(long lastProcessedId) {
+		return ReprocessingPartition.builder()
+				.id(PARTITION_ID)
+				.jobId(JOB_ID)
+				.startId(1)
+				.endId(10)
+				.lastProcessedId(lastProcessedId)
+				.build();
+	}
+
+	private void documents(long... ids) {
+		for (long id : ids) {
+			Document document = Document.builder().id(id).filePath(id + ".pdf").content("text").build();
+			when(documentRepository.findById(id)).thenReturn(Optional.of(document));
+		}
+	}
+
+	private static WorkerService.ProcessedDocument processed(String text) {
+		return WorkerService.ProcessedDocument.builder().extractedText(text).build();
+	}
+}
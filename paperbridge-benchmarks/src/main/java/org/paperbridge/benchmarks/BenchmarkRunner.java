@@ -0,0 +1,33 @@
+package org.paperbridge.benchmarks;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Entry point of {@code benchmarks.jar}.
+ *
+ * Accepts the usual JMH command line (e.g. a benchmark regex, {@code -p fileSize=4096}), but
+ * writes machine-readable JSON results to {@code jmh-results.json} unless {@code -rf}/{@code -rff}
+ * say otherwise, so that runs can be compared with tools such as jmh.morethan.io.
+ */
+public class BenchmarkRunner {
+
+  private static final String DEFAULT_RESULT_FILE = "jmh-results.json";
+
+  public static void main(String[] args) throws CommandLineOptionException, RunnerException {
+    CommandLineOptions commandLine = new CommandLineOptions(args);
+    ChainedOptionsBuilder options = new OptionsBuilder().parent(commandLine);
+    if (!commandLine.getResultFormat().hasValue()) {
+      options.resultFormat(ResultFormatType.JSON);
+    }
+    if (!commandLine.getResult().hasValue()) {
+      options.result(DEFAULT_RESULT_FILE);
+    }
+    new Runner(options.build()).run();
+  }
+}
@@ -0,0 +1,63 @@
+package org.paperbridge.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.paperbridge.backend.worker.EmbeddingService;
+import org.paperbridge.backend.worker.EmbeddingServiceImpl;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link EmbeddingService} calls for single texts and chunk batches. The baseline numbers
+ * only reflect call overhead until a real embedding model is wired in.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EmbeddingBenchmark {
+
+  @Param({"200", "2000"})
+  public int wordsPerChunk;
+
+  @Param({"16"})
+  public int chunks;
+
+  private EmbeddingService embeddingService;
+  private String text;
+  private List<String> textChunks;
+
+  @Setup
+  public void setUp() {
+    embeddingService = new EmbeddingServiceImpl();
+    SyntheticCorpus corpus = new SyntheticCorpus(42, 0, 1, 1);
+    text = corpus.text(wordsPerChunk);
+    textChunks = new ArrayList<>(chunks);
+    for (int i = 0; i < chunks; i++) {
+      textChunks.add(corpus.text(wordsPerChunk));
+    }
+  }
+
+  @Benchmark
+  public List<Float> generateEmbedding() {
+    return embeddingService.generateEmbedding(text);
+  }
+
+  @Benchmark
+  public List<List<Float>> generateEmbeddings() {
+    return embeddingService.generateEmbeddings(textChunks);
+  }
+}
@@ -0,0 +1,52 @@
+package org.paperbridge.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.paperbridge.backend.document.model.Document;
+import org.paperbridge.backend.document.storage.FolderPaths;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the folder derivation behind {@code GET /api/documents/folders} for corpora of
+ * different sizes and folder depths.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FolderDerivationBenchmark {
+
+  @Param({"1000", "10000", "100000"})
+  public int documents;
+
+  @Param({"2", "6"})
+  public int folderDepth;
+
+  private List<String> filePaths;
+
+  @Setup
+  public void setUp() {
+    filePaths = new SyntheticCorpus(42, folderDepth, 8, 1)
+        .documents(documents, 0, 0).stream()
+        .map(Document::getFilePath)
+        .toList();
+  }
+
+  @Benchmark
+  public List<String> foldersOf() {
+    return FolderPaths.foldersOf(filePaths);
+  }
+}
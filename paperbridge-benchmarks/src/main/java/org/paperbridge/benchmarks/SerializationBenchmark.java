@@ -0,0 +1,56 @@
+package org.paperbridge.benchmarks;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.paperbridge.backend.document.model.Document;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures JSON serialization of document lists as returned by {@code GET /api/documents}, using
+ * an ObjectMapper configured like the one Spring Boot provides.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SerializationBenchmark {
+
+  @Param({"100", "1000", "10000"})
+  public int documents;
+
+  /**
+   * Words of OCR text per document; the content field dominates the payload once OCR runs.
+   */
+  @Param({"0", "500"})
+  public int contentWords;
+
+  private ObjectMapper objectMapper;
+  private List<Document> documentList;
+
+  @Setup
+  public void setUp() {
+    objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    documentList = new SyntheticCorpus(42, 3, 8, 50).documents(documents, 3, contentWords);
+  }
+
+  @Benchmark
+  public byte[] serializeDocumentList() throws JsonProcessingException {
+    return objectMapper.writeValueAsBytes(documentList);
+  }
+}
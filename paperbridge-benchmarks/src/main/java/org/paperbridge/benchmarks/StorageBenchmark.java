@@ -0,0 +1,97 @@
+package org.paperbridge.benchmarks;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.paperbridge.backend.config.HotFileCacheProperties;
+import org.paperbridge.backend.config.StorageProperties;
+import org.paperbridge.backend.document.storage.FilesystemStorageService;
+import org.paperbridge.backend.document.storage.HotFileCache;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures storing and loading files of different sizes through {@link FilesystemStorageService},
+ * with and without the hot-file cache.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StorageBenchmark {
+
+  @Param({"4096", "262144", "4194304"})
+  public int fileSize;
+
+  private Path root;
+  private FilesystemStorageService storageService;
+  private HotFileCache hotFileCache;
+  private MockMultipartFile upload;
+  private String storedPath;
+
+  @Setup(Level.Trial)
+  public void setUp() throws IOException {
+    root = Files.createTempDirectory("paperbridge-bench-storage");
+    StorageProperties storageProperties = new StorageProperties();
+    storageProperties.setLocation(root.toString());
+    storageService = new FilesystemStorageService(storageProperties, new SimpleMeterRegistry());
+    storageService.init();
+    hotFileCache = new HotFileCache(storageService, new HotFileCacheProperties(), new SimpleMeterRegistry());
+
+    byte[] content = new SyntheticCorpus(42, 0, 1, 1).bytes(fileSize);
+    upload = new MockMultipartFile("file", "scan.pdf", "application/pdf", content);
+    storedPath = storageService.store(upload, "read");
+  }
+
+  /**
+   * Removes the files written by {@link #store()}, so the directory does not grow across iterations.
+   */
+  @TearDown(Level.Iteration)
+  public void cleanStoredFiles() throws IOException {
+    FileSystemUtils.deleteRecursively(root.resolve("write"));
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() throws IOException {
+    FileSystemUtils.deleteRecursively(root);
+  }
+
+  @Benchmark
+  public String store() {
+    return storageService.store(upload, "write");
+  }
+
+  @Benchmark
+  public long loadFromDisk() throws IOException {
+    try (InputStream in = Files.newInputStream(storageService.load(storedPath))) {
+      return in.transferTo(OutputStream.nullOutputStream());
+    }
+  }
+
+  @Benchmark
+  public long loadFromHotFileCache() throws IOException {
+    try (InputStream in = hotFileCache.get(storedPath).resource().getInputStream()) {
+      return in.transferTo(OutputStream.nullOutputStream());
+    }
+  }
+}
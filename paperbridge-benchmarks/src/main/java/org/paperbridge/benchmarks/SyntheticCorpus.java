@@ -0,0 +1,127 @@
+package org.paperbridge.benchmarks;
+
+import org.paperbridge.backend.document.model.Document;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+/**
+ * Deterministic generator for synthetic documents, file paths and file contents.
+ *
+ * The same seed always produces the same corpus, so results of different runs are comparable.
+ */
+public class SyntheticCorpus {
+
+  private static final String[] WORDS = {
+      "invoice", "contract", "policy", "template", "receipt", "report", "minutes", "offer",
+      "order", "statement", "agreement", "letter", "form", "memo", "certificate", "quote",
+      "payment", "customer", "supplier", "quarter", "annual", "review", "draft", "final"};
+
+  private final SplittableRandom random;
+  private final int folderDepth;
+  private final int folderFanOut;
+  private final int tagVocabulary;
+
+  /**
+   * @param seed The random seed.
+   * @param folderDepth The maximum nesting depth of generated folders; 0 puts everything in the root.
+   * @param folderFanOut The number of distinct subfolders per folder level.
+   * @param tagVocabulary The number of distinct tags to draw from.
+   */
+  public SyntheticCorpus(long seed, int folderDepth, int folderFanOut, int tagVocabulary) {
+    this.random = new SplittableRandom(seed);
+    this.folderDepth = folderDepth;
+    this.folderFanOut = folderFanOut;
+    this.tagVocabulary = tagVocabulary;
+  }
+
+  /**
+   * Generates documents without IDs, ready to be saved or used in memory.
+   *
+   * @param count The number of documents.
+   * @param tagsPerDocument The number of tags per document.
+   * @param contentWords The number of words of OCR text per document.
+   * @return The generated documents.
+   */
+  public List<Document> documents(int count, int tagsPerDocument, int contentWords) {
+    LocalDateTime now = LocalDateTime.now();
+    List<Document> documents = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      String title = word() + "-" + i + ".pdf";
+      documents.add(Document.builder()
+          .title(title)
+          .filePath(filePath(title))
+          .content(text(contentWords))
+          .tags(tags(tagsPerDocument))
+          .createdAt(now.minusMinutes(i))
+          .updatedAt(now.minusMinutes(i))
+          .build());
+    }
+    return documents;
+  }
+
+  /**
+   * Generates a relative file path below a random folder.
+   *
+   * @param filename The file name.
+   * @return The relative path, e.g. "folder-2/folder-0/invoice-17.pdf".
+   */
+  public String filePath(String filename) {
+    StringBuilder path = new StringBuilder();
+    int depth = folderDepth == 0 ? 0 : random.nextInt(folderDepth + 1);
+    for (int level = 0; level < depth; level++) {
+      path.append("folder-").append(random.nextInt(folderFanOut)).append('/');
+    }
+    return path.append(filename).toString();
+  }
+
+  /**
+   * @return A tag name drawn from the vocabulary.
+   */
+  public String tag() {
+    return "tag-" + random.nextInt(tagVocabulary);
+  }
+
+  /**
+   * @param size The number of bytes.
+   * @return Random, incompressible file content.
+   */
+  public byte[] bytes(int size) {
+    byte[] bytes = new byte[size];
+    for (int i = 0; i < size; i++) {
+      bytes[i] = (byte) random.nextInt(256);
+    }
+    return bytes;
+  }
+
+  /**
+   * @param words The number of words.
+   * @return Space-separated text resembling OCR output.
+   */
+  public String text(int words) {
+    StringBuilder text = new StringBuilder(words * 8);
+    for (int i = 0; i < words; i++) {
+      if (i > 0) {
+        text.append(' ');
+      }
+      text.append(word());
+    }
+    return text.toString();
+  }
+
+  private Set<String> tags(int count) {
+    Set<String> tags = new HashSet<>();
+    while (tags.size() < Math.min(count, tagVocabulary)) {
+      tags.add(tag());
+    }
+    return tags;
+  }
+
+  private String word() {
+    return WORDS[random.nextInt(WORDS.length)];
+  }
+}
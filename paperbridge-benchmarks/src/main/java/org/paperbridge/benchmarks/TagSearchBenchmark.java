@@ -0,0 +1,88 @@
+package org.paperbridge.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.paperbridge.backend.BackendApplication;
+import org.paperbridge.backend.document.model.Document;
+import org.paperbridge.backend.document.repository.DocumentRepository;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the repository queries behind tag search and the full document listing against an
+ * in-memory H2 database seeded with a synthetic corpus.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TagSearchBenchmark {
+
+  @Param({"1000", "10000"})
+  public int documents;
+
+  @Param({"100"})
+  public int tagVocabulary;
+
+  private Path workDirectory;
+  private ConfigurableApplicationContext context;
+  private DocumentRepository documentRepository;
+  private SyntheticCorpus corpus;
+
+  @Setup(Level.Trial)
+  public void setUp() throws IOException {
+    workDirectory = Files.createTempDirectory("paperbridge-bench-db");
+    context = new SpringApplicationBuilder(BackendApplication.class)
+        .properties(
+            "server.port=0",
+            "spring.datasource.url=jdbc:h2:mem:bench;DB_CLOSE_DELAY=-1",
+            "spring.datasource.driver-class-name=org.h2.Driver",
+            "spring.jpa.hibernate.ddl-auto=create-drop",
+            "spring.jpa.show-sql=false",
+            // Admission control is not what this benchmark measures
+            "paperbridge.admission.enabled=false",
+            "paperbridge.storage.location=" + workDirectory.resolve("data"),
+            "paperbridge.pages.cache-location=" + workDirectory.resolve("pages"))
+        .run();
+    documentRepository = context.getBean(DocumentRepository.class);
+
+    corpus = new SyntheticCorpus(42, 3, 8, tagVocabulary);
+    documentRepository.saveAll(corpus.documents(documents, 3, 0));
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() throws IOException {
+    context.close();
+    FileSystemUtils.deleteRecursively(workDirectory);
+  }
+
+  @Benchmark
+  public List<Document> searchByTag() {
+    return documentRepository.findByTagsContaining(corpus.tag());
+  }
+
+  @Benchmark
+  public List<Document> findAll() {
+    return documentRepository.findAll();
+  }
+}
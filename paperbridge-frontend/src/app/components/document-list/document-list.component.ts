@@ -1,9 +1,10 @@
-import { Component, OnInit, signal, computed, effect } from '@angular/core';
+import { Component, OnDestroy, OnInit, signal, computed, effect } from '@angular/core';
 import { CommonModule } from '@angular/common';
 import { FormsModule } from '@angular/forms';
 import { Router } from '@angular/router';
+import { Subscription, switchMap } from 'rxjs';
 import { DocumentService } from '../../services/document.service';
-import { Document } from '../../models/document';
+import { Document, DocumentChange } from '../../models/document';
 import { DirectoryTreeComponent } from '../directory-tree/directory-tree.component';
 import { TranslationService } from '../../services/translation.service';
 import { TranslatePipe } from '../../pipes/translate.pipe';
@@ -15,7 +16,7 @@ import { TranslatePipe } from '../../pipes/translate.pipe';
   templateUrl: './document-list.component.html',
   styleUrl: './document-list.component.css'
 })
-export class DocumentListComponent implements OnInit {
+export class DocumentListComponent implements OnInit, OnDestroy {
   allDocuments = signal<Document[]>([]);
   selectedPath = signal<string | null>(null);
   sidebarWidth = signal<number>(250);
@@ -41,10 +42,21 @@ export class DocumentListComponent implements OnInit {
   uploadError = signal<string | null>(null);
   selectedFile: File | null = null;
   showUploadForm = signal<boolean>(false);
-  folders = signal<string[]>([]);
+  // Derived locally from the document list, so uploads don't require another round trip
+  folders = computed(() => {
+    const folders = new Set<string>();
+    this.allDocuments().forEach(doc => {
+      const lastSlash = doc.filePath.lastIndexOf('/');
+      if (lastSlash > 0) {
+        folders.add(doc.filePath.substring(0, lastSlash));
+      }
+    });
+    return [...folders].sort();
+  });
   selectedFolder = '';
   newFolderName = '';
   folderMode: 'select' | 'create' = 'select';
+  private changeSubscription: Subscription | null = null;
 
   constructor(
     private readonly documentService: DocumentService,
@@ -64,23 +76,40 @@ export class DocumentListComponent implements OnInit {
 
   ngOnInit(): void {
     this.loadDocuments();
-    this.loadFolders();
     // Add global event listeners for resizing
     document.addEventListener('mousemove', (e) => this.onMouseMove(e));
     document.addEventListener('mouseup', () => this.onMouseUp());
   }
 
+  ngOnDestroy(): void {
+    this.changeSubscription?.unsubscribe();
+  }
+
+  /**
+   * Loads the full document list once and then keeps it in sync through the change stream.
+   * The sync token is fetched first, so no change between the two requests is missed.
+   */
   loadDocuments(): void {
     this.loading.set(true);
     this.error.set(null);
+    this.changeSubscription?.unsubscribe();
 
-    this.documentService.getAllDocuments().subscribe({
-      next: (docs) => {
-        this.allDocuments.set(docs);
-        this.loading.set(false);
-        this.loadFolders(); // Reload folders after documents change
-      },
+    this.changeSubscription = this.documentService.getChanges().pipe(
+      switchMap(head => this.documentService.getAllDocuments().pipe(
+        switchMap(docs => {
+          this.allDocuments.set(docs);
+          this.loading.set(false);
+          return this.documentService.streamChanges(head.nextToken);
+        })
+      ))
+    ).subscribe({
+      next: (change) => this.applyChange(change),
       error: (err) => {
+        if (!this.loading()) {
+          // The stream was closed for good (e.g. expired token); start over
+          this.loadDocuments();
+          return;
+        }
         this.error.set(err.message || this.translationService.translate('documents.error.loadFailed'));
         this.loading.set(false);
         console.error('Error loading documents:', err);
@@ -88,17 +117,21 @@ export class DocumentListComponent implements OnInit {
     });
   }
 
-  loadFolders(): void {
-    this.documentService.getFolders().subscribe({
-      next: (folderList) => {
-        this.folders.set(folderList);
-      },
-      error: (err) => {
-        console.error('Error loading folders:', err);
-        // Don't show error for folders, just use empty list
-        this.folders.set([]);
-      }
-    });
+  applyChange(change: DocumentChange): void {
+    const docs = this.allDocuments();
+    const summary = change.document;
+    if (change.type === 'DELETED' || !summary) {
+      this.allDocuments.set(docs.filter(doc => doc.id !== change.documentId));
+      return;
+    }
+    // Changes only carry a preview of the content, which is all the list shows
+    const { contentPreview, ...metadata } = summary;
+    const updated: Document = { ...metadata, content: contentPreview };
+    if (docs.some(doc => doc.id === updated.id)) {
+      this.allDocuments.set(docs.map(doc => doc.id === updated.id ? updated : doc));
+    } else {
+      this.allDocuments.set([...docs, updated]);
+    }
   }
 
   formatDate(dateString: string): string {
@@ -174,13 +207,14 @@ export class DocumentListComponent implements OnInit {
     this.uploadError.set(null);
 
     this.documentService.uploadDocument(this.selectedFile, subfolder).subscribe({
-      next: () => {
+      next: (doc) => {
         this.uploading.set(false);
         this.selectedFile = null;
         this.selectedFolder = '';
         this.newFolderName = '';
         this.showUploadForm.set(false);
-        this.loadDocuments(); // Reload the document list and folders
+        // Show the upload right away; the change stream delivers the same document again later
+        this.applyChange({ sequence: 0, type: 'CREATED', documentId: doc.id, document: doc });
       },
       error: (err) => {
         this.uploading.set(false);
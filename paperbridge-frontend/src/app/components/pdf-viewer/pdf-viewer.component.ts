@@ -1,7 +1,7 @@
 import { Component, OnInit, signal } from '@angular/core';
 import { CommonModule } from '@angular/common';
 import { ActivatedRoute, Router } from '@angular/router';
-import { NgxExtendedPdfViewerModule } from 'ngx-extended-pdf-viewer';
+import { NgxExtendedPdfViewerModule, pdfDefaultOptions } from 'ngx-extended-pdf-viewer';
 import { DocumentService } from '../../services/document.service';
 import { Document } from '../../models/document';
 import { TranslatePipe } from '../../pipes/translate.pipe';
@@ -16,6 +16,7 @@ import { TranslatePipe } from '../../pipes/translate.pipe';
 export class PdfViewerComponent implements OnInit {
   document = signal<Document | null>(null);
   pdfUrl = signal<string | null>(null);
+  previewUrl = signal<string | null>(null);
   loading = signal<boolean>(true);
   error = signal<string | null>(null);
 
@@ -23,7 +24,10 @@ export class PdfViewerComponent implements OnInit {
     private route: ActivatedRoute,
     private router: Router,
     private documentService: DocumentService
-  ) {}
+  ) {
+    // Fetch the PDF in ranges on demand instead of downloading the whole file up front
+    pdfDefaultOptions.disableAutoFetch = true;
+  }
 
   ngOnInit(): void {
     const documentId = this.route.snapshot.paramMap.get('id');
@@ -42,6 +46,8 @@ export class PdfViewerComponent implements OnInit {
     this.documentService.getDocumentById(id).subscribe({
       next: (doc) => {
         this.document.set(doc);
+        // Show the server-rendered first page while the viewer loads the document
+        this.previewUrl.set(this.documentService.getPageImageUrl(id, 1));
         // Construct the PDF URL
         this.pdfUrl.set(this.documentService.getDocumentFileUrl(id));
         this.loading.set(false);
@@ -54,6 +60,10 @@ export class PdfViewerComponent implements OnInit {
     });
   }
 
+  onPdfLoaded(): void {
+    this.previewUrl.set(null);
+  }
+
   goBack(): void {
     this.router.navigate(['/documents']);
   }
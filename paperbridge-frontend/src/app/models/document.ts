@@ -7,3 +7,29 @@ export interface Document {
   createdAt: string;
   updatedAt: string;
 }
+
+export type DocumentChangeType = 'CREATED' | 'UPDATED' | 'DELETED';
+
+export interface DocumentSummary {
+  id: number;
+  title?: string;
+  filePath: string;
+  tags?: string[];
+  contentPreview?: string;
+  createdAt: string;
+  updatedAt: string;
+}
+
+export interface DocumentChange {
+  sequence: number;
+  type: DocumentChangeType;
+  documentId: number;
+  filePath?: string;
+  document?: DocumentSummary;
+}
+
+export interface ChangePage {
+  changes: DocumentChange[];
+  nextToken: number;
+  hasMore: boolean;
+}
@@ -1,7 +1,7 @@
 import { Injectable } from '@angular/core';
 import { HttpClient } from '@angular/common/http';
 import { Observable } from 'rxjs';
-import { Document } from '../models/document';
+import { ChangePage, Document, DocumentChange } from '../models/document';
 
 @Injectable({
   providedIn: 'root'
@@ -25,6 +25,38 @@ export class DocumentService {
     });
   }
 
+  /**
+   * Returns the changes after a sync token. Without a token, only the current token is returned.
+   * Fails with status 410 when the token is too old; reload everything in that case.
+   * @param since The last sequence number seen
+   */
+  getChanges(since?: number): Observable<ChangePage> {
+    return this.http.get<ChangePage>(`${this.apiUrl}/changes`, {
+      params: since !== undefined ? { since } : {}
+    });
+  }
+
+  /**
+   * Streams document changes after a sync token via Server-Sent Events. The browser reconnects
+   * on its own; the observable only errors when the stream is closed for good, e.g. because the
+   * token expired, in which case the caller should reload and subscribe again.
+   * @param since The last sequence number seen
+   */
+  streamChanges(since: number): Observable<DocumentChange> {
+    return new Observable<DocumentChange>(subscriber => {
+      const source = new EventSource(`${this.apiUrl}/changes/stream?since=${since}`);
+      source.addEventListener('change', event => {
+        subscriber.next(JSON.parse((event as MessageEvent).data) as DocumentChange);
+      });
+      source.onerror = () => {
+        if (source.readyState === EventSource.CLOSED) {
+          subscriber.error(new Error('Change stream closed'));
+        }
+      };
+      return () => source.close();
+    });
+  }
+
   getFolders(): Observable<string[]> {
     return this.http.get<string[]>(`${this.apiUrl}/folders`);
   }
@@ -46,4 +78,16 @@ export class DocumentService {
   getDocumentFileUrl(id: number): string {
     return `${this.apiUrl}/${id}/file`;
   }
+
+  /**
+   * Returns the URL of a single page rendered server-side as an image.
+   * @param id The document ID
+   * @param page The 1-based page number
+   * @param dpi Optional resolution; the server default is used when omitted
+   * @returns The URL string
+   */
+  getPageImageUrl(id: number, page: number, dpi?: number): string {
+    const url = `${this.apiUrl}/${id}/pages/${page}/image`;
+    return dpi ? `${url}?dpi=${dpi}` : url;
+  }
 }
@@ -0,0 +1,125 @@
+package org.paperbridge.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Thin asynchronous client for the document REST API.
+ *
+ * Response bodies are read completely but discarded, except for uploads, whose returned ID is
+ * needed to download the document later.
+ */
+public class ApiClient {
+
+  private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(60);
+
+  private final HttpClient httpClient;
+  private final ObjectMapper objectMapper = new ObjectMapper();
+  private final String baseUrl;
+
+  public ApiClient(String baseUrl) {
+    this.baseUrl = baseUrl + "/api/documents";
+    this.httpClient = HttpClient.newBuilder()
+        .connectTimeout(Duration.ofSeconds(10))
+        .build();
+  }
+
+  public CompletableFuture<HttpResponse<Void>> list() {
+    return send(get(""));
+  }
+
+  public CompletableFuture<HttpResponse<Void>> folders() {
+    return send(get("/folders"));
+  }
+
+  public CompletableFuture<HttpResponse<Void>> download(long id) {
+    return send(get("/" + id + "/file"));
+  }
+
+  public CompletableFuture<HttpResponse<Void>> search(String tag) {
+    return send(get("/search?tag=" + URLEncoder.encode(tag, StandardCharsets.UTF_8)));
+  }
+
+  /**
+   * Uploads a file as multipart/form-data, the way the frontend does.
+   *
+   * @param file The file to upload.
+   * @return The response, with the created document as its body.
+   */
+  public CompletableFuture<HttpResponse<byte[]>> upload(CorpusFile file) {
+    String boundary = "----paperbridge-" + UUID.randomUUID();
+    HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl))
+        .timeout(REQUEST_TIMEOUT)
+        .header("Content-Type", "multipart/form-data; boundary=" + boundary)
+        .POST(HttpRequest.BodyPublishers.ofByteArray(multipart(boundary, file)))
+        .build();
+    return httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofByteArray());
+  }
+
+  /**
+   * Replaces the tags of an uploaded document; used while seeding so searches have hits.
+   *
+   * @param created The body returned by {@link #upload(CorpusFile)}.
+   * @param tags The tags to set.
+   * @return The response of the update.
+   */
+  public CompletableFuture<HttpResponse<Void>> tag(byte[] created, Collection<String> tags) throws IOException {
+    ObjectNode document = (ObjectNode) objectMapper.readTree(created);
+    document.set("tags", objectMapper.valueToTree(tags));
+    HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/" + document.get("id").asLong()))
+        .timeout(REQUEST_TIMEOUT)
+        .header("Content-Type", "application/json")
+        .PUT(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(document)))
+        .build();
+    return send(request);
+  }
+
+  /**
+   * @param created The body returned by {@link #upload(CorpusFile)}.
+   * @return The ID of the created document.
+   */
+  public long idOf(byte[] created) throws IOException {
+    JsonNode document = objectMapper.readTree(created);
+    return document.get("id").asLong();
+  }
+
+  private HttpRequest get(String path) {
+    return HttpRequest.newBuilder(URI.create(baseUrl + path))
+        .timeout(REQUEST_TIMEOUT)
+        .GET()
+        .build();
+  }
+
+  private CompletableFuture<HttpResponse<Void>> send(HttpRequest request) {
+    return httpClient.sendAsync(request, HttpResponse.BodyHandlers.discarding());
+  }
+
+  private static byte[] multipart(String boundary, CorpusFile file) {
+    ByteArrayOutputStream body = new ByteArrayOutputStream(file.content().length + 512);
+    if (!file.subfolder().isEmpty()) {
+      body.writeBytes(("--" + boundary + "\r\n"
+          + "Content-Disposition: form-data; name=\"subfolder\"\r\n\r\n"
+          + file.subfolder() + "\r\n").getBytes(StandardCharsets.UTF_8));
+    }
+    body.writeBytes(("--" + boundary + "\r\n"
+        + "Content-Disposition: form-data; name=\"file\"; filename=\"" + file.filename() + "\"\r\n"
+        + "Content-Type: " + file.contentType() + "\r\n\r\n").getBytes(StandardCharsets.UTF_8));
+    body.writeBytes(file.content());
+    body.writeBytes(("\r\n--" + boundary + "--\r\n").getBytes(StandardCharsets.UTF_8));
+    return body.toByteArray();
+  }
+}
@@ -0,0 +1,12 @@
+package org.paperbridge.loadtest;
+
+/**
+ * A generated file ready to be uploaded.
+ *
+ * @param filename The original file name sent with the upload.
+ * @param subfolder The target folder, or an empty string for the root.
+ * @param contentType The MIME type of the file.
+ * @param content The file content.
+ */
+public record CorpusFile(String filename, String subfolder, String contentType, byte[] content) {
+}
@@ -0,0 +1,134 @@
+package org.paperbridge.loadtest;
+
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.apache.pdfbox.pdmodel.font.Standard14Fonts;
+import org.apache.pdfbox.pdmodel.graphics.image.LosslessFactory;
+import org.apache.pdfbox.pdmodel.graphics.image.PDImageXObject;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.SplittableRandom;
+
+/**
+ * Deterministic generator for realistic upload payloads: multi-page PDFs and PNG scans of a
+ * configurable size, spread over a nested folder tree.
+ *
+ * Sizes are reached with noisy images, which compress poorly, so the bytes on the wire are close
+ * to the requested size. The same seed always produces the same sequence of files.
+ */
+public class CorpusGenerator {
+
+  private static final String[] WORDS = {
+      "invoice", "contract", "policy", "template", "receipt", "report", "minutes", "offer",
+      "order", "statement", "agreement", "letter", "form", "memo", "certificate", "quote"};
+
+  /** Bytes of a PNG per noise pixel, roughly; used to size images before encoding. */
+  private static final int BYTES_PER_PIXEL = 3;
+
+  private final LoadTestConfig config;
+  private final SplittableRandom random;
+  private int counter;
+
+  public CorpusGenerator(LoadTestConfig config) {
+    this.config = config;
+    this.random = new SplittableRandom(config.seed);
+  }
+
+  /**
+   * @return The next generated file.
+   */
+  public synchronized CorpusFile next() {
+    int index = counter++;
+    int targetBytes = 1024 * (config.minFileKb + random.nextInt(config.maxFileKb - config.minFileKb + 1));
+    String name = word() + "-" + index;
+    try {
+      if (random.nextDouble() < config.pdfShare) {
+        return new CorpusFile(name + ".pdf", folder(), "application/pdf", pdf(name, targetBytes));
+      }
+      return new CorpusFile(name + ".png", folder(), "image/png", png(targetBytes));
+    } catch (IOException e) {
+      throw new UncheckedIOException("Could not generate " + name, e);
+    }
+  }
+
+  /**
+   * @return A tag name drawn from the vocabulary.
+   */
+  public synchronized String tag() {
+    return "tag-" + random.nextInt(config.tagVocabulary);
+  }
+
+  /**
+   * @param bound The exclusive upper bound.
+   * @return A random index below the bound.
+   */
+  public synchronized int nextIndex(int bound) {
+    return random.nextInt(bound);
+  }
+
+  private String folder() {
+    StringBuilder folder = new StringBuilder();
+    int depth = config.folderDepth == 0 ? 0 : random.nextInt(config.folderDepth + 1);
+    for (int level = 0; level < depth; level++) {
+      if (level > 0) {
+        folder.append('/');
+      }
+      folder.append("folder-").append(random.nextInt(config.folderFanOut));
+    }
+    return folder.toString();
+  }
+
+  /**
+   * Builds a PDF with one text page per started 256 KB, each carrying a share of the noise.
+   */
+  private byte[] pdf(String title, int targetBytes) throws IOException {
+    int pages = 1 + targetBytes / (256 * 1024);
+    try (PDDocument document = new PDDocument()) {
+      PDType1Font font = new PDType1Font(Standard14Fonts.FontName.HELVETICA);
+      for (int i = 0; i < pages; i++) {
+        PDPage page = new PDPage(PDRectangle.A4);
+        document.addPage(page);
+        PDImageXObject image = LosslessFactory.createFromImage(document, noise(targetBytes / pages));
+        try (PDPageContentStream content = new PDPageContentStream(document, page)) {
+          content.beginText();
+          content.setFont(font, 14);
+          content.newLineAtOffset(50, 780);
+          content.showText(title + " - page " + (i + 1) + " - " + word() + " " + word());
+          content.endText();
+          content.drawImage(image, 50, 50, 495, 700);
+        }
+      }
+      ByteArrayOutputStream out = new ByteArrayOutputStream(targetBytes + 4096);
+      document.save(out);
+      return out.toByteArray();
+    }
+  }
+
+  private byte[] png(int targetBytes) throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream(targetBytes + 4096);
+    ImageIO.write(noise(targetBytes), "png", out);
+    return out.toByteArray();
+  }
+
+  private BufferedImage noise(int targetBytes) {
+    int side = Math.max(16, (int) Math.sqrt((double) targetBytes / BYTES_PER_PIXEL));
+    BufferedImage image = new BufferedImage(side, side, BufferedImage.TYPE_INT_RGB);
+    for (int y = 0; y < side; y++) {
+      for (int x = 0; x < side; x++) {
+        image.setRGB(x, y, random.nextInt(0x1000000));
+      }
+    }
+    return image;
+  }
+
+  private String word() {
+    return WORDS[random.nextInt(WORDS.length)];
+  }
+}
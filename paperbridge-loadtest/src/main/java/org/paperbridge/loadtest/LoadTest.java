@@ -0,0 +1,148 @@
+package org.paperbridge.loadtest;
+
+import org.paperbridge.backend.BackendApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Entry point of the load test: starts the backend unless an external target is given, seeds it
+ * with a synthetic corpus through the REST API, drives the configured mix of operations and
+ * reports latency percentiles and throughput.
+ */
+public class LoadTest {
+
+  /** Uploads in flight while seeding; seeding is not measured, it only has to finish quickly. */
+  private static final int SEED_CONCURRENCY = 16;
+  /** Distinct payloads reused for uploads during the run. */
+  private static final int UPLOAD_POOL_SIZE = 50;
+
+  public static void main(String[] args) throws Exception {
+    LoadTestConfig config = LoadTestConfig.parse(args);
+    String startedAt = OffsetDateTime.now().toString();
+
+    Path workDirectory = null;
+    ConfigurableApplicationContext backend = null;
+    String target = config.target;
+    try {
+      if (target == null) {
+        workDirectory = Files.createTempDirectory("paperbridge-loadtest");
+        backend = startBackend(config, workDirectory);
+        int port = ((WebServerApplicationContext) backend).getWebServer().getPort();
+        target = "http://localhost:" + port;
+      }
+
+      ApiClient client = new ApiClient(target);
+      CorpusGenerator corpus = new CorpusGenerator(config);
+      System.out.printf("Seeding %d documents into %s%n", config.corpusDocuments, target);
+      List<Long> documentIds = seed(config, client, corpus);
+
+      List<CorpusFile> uploadPool = new ArrayList<>(UPLOAD_POOL_SIZE);
+      for (int i = 0; i < UPLOAD_POOL_SIZE; i++) {
+        uploadPool.add(corpus.next());
+      }
+
+      System.out.printf("Warming up for %s, then measuring for %s at %s requests per second%n",
+          config.warmup, config.duration, config.rates);
+      Map<Operation, OperationStats> stats = new OpenModelDriver(config, client, corpus, uploadPool, documentIds)
+          .run();
+
+      Report report = Report.of(startedAt, config, target, documentIds.size(), stats);
+      report.print(System.out);
+      report.write(config.report);
+      System.out.printf("Report written to %s%n", config.report.toAbsolutePath());
+    } finally {
+      if (backend != null) {
+        backend.close();
+      }
+      if (workDirectory != null) {
+        FileSystemUtils.deleteRecursively(workDirectory);
+      }
+    }
+    System.exit(0);
+  }
+
+  /**
+   * Starts the backend on a random port with its storage below the work directory. The database is
+   * an in-memory H2 instance unless a JDBC URL is configured, e.g. a disposable PostgreSQL.
+   */
+  private static ConfigurableApplicationContext startBackend(LoadTestConfig config, Path workDirectory) {
+    return new SpringApplicationBuilder(BackendApplication.class)
+        .properties(backendProperties(config, workDirectory))
+        .run();
+  }
+
+  /**
+   * @return The settings of the embedded backend.
+   */
+  static String[] backendProperties(LoadTestConfig config, Path workDirectory) {
+    boolean h2 = config.jdbcUrl.startsWith("jdbc:h2:");
+    List<String> properties = new ArrayList<>(List.of(
+        "server.port=0",
+        "spring.datasource.url=" + config.jdbcUrl,
+        "spring.datasource.username=" + config.jdbcUsername,
+        "spring.datasource.password=" + config.jdbcPassword,
+        "spring.jpa.hibernate.ddl-auto=" + (h2 ? "create-drop" : "update"),
+        "spring.jpa.show-sql=false",
+        "spring.servlet.multipart.max-file-size=" + (config.maxFileKb + 1024) + "KB",
+        "spring.servlet.multipart.max-request-size=" + (config.maxFileKb + 1024) + "KB",
+        "paperbridge.storage.location=" + workDirectory.resolve("data"),
+        "paperbridge.pages.cache-location=" + workDirectory.resolve("pages")));
+    if (config.admission) {
+      // Seeding and the default mix exceed the per-client rates, and every request comes from here
+      properties.add("paperbridge.admission.interactive.client-rate=0");
+      properties.add("paperbridge.admission.upload.client-rate=0");
+    } else {
+      properties.add("paperbridge.admission.enabled=false");
+    }
+    return properties.toArray(String[]::new);
+  }
+
+  /**
+   * Uploads the corpus and tags every document, so downloads and searches have something to hit.
+   *
+   * @return The IDs of the created documents.
+   */
+  private static List<Long> seed(LoadTestConfig config, ApiClient client, CorpusGenerator corpus)
+      throws InterruptedException {
+    List<Long> ids = Collections.synchronizedList(new ArrayList<>());
+    Semaphore permits = new Semaphore(SEED_CONCURRENCY);
+    List<CompletableFuture<?>> pending = new ArrayList<>();
+    for (int i = 0; i < config.corpusDocuments; i++) {
+      CorpusFile file = corpus.next();
+      Set<String> tags = new HashSet<>(List.of(corpus.tag(), corpus.tag()));
+      permits.acquire();
+      pending.add(client.upload(file)
+          .thenCompose(response -> {
+            if (response.statusCode() / 100 != 2) {
+              throw new IllegalStateException("Seeding upload failed with status " + response.statusCode());
+            }
+            try {
+              ids.add(client.idOf(response.body()));
+              return client.tag(response.body(), tags);
+            } catch (IOException e) {
+              throw new IllegalStateException("Unexpected upload response", e);
+            }
+          })
+          .thenApply(HttpResponse::statusCode)
+          .whenComplete((status, error) -> permits.release()));
+    }
+    CompletableFuture.allOf(pending.toArray(CompletableFuture[]::new)).join();
+    return new ArrayList<>(ids);
+  }
+}
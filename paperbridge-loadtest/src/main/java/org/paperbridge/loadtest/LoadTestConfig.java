@@ -0,0 +1,123 @@
+package org.paperbridge.loadtest;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Settings of a load test run, parsed from {@code --name=value} command line arguments.
+ *
+ * The defaults model the "browsing office plus scanner batch" scenario: mostly interactive reads
+ * with a steady stream of uploads.
+ */
+public class LoadTestConfig {
+
+  /** Base URL of a running backend; when null, an embedded backend is started. */
+  String target;
+  /** JDBC URL for the embedded backend; defaults to an in-memory H2 database. */
+  String jdbcUrl = "jdbc:h2:mem:loadtest;DB_CLOSE_DELAY=-1";
+  String jdbcUsername = "sa";
+  String jdbcPassword = "";
+  /**
+   * Whether the embedded backend keeps admission control on. All requests come from this one
+   * address, so its per-client rate limits are lifted either way; only the concurrency budgets and
+   * queues apply.
+   */
+  boolean admission = false;
+
+  Duration warmup = Duration.ofSeconds(30);
+  Duration duration = Duration.ofMinutes(2);
+  /** Requests allowed in flight before new arrivals are dropped and counted as such. */
+  int maxInFlight = 2_000;
+
+  /** Target arrival rates per second, independent of how fast the backend responds. */
+  final Map<Operation, Double> rates = new EnumMap<>(Operation.class);
+
+  int corpusDocuments = 500;
+  int minFileKb = 50;
+  int maxFileKb = 2_048;
+  /** Share of generated files that are PDFs; the rest are PNG images. */
+  double pdfShare = 0.8;
+  int folderDepth = 3;
+  int folderFanOut = 5;
+  int tagVocabulary = 50;
+  long seed = 42;
+
+  Path report = Path.of("loadtest-report.json");
+
+  LoadTestConfig() {
+    rates.put(Operation.LIST, 10.0);
+    rates.put(Operation.FOLDERS, 10.0);
+    rates.put(Operation.DOWNLOAD, 40.0);
+    rates.put(Operation.SEARCH, 10.0);
+    rates.put(Operation.UPLOAD, 5.0);
+  }
+
+  /**
+   * Parses arguments such as {@code --duration=5m --rate.upload=20 --target=http://host:8080}.
+   *
+   * @param args The command line arguments.
+   * @return The resulting configuration.
+   * @throws IllegalArgumentException for unknown or malformed arguments.
+   */
+  static LoadTestConfig parse(String[] args) {
+    Map<String, String> values = new HashMap<>();
+    for (String arg : args) {
+      if (!arg.startsWith("--") || !arg.contains("=")) {
+        throw new IllegalArgumentException("Expected --name=value but got: " + arg);
+      }
+      int separator = arg.indexOf('=');
+      values.put(arg.substring(2, separator), arg.substring(separator + 1));
+    }
+
+    LoadTestConfig config = new LoadTestConfig();
+    for (Map.Entry<String, String> entry : values.entrySet()) {
+      String value = entry.getValue();
+      switch (entry.getKey()) {
+        case "target" -> config.target = value.endsWith("/") ? value.substring(0, value.length() - 1) : value;
+        case "jdbc-url" -> config.jdbcUrl = value;
+        case "jdbc-username" -> config.jdbcUsername = value;
+        case "jdbc-password" -> config.jdbcPassword = value;
+        case "admission" -> config.admission = Boolean.parseBoolean(value);
+        case "warmup" -> config.warmup = duration(value);
+        case "duration" -> config.duration = duration(value);
+        case "max-in-flight" -> config.maxInFlight = Integer.parseInt(value);
+        case "documents" -> config.corpusDocuments = Integer.parseInt(value);
+        case "min-file-kb" -> config.minFileKb = Integer.parseInt(value);
+        case "max-file-kb" -> config.maxFileKb = Integer.parseInt(value);
+        case "pdf-share" -> config.pdfShare = Double.parseDouble(value);
+        case "folder-depth" -> config.folderDepth = Integer.parseInt(value);
+        case "folder-fan-out" -> config.folderFanOut = Integer.parseInt(value);
+        case "tags" -> config.tagVocabulary = Integer.parseInt(value);
+        case "seed" -> config.seed = Long.parseLong(value);
+        case "report" -> config.report = Path.of(value);
+        default -> {
+          if (!entry.getKey().startsWith("rate.")) {
+            throw new IllegalArgumentException("Unknown option: --" + entry.getKey());
+          }
+          Operation operation = Operation.valueOf(entry.getKey().substring(5).toUpperCase());
+          config.rates.put(operation, Double.parseDouble(value));
+        }
+      }
+    }
+    if (config.minFileKb < 1 || config.maxFileKb < config.minFileKb) {
+      throw new IllegalArgumentException("Require 1 <= min-file-kb <= max-file-kb");
+    }
+    return config;
+  }
+
+  /**
+   * Parses durations like "90s", "5m" or "1h".
+   */
+  private static Duration duration(String value) {
+    long amount = Long.parseLong(value.substring(0, value.length() - 1));
+    return switch (value.charAt(value.length() - 1)) {
+      case 's' -> Duration.ofSeconds(amount);
+      case 'm' -> Duration.ofMinutes(amount);
+      case 'h' -> Duration.ofHours(amount);
+      default -> throw new IllegalArgumentException("Expected a duration like 90s, 5m or 1h: " + value);
+    };
+  }
+}
@@ -0,0 +1,165 @@
+package org.paperbridge.loadtest;
+
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Issues requests following an open workload model: arrivals are a Poisson process at the
+ * configured rates, whether or not earlier requests have completed.
+ *
+ * A closed loop of virtual users waits for each response before sending the next request, so a
+ * slow backend quietly lowers the offered load and hides its own queueing delay. Here every
+ * request has an intended start time drawn from the arrival process, and latency is measured from
+ * that time. When the dispatcher falls behind, the lateness is part of the recorded latency.
+ *
+ * Whether a request is measured depends on its intended start time, not on when it completes, so
+ * warm-up requests still in flight when the measured phase begins are not recorded.
+ */
+public class OpenModelDriver {
+
+  private final LoadTestConfig config;
+  private final ApiClient client;
+  private final CorpusGenerator corpus;
+  private final List<CorpusFile> uploadPool;
+  private final List<Long> documentIds;
+  private final Map<Operation, OperationStats> stats = new EnumMap<>(Operation.class);
+  private final AtomicInteger inFlight = new AtomicInteger();
+  private final AtomicInteger uploadCounter = new AtomicInteger();
+  private final SplittableRandom random;
+
+  /**
+   * @param config The run settings.
+   * @param client The client to send requests with.
+   * @param corpus The generator used to pick tags and documents.
+   * @param uploadPool Pre-generated files to upload, so payloads are not built on the hot path.
+   * @param documentIds The IDs of the seeded documents; uploads made during the run are added.
+   */
+  public OpenModelDriver(LoadTestConfig config, ApiClient client, CorpusGenerator corpus,
+      List<CorpusFile> uploadPool, List<Long> documentIds) {
+    this.config = config;
+    this.client = client;
+    this.corpus = corpus;
+    this.uploadPool = uploadPool;
+    this.documentIds = new CopyOnWriteArrayList<>(documentIds);
+    this.random = new SplittableRandom(config.seed + 1);
+    for (Operation operation : Operation.values()) {
+      stats.put(operation, new OperationStats());
+    }
+  }
+
+  /**
+   * Runs the warm-up and the measured phase, then waits for outstanding requests.
+   *
+   * @return The statistics of the measured phase per operation.
+   */
+  public Map<Operation, OperationStats> run() {
+    List<Operation> operations = new ArrayList<>();
+    List<Double> cumulativeRates = new ArrayList<>();
+    double totalRate = 0;
+    for (Map.Entry<Operation, Double> rate : config.rates.entrySet()) {
+      if (rate.getValue() > 0) {
+        totalRate += rate.getValue();
+        operations.add(rate.getKey());
+        cumulativeRates.add(totalRate);
+      }
+    }
+    if (operations.isEmpty()) {
+      throw new IllegalArgumentException("At least one operation needs a rate above zero");
+    }
+
+    long start = System.nanoTime();
+    long measureFrom = start + config.warmup.toNanos();
+    long end = measureFrom + config.duration.toNanos();
+    long intended = start;
+    while (true) {
+      // The merged arrivals of independent Poisson processes are a Poisson process of the summed rate
+      intended += (long) (-Math.log(1 - random.nextDouble()) / totalRate * 1_000_000_000L);
+      if (intended >= end) {
+        break;
+      }
+      long wait = intended - System.nanoTime();
+      if (wait > 0) {
+        LockSupport.parkNanos(wait);
+      }
+      dispatch(pick(operations, cumulativeRates, totalRate), intended, intended >= measureFrom);
+    }
+
+    awaitInFlight();
+    return stats;
+  }
+
+  private Operation pick(List<Operation> operations, List<Double> cumulativeRates, double totalRate) {
+    double point = random.nextDouble() * totalRate;
+    for (int i = 0; i < operations.size(); i++) {
+      if (point < cumulativeRates.get(i)) {
+        return operations.get(i);
+      }
+    }
+    return operations.get(operations.size() - 1);
+  }
+
+  private void dispatch(Operation operation, long intended, boolean measured) {
+    OperationStats operationStats = stats.get(operation);
+    if (inFlight.get() >= config.maxInFlight || (operation == Operation.DOWNLOAD && documentIds.isEmpty())) {
+      if (measured) {
+        operationStats.recordDropped();
+      }
+      return;
+    }
+    inFlight.incrementAndGet();
+
+    CompletableFuture<? extends HttpResponse<?>> response = switch (operation) {
+      case LIST -> client.list();
+      case FOLDERS -> client.folders();
+      case SEARCH -> client.search(corpus.tag());
+      case DOWNLOAD -> client.download(documentIds.get(corpus.nextIndex(documentIds.size())));
+      case UPLOAD -> upload();
+    };
+    response.whenComplete((result, error) -> {
+      long latency = System.nanoTime() - intended;
+      inFlight.decrementAndGet();
+      if (!measured) {
+        return;
+      }
+      if (error != null) {
+        operationStats.recordFailure(latency);
+      } else {
+        operationStats.record(latency, result.statusCode());
+      }
+    });
+  }
+
+  private CompletableFuture<HttpResponse<byte[]>> upload() {
+    int index = uploadCounter.getAndIncrement();
+    CorpusFile template = uploadPool.get(index % uploadPool.size());
+    // Stored names get a UUID anyway; a fresh title per upload keeps the documents distinguishable
+    CorpusFile file = new CorpusFile("run-" + index + "-" + template.filename(), template.subfolder(),
+        template.contentType(), template.content());
+    return client.upload(file).thenApply(response -> {
+      if (response.statusCode() / 100 == 2) {
+        try {
+          documentIds.add(client.idOf(response.body()));
+        } catch (Exception e) {
+          // The latency still counts; the document is just not downloaded later
+        }
+      }
+      return response;
+    });
+  }
+
+  private void awaitInFlight() {
+    long deadline = System.nanoTime() + TimeUnit.MINUTES.toNanos(2);
+    while (inFlight.get() > 0 && System.nanoTime() < deadline) {
+      LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(50));
+    }
+  }
+}
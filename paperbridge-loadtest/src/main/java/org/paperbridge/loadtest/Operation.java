@@ -0,0 +1,17 @@
+package org.paperbridge.loadtest;
+
+/**
+ * REST operations driven by the load test.
+ */
+public enum Operation {
+  /** GET /api/documents */
+  LIST,
+  /** GET /api/documents/folders */
+  FOLDERS,
+  /** POST /api/documents */
+  UPLOAD,
+  /** GET /api/documents/{id}/file */
+  DOWNLOAD,
+  /** GET /api/documents/search?tag= */
+  SEARCH
+}
@@ -0,0 +1,77 @@
+package org.paperbridge.loadtest;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latencies and outcomes of one operation, safe to update from many response threads.
+ */
+public class OperationStats {
+
+  /** Latencies are recorded in microseconds, up to one hour, with three significant digits. */
+  private static final long MAX_LATENCY_MICROS = TimeUnit.HOURS.toMicros(1);
+
+  private final Recorder recorder = new Recorder(MAX_LATENCY_MICROS, 3);
+  private final ConcurrentMap<Integer, LongAdder> statuses = new ConcurrentHashMap<>();
+  private final LongAdder failures = new LongAdder();
+  private final LongAdder dropped = new LongAdder();
+
+  /**
+   * Records a completed request.
+   *
+   * @param latencyNanos The time from the intended start of the request until its response.
+   * @param status The HTTP status code.
+   */
+  public void record(long latencyNanos, int status) {
+    recorder.recordValue(Math.min(MAX_LATENCY_MICROS, TimeUnit.NANOSECONDS.toMicros(latencyNanos)));
+    statuses.computeIfAbsent(status, key -> new LongAdder()).increment();
+  }
+
+  /**
+   * Records a request that failed without a response, e.g. a refused connection or a timeout.
+   *
+   * @param latencyNanos The time from the intended start of the request until the failure.
+   */
+  public void recordFailure(long latencyNanos) {
+    recorder.recordValue(Math.min(MAX_LATENCY_MICROS, TimeUnit.NANOSECONDS.toMicros(latencyNanos)));
+    failures.increment();
+  }
+
+  /**
+   * Records an arrival that was not sent because too many requests were already in flight.
+   */
+  public void recordDropped() {
+    dropped.increment();
+  }
+
+  /**
+   * @return The latency histogram of everything recorded, in microseconds.
+   */
+  public Histogram histogram() {
+    return recorder.getIntervalHistogram();
+  }
+
+  /**
+   * @return The number of responses per HTTP status code.
+   */
+  public Map<Integer, Long> statuses() {
+    Map<Integer, Long> counts = new TreeMap<>();
+    statuses.forEach((status, count) -> counts.put(status, count.sum()));
+    return counts;
+  }
+
+  public long failures() {
+    return failures.sum();
+  }
+
+  public long dropped() {
+    return dropped.sum();
+  }
+}
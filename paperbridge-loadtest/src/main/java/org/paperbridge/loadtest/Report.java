@@ -0,0 +1,109 @@
+package org.paperbridge.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Summary of a measured run: latency percentiles, throughput and outcomes per operation.
+ *
+ * @param startedAt When the run started, as an ISO-8601 timestamp.
+ * @param target The base URL that was tested.
+ * @param durationSeconds The length of the measured phase.
+ * @param corpusDocuments The number of documents seeded before the run.
+ * @param offeredRates The configured arrival rates per second.
+ * @param operations The results per operation.
+ */
+public record Report(String startedAt, String target, double durationSeconds, int corpusDocuments,
+    Map<Operation, Double> offeredRates, Map<Operation, OperationReport> operations) {
+
+  /**
+   * Results of one operation. Latencies are in milliseconds.
+   *
+   * @param requests Requests that completed, successfully or not.
+   * @param throughput Completed requests per second.
+   * @param errors Responses with a 4xx or 5xx status plus requests that failed without a response.
+   * @param dropped Arrivals not sent because the in-flight limit was reached.
+   * @param statuses The number of responses per HTTP status code.
+   */
+  public record OperationReport(long requests, double throughput, long errors, long dropped,
+      Map<Integer, Long> statuses, double mean, double p50, double p95, double p99, double p999, double max) {
+  }
+
+  /**
+   * Builds the report from the statistics of the measured phase.
+   */
+  public static Report of(String startedAt, LoadTestConfig config, String target, int corpusDocuments,
+      Map<Operation, OperationStats> stats) {
+    double seconds = config.duration.toMillis() / 1000.0;
+    Map<Operation, OperationReport> operations = new LinkedHashMap<>();
+    for (Map.Entry<Operation, OperationStats> entry : stats.entrySet()) {
+      OperationStats operationStats = entry.getValue();
+      Histogram histogram = operationStats.histogram();
+      if (histogram.getTotalCount() == 0 && operationStats.dropped() == 0) {
+        continue;
+      }
+      Map<Integer, Long> statuses = operationStats.statuses();
+      long errors = operationStats.failures() + statuses.entrySet().stream()
+          .filter(status -> status.getKey() >= 400)
+          .mapToLong(Map.Entry::getValue)
+          .sum();
+      operations.put(entry.getKey(), new OperationReport(
+          histogram.getTotalCount(),
+          round(histogram.getTotalCount() / seconds),
+          errors,
+          operationStats.dropped(),
+          statuses,
+          millis(histogram.getMean()),
+          millis(histogram.getValueAtPercentile(50)),
+          millis(histogram.getValueAtPercentile(95)),
+          millis(histogram.getValueAtPercentile(99)),
+          millis(histogram.getValueAtPercentile(99.9)),
+          millis(histogram.getMaxValue())));
+    }
+    return new Report(startedAt, target, seconds, corpusDocuments, config.rates, operations);
+  }
+
+  /**
+   * Prints the results as a table.
+   *
+   * @param out The stream to print to.
+   */
+  public void print(PrintStream out) {
+    out.printf("%nMeasured %s against %s with %d seeded documents%n",
+        Duration.ofMillis((long) (durationSeconds * 1000)), target, corpusDocuments);
+    out.printf("%-9s %9s %8s %7s %7s %9s %9s %9s %9s %9s%n",
+        "operation", "requests", "req/s", "errors", "dropped", "mean ms", "p50 ms", "p95 ms", "p99 ms", "max ms");
+    operations.forEach((operation, result) -> out.printf(
+        "%-9s %9d %8.1f %7d %7d %9.1f %9.1f %9.1f %9.1f %9.1f%n",
+        operation.name().toLowerCase(), result.requests(), result.throughput(), result.errors(), result.dropped(),
+        result.mean(), result.p50(), result.p95(), result.p99(), result.max()));
+  }
+
+  /**
+   * Writes the report as JSON, so runs can be compared over time.
+   *
+   * @param file The file to write.
+   * @throws IOException if the file cannot be written.
+   */
+  public void write(Path file) throws IOException {
+    new ObjectMapper()
+        .enable(SerializationFeature.INDENT_OUTPUT)
+        .writeValue(file.toFile(), this);
+  }
+
+  private static double millis(double micros) {
+    return round(micros / 1000.0);
+  }
+
+  private static double round(double value) {
+    return Math.round(value * 100) / 100.0;
+  }
+}
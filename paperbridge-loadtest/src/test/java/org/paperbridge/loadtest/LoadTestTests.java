@@ -0,0 +1,98 @@
+package org.paperbridge.loadtest;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.paperbridge.backend.admission.AdmissionController;
+import org.paperbridge.backend.admission.AdmissionRejectedException;
+import org.paperbridge.backend.admission.TrafficClass;
+import org.paperbridge.backend.config.AdmissionProperties;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.context.properties.source.MapConfigurationPropertySource;
+
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the admission controller with the settings the load test gives its embedded backend, at the
+ * request rates the load test sends from its single address.
+ */
+class LoadTestTests {
+
+	private static final String CLIENT = "127.0.0.1";
+
+	@TempDir
+	Path workDirectory;
+
+	@Test
+	void backendDefaultsWouldRejectSeeding() throws InterruptedException {
+		LoadTestConfig config = LoadTestConfig.parse(new String[0]);
+		AdmissionController controller = new AdmissionController(new AdmissionProperties(), new SimpleMeterRegistry());
+
+		assertThat(rejected(controller, TrafficClass.UPLOAD, config.corpusDocuments)).isPositive();
+	}
+
+	@Test
+	void embeddedBackendAdmitsSeedingAndTheDefaultMix() throws InterruptedException {
+		LoadTestConfig config = LoadTestConfig.parse(new String[0]);
+		AdmissionController controller = admissionController(config);
+
+		assertThat(rejected(controller, TrafficClass.UPLOAD, config.corpusDocuments)).isZero();
+		assertThat(rejected(controller, TrafficClass.INTERACTIVE, interactiveRequestsPerMinute(config))).isZero();
+	}
+
+	@Test
+	void admissionModeKeepsBudgetsButLiftsClientRates() throws InterruptedException {
+		LoadTestConfig config = LoadTestConfig.parse(new String[] {"--admission=true"});
+		AdmissionProperties properties = bind(config);
+		AdmissionController controller = new AdmissionController(properties, new SimpleMeterRegistry());
+
+		assertThat(properties.isEnabled()).isTrue();
+		assertThat(properties.getUpload().getMaxConcurrent()).isEqualTo(new AdmissionProperties().getUpload()
+				.getMaxConcurrent());
+		assertThat(rejected(controller, TrafficClass.UPLOAD, config.corpusDocuments)).isZero();
+		assertThat(rejected(controller, TrafficClass.INTERACTIVE, interactiveRequestsPerMinute(config))).isZero();
+	}
+
+	private AdmissionController admissionController(LoadTestConfig config) {
+		return new AdmissionController(bind(config), new SimpleMeterRegistry());
+	}
+
+	private AdmissionProperties bind(LoadTestConfig config) {
+		Map<String, String> properties = new HashMap<>();
+		for (String property : LoadTest.backendProperties(config, workDirectory)) {
+			int separator = property.indexOf('=');
+			properties.put(property.substring(0, separator), property.substring(separator + 1));
+		}
+		return new Binder(new MapConfigurationPropertySource(properties))
+				.bind("paperbridge.admission", AdmissionProperties.class)
+				.orElseGet(AdmissionProperties::new);
+	}
+
+	/**
+	 * Sends requests back to back, faster than the load test does, and counts the rejected ones.
+	 */
+	private static int rejected(AdmissionController controller, TrafficClass trafficClass, int requests)
+			throws InterruptedException {
+		int rejected = 0;
+		for (int i = 0; i < requests; i++) {
+			try (AdmissionController.Permit permit = controller.admit(trafficClass, CLIENT)) {
+				// Completes immediately
+			} catch (AdmissionRejectedException e) {
+				rejected++;
+			}
+		}
+		return rejected;
+	}
+
+	private static int interactiveRequestsPerMinute(LoadTestConfig config) {
+		double rate = config.rates.entrySet().stream()
+				.filter(entry -> entry.getKey() != Operation.UPLOAD)
+				.mapToDouble(Map.Entry::getValue)
+				.sum();
+		return (int) (rate * 60);
+	}
+}